@@ -4,11 +4,17 @@ import eu.druglogics.gitsbe.drug.DrugPanel;
 import eu.druglogics.gitsbe.input.Config;
 import eu.druglogics.gitsbe.input.ModelOutputs;
 import eu.druglogics.gitsbe.input.TrainingData;
+import eu.druglogics.gitsbe.model.AttractorCache;
+import eu.druglogics.gitsbe.model.Attractors;
 import eu.druglogics.gitsbe.model.BooleanModel;
+import eu.druglogics.gitsbe.model.Checkpoint;
 import eu.druglogics.gitsbe.model.Evolution;
 import eu.druglogics.gitsbe.model.GeneralModel;
+import eu.druglogics.gitsbe.model.MPBNWorkerPool;
+import eu.druglogics.gitsbe.model.MigrationRing;
 import eu.druglogics.gitsbe.output.Summary;
 import eu.druglogics.gitsbe.util.FileDeleter;
+import eu.druglogics.gitsbe.util.LatencyStatistics;
 import eu.druglogics.gitsbe.util.Logger;
 import eu.druglogics.gitsbe.util.RandomManager;
 import eu.druglogics.gitsbe.util.Timer;
@@ -19,8 +25,16 @@ import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Paths;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 import java.util.Properties;
 import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 
 import static eu.druglogics.gitsbe.util.FileDeleter.cleanDirectory;
@@ -52,16 +66,32 @@ public class Gitsbe implements Runnable {
 	private String filenameDrugs;
 	private String directoryOutput;
 	private String directoryTmp;
+	private boolean resume;
 
 	// Declare one general model that is defined by input files
 	private GeneralModel generalModel;
 
 	private Logger logger;
 	private ArrayList<String> simulationFileList;
+	private ForkJoinPool evaluationPool;
+	private ForkJoinPool conditionPool;
+	private ArrayList<Checkpoint> checkpoints;
+	private MigrationRing migrationRing;
 
 	public Gitsbe(String projectName, String filenameNetwork, String filenameTrainingData,
 				  String filenameModelOutputs, String filenameConfig, String filenameDrugs,
 				  String directoryOutput, String directoryTmp) {
+		this(projectName, filenameNetwork, filenameTrainingData, filenameModelOutputs, filenameConfig,
+			filenameDrugs, directoryOutput, directoryTmp, false);
+	}
+
+	/**
+	 * Used by the {@link Launcher} to resume an interrupted run: if <i>resume</i> is true, the
+	 * simulations continue from the checkpoints saved in the given output directory
+	 */
+	Gitsbe(String projectName, String filenameNetwork, String filenameTrainingData,
+		   String filenameModelOutputs, String filenameConfig, String filenameDrugs,
+		   String directoryOutput, String directoryTmp, boolean resume) {
 		this.projectName = projectName;
 		this.filenameNetwork = filenameNetwork;
 		this.filenameTrainingData = filenameTrainingData;
@@ -70,6 +100,7 @@ public class Gitsbe implements Runnable {
 		this.filenameDrugs = filenameDrugs;
 		this.directoryOutput = directoryOutput;
 		this.directoryTmp = directoryTmp;
+		this.resume = resume;
 	}
 
 	@Override
@@ -96,6 +127,7 @@ public class Gitsbe implements Runnable {
 
 		// Load config file
 		loadConfigFile();
+		configureAttractorTool();
 
 		// Create general Boolean model from general model or load from file
 		generalModel = new GeneralModel(logger);
@@ -119,21 +151,28 @@ public class Gitsbe implements Runnable {
 		// Summary report for Gitsbe
 		Summary summary = initializeSummary();
 
+		initializeEvaluationPool();
+		initializeConditionPool();
+		initializeMPBNWorkerPool();
+		initializeCheckpoints(generalBooleanModel);
+		initializeMigrationRing();
+
 		// Run simulations
 		ArrayList<Random> randomSeedsList = new ArrayList<>();
 		int numberOfSimulations = Config.getInstance().getSimulations();
 		for (int run = 0; run < numberOfSimulations; run++) {
-			// run is the seed for Random
-			randomSeedsList.add(new Random(run));
+			// run is the seed for Random (a resumed simulation continues with its saved Random)
+			Checkpoint checkpoint = checkpoints.get(run);
+			randomSeedsList.add((checkpoint != null && checkpoint.isLoaded())
+				? checkpoint.getRandom()
+				: new Random(run));
 		}
 
 		if (Config.getInstance().useParallelSimulations()) {
 			// Run evolution simulations in parallel
-			setNumberOfAllowedParallelSimulations();
 			simulationFileList = new ArrayList<>();
-			IntStream.range(0, numberOfSimulations).parallel().forEach(run ->
-				RandomManager.withRandom(randomSeedsList.get(run), () ->
-					runSimulation(run, summary, generalBooleanModel, directoryModels, directoryLog)));
+			runSimulationsInParallel(randomSeedsList, summary, generalBooleanModel,
+				directoryModels, directoryLog);
 			mergeLogFiles(directoryLog);
 		} else {
 			logger.outputStringMessage(1, "\nRunning simulations serially");
@@ -142,7 +181,12 @@ public class Gitsbe implements Runnable {
 					runSimulation(run, summary, generalBooleanModel, directoryModels, directoryLog)));
 		}
 
+		shutdownEvaluationPool();
+		shutdownConditionPool();
+		shutdownMPBNWorkerPool();
+
 		summary.generateFitnessesReport();
+		logAttractorCacheStatistics();
 
 		// Save Models in appropriate file
 		saveBestModelsToFile(summary);
@@ -232,12 +276,195 @@ public class Gitsbe implements Runnable {
         }
     }
 
-	private void setNumberOfAllowedParallelSimulations() {
-		int parallelSimulationsNumber = Config.getInstance().parallelSimulationsNumber();
-		System.setProperty("java.util.concurrent.ForkJoinPool.common.parallelism",
-				Integer.toString(parallelSimulationsNumber - 1));
-		logger.outputStringMessage(1, "\nSetting number of parallel simulations to: "
-				+ parallelSimulationsNumber);
+	/**
+	 * Runs the simulations on a dedicated pool sized by the <i>parallel_sim_num</i>
+	 * configuration parameter (the common {@link ForkJoinPool} is not used since its
+	 * parallelism cannot be changed after it has been initialized). The method returns
+	 * when all simulations have finished and the pool has been shut down.
+	 */
+	private void runSimulationsInParallel(ArrayList<Random> randomSeedsList, Summary summary,
+										  BooleanModel generalBooleanModel, String directoryModels,
+										  String directoryLog) {
+		ForkJoinPool simulationPool = new ForkJoinPool(Config.getInstance().parallelSimulationsNumber());
+		logger.outputStringMessage(1, "\nRunning simulations in parallel (parallelism: "
+				+ simulationPool.getParallelism() + ")");
+
+		List<Callable<Void>> simulations = IntStream.range(0, randomSeedsList.size())
+			.mapToObj(run -> (Callable<Void>) () -> {
+				RandomManager.withRandom(randomSeedsList.get(run), () ->
+					runSimulation(run, summary, generalBooleanModel, directoryModels, directoryLog));
+				return null;
+			}).collect(Collectors.toList());
+
+		for (Future<Void> simulation : simulationPool.invokeAll(simulations)) {
+			try {
+				simulation.get();
+			} catch (InterruptedException | ExecutionException e) {
+				e.printStackTrace();
+			}
+		}
+
+		simulationPool.shutdown();
+		try {
+			simulationPool.awaitTermination(1, TimeUnit.MINUTES);
+		} catch (InterruptedException e) {
+			e.printStackTrace();
+		}
+	}
+
+	private void initializeEvaluationPool() {
+		Config config = Config.getInstance();
+
+		if (config.useParallelFitness()) {
+			evaluationPool = new ForkJoinPool(config.parallelFitnessNumber());
+			logger.outputStringMessage(1, "\nEvaluating the models of each generation in parallel "
+				+ "(parallelism: " + evaluationPool.getParallelism() + ")");
+		}
+	}
+
+	private void shutdownEvaluationPool() {
+		if (evaluationPool != null) {
+			evaluationPool.shutdown();
+		}
+	}
+
+	private void initializeConditionPool() {
+		Config config = Config.getInstance();
+
+		if (config.useParallelConditions()) {
+			conditionPool = new ForkJoinPool(config.parallelConditionsNumber());
+			logger.outputStringMessage(1, "\nSimulating the training data conditions of each model in parallel "
+				+ "(parallelism: " + conditionPool.getParallelism() + ")");
+		}
+	}
+
+	private void shutdownConditionPool() {
+		if (conditionPool != null) {
+			conditionPool.shutdown();
+		}
+	}
+
+	private void initializeMPBNWorkerPool() {
+		Config config = Config.getInstance();
+
+		if (config.getAttractorTool().equals("mpbn_trapspaces") && config.getMPBNWorkers() > 0) {
+			try {
+				String scriptFile = MPBNWorkerPool.extractWorkerScript(directoryTmp);
+				Attractors.setMPBNWorkerPool(new MPBNWorkerPool(config.getMPBNWorkers(),
+					scriptFile, directoryTmp, config.getBNReductionTimeout(), logger));
+				logger.outputStringMessage(1, "\nStarted " + config.getMPBNWorkers()
+					+ " mpbn worker processes");
+			} catch (IOException e) {
+				e.printStackTrace();
+				logger.outputStringMessage(1, "Problem starting the mpbn worker processes");
+				abort();
+			}
+		}
+	}
+
+	private void shutdownMPBNWorkerPool() {
+		MPBNWorkerPool workerPool = Attractors.getMPBNWorkerPool();
+		if (workerPool != null) {
+			logger.outputStringMessage(1, "\nStopping the mpbn worker processes (restarts: "
+				+ workerPool.getRestarts() + ")");
+			workerPool.shutdown();
+			Attractors.setMPBNWorkerPool(null);
+		}
+	}
+
+	/**
+	 * Sets up the checkpoint of every simulation (in the <i>checkpoints</i> subfolder of
+	 * the output directory) and, if the run is resumed, loads the checkpoints saved by
+	 * the interrupted run. A simulation without a (valid) checkpoint starts from scratch.
+	 */
+	private void initializeCheckpoints(BooleanModel generalBooleanModel) {
+		Config config = Config.getInstance();
+		checkpoints = new ArrayList<>(Collections.nCopies(config.getSimulations(), null));
+
+		if (!resume && config.getCheckpointInterval() == 0) return;
+
+		String directoryCheckpoints = new File(directoryOutput, "checkpoints").getAbsolutePath();
+		try {
+			createDirectory(directoryCheckpoints, logger);
+		} catch (IOException e) {
+			e.printStackTrace();
+			abort();
+		}
+
+		if (config.getCheckpointInterval() > 0) {
+			logger.outputStringMessage(1, "\nSaving a checkpoint of each simulation every "
+				+ config.getCheckpointInterval() + " generations in: " + directoryCheckpoints);
+		}
+
+		for (int run = 0; run < config.getSimulations(); run++) {
+			int simulation = run + 1;
+			Checkpoint checkpoint = new Checkpoint(directoryCheckpoints, simulation);
+
+			if (resume && checkpoint.exists()) {
+				try {
+					checkpoint.load(generalBooleanModel, logger);
+					logger.outputStringMessage(1, "Loaded the checkpoint of simulation " + simulation
+						+ " (" + checkpoint.getGenerations() + " generations"
+						+ (checkpoint.isCompleted() ? ", completed)" : ")"));
+				} catch (IOException e) {
+					e.printStackTrace();
+					logger.outputStringMessage(1, "Problem loading the checkpoint of simulation "
+						+ simulation + " - it will be simulated from the start");
+					checkpoint = new Checkpoint(directoryCheckpoints, simulation);
+				}
+			}
+
+			checkpoints.set(run, checkpoint);
+		}
+	}
+
+	private void initializeMigrationRing() {
+		Config config = Config.getInstance();
+
+		if (config.getMigrationInterval() > 0) {
+			// one island per simulation that runs at the same time
+			int islands = Math.min(config.parallelSimulationsNumber(), config.getSimulations());
+			if (config.useParallelSimulations() && islands > 1) {
+				migrationRing = new MigrationRing(islands);
+				logger.outputStringMessage(1, "\nMigrating the " + config.getMigrationSize()
+					+ " best models between the " + islands + " simulations running in parallel every "
+					+ config.getMigrationInterval() + " generations");
+			} else {
+				logger.outputStringMessage(1, "\nMigration of best models needs more than one "
+					+ "parallel simulation (use_parallel_sim) - the simulations will run isolated");
+			}
+		}
+	}
+
+	private void configureAttractorTool() {
+		Config config = Config.getInstance();
+
+		if (config.getAttractorTool().startsWith("biolqm_") && config.useBioLQMInMemory()) {
+			logger.outputStringMessage(1, "\nBioLQM logical models will be built in-memory "
+				+ "(no .bnet files will be written for the attractor calculations)");
+		}
+		Attractors.setBioLQMInMemory(config.useBioLQMInMemory());
+		Attractors.setBNReductionTimeout(config.getBNReductionTimeout());
+
+		if (config.getAttractorCacheSize() > 0) {
+			logger.outputStringMessage(1, "\nAttractors will be cached for up to "
+				+ config.getAttractorCacheSize() + " models");
+			Attractors.setAttractorCache(new AttractorCache(config.getAttractorCacheSize()));
+		}
+	}
+
+	private void logAttractorCacheStatistics() {
+		AttractorCache cache = Attractors.getAttractorCache();
+		if (cache != null) {
+			logger.outputHeader(1, "Attractor cache");
+			logger.outputStringMessage(1, cache.getStatistics());
+		}
+
+		LatencyStatistics bnetReductionStatistics = Attractors.getBNReductionStatistics();
+		if (bnetReductionStatistics.getCalls() > 0) {
+			logger.outputHeader(1, "BNReduction calls");
+			logger.outputStringMessage(1, bnetReductionStatistics.getStatistics());
+		}
 	}
 
 	private void activateFileDeleter() {
@@ -278,6 +505,9 @@ public class Gitsbe implements Runnable {
 			addFileToSimulationFileList(new File(logDirectory, filenameOutput).getAbsolutePath());
 			try {
 				simulationLogger = new Logger(filenameOutput, logDirectory, verbosity, true);
+				if (config.useAsyncLogging()) {
+					simulationLogger.startAsync();
+				}
 			} catch (IOException e1) {
 				e1.printStackTrace();
 			}
@@ -291,8 +521,24 @@ public class Gitsbe implements Runnable {
 		String baseModelName = removeExtension(generalBooleanModel.getModelName()) + "_run_" + run + "_";
 		Evolution ga = new Evolution(summary, generalBooleanModel, baseModelName,
 			modelDirectory, directoryTmp, simulationLogger);
+		ga.setEvaluationPool(evaluationPool);
+		ga.setConditionPool(conditionPool);
+		ga.setCheckpoint(checkpoints.get(run));
+		int island = (migrationRing != null) ? migrationRing.join() : -1;
+		if (island >= 0) {
+			ga.setMigration(migrationRing, island);
+		} else if (migrationRing != null) {
+			simulationLogger.outputStringMessage(1, "No free island in the migration ring "
+				+ "- the simulation will run isolated");
+		}
 
-		ga.evolve(run);
+		try {
+			ga.evolve(run);
+		} finally {
+			if (island >= 0) {
+				migrationRing.leave(island);
+			}
+		}
 		ga.outputBestModels();
 
 		try {
@@ -302,6 +548,12 @@ public class Gitsbe implements Runnable {
 		}
 
 		addModelsToSummaryBestModelList(ga, run, summary, simulationLogger);
+		ga.saveCheckpoint(true);
+
+		// the simulation log files are merged afterwards
+		if (config.useParallelSimulations()) {
+			simulationLogger.finish();
+		}
 	}
 
 	synchronized private void addFileToSimulationFileList(String filename) {
@@ -466,7 +718,21 @@ public class Gitsbe implements Runnable {
 	private Summary initializeSummary() {
 		String summaryFilename = new File(this.directoryOutput, projectName).getAbsolutePath()
 				+ "_summary.txt";
-		return new Summary(summaryFilename, logger);
+		Summary summary = new Summary(summaryFilename, logger);
+
+		if (Config.getInstance().exportFitnessesToBinary()) {
+			String fitnessFilename = new File(this.directoryOutput, projectName).getAbsolutePath()
+					+ "_fitnesses.bin";
+			try {
+				summary.setBinaryFitnessFile(fitnessFilename);
+				logger.outputStringMessage(1, "\nThe fitness evolution will also be written to: "
+					+ fitnessFilename);
+			} catch (IOException e) {
+				e.printStackTrace();
+				logger.outputStringMessage(1, "Problem creating the binary fitness file: " + fitnessFilename);
+			}
+		}
+		return summary;
 	}
 
 	private void loadConfigFile() {
@@ -479,6 +745,9 @@ public class Gitsbe implements Runnable {
 
 		// Now that we have the verbosity from the config, we can re-set it in the logger
 		logger.setVerbosity(Config.getInstance().getVerbosity());
+		if (Config.getInstance().useAsyncLogging()) {
+			logger.startAsync();
+		}
 		logger.outputHeader(1, "Config options");
 		logger.outputLines(1, Config.getInstance().getConfig());
 	}
@@ -30,6 +30,7 @@ public class Launcher {
             String filenameModelOutputs = arguments.getFilenameModelOutputs();
             String filenameConfig = arguments.getFilenameConfig();
             String filenameDrugs = arguments.getFilenameDrugs();
+            String directoryResume = arguments.getDirectoryResume();
 
             // Inferring the input directory from the config file
             String directoryInput = inferInputDir(filenameConfig);
@@ -39,10 +40,16 @@ public class Launcher {
                 projectName = getFileName(directoryInput);
             }
 
-            DateFormat dateFormat = new SimpleDateFormat("yyyyMMdd_HHmmss");
-            String directoryOutput = new File(directoryInput,
-                    projectName + "_" + dateFormat.format(Calendar.getInstance().getTime()))
-                    .getAbsolutePath();
+            // A resumed run continues in the output directory of the interrupted one
+            String directoryOutput;
+            if (directoryResume != null) {
+                directoryOutput = new File(directoryResume).getAbsolutePath();
+            } else {
+                DateFormat dateFormat = new SimpleDateFormat("yyyyMMdd_HHmmss");
+                directoryOutput = new File(directoryInput,
+                        projectName + "_" + dateFormat.format(Calendar.getInstance().getTime()))
+                        .getAbsolutePath();
+            }
             String directoryTmp = new File(directoryOutput, "gitsbe_tmp").getAbsolutePath();
 
             Thread thread = new Thread(new Gitsbe(
@@ -53,7 +60,8 @@ public class Launcher {
                     filenameConfig,
                     filenameDrugs,
                     directoryOutput,
-                    directoryTmp
+                    directoryTmp,
+                    directoryResume != null
             ));
             thread.start();
             try {
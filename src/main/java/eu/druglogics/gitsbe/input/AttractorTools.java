@@ -8,7 +8,8 @@ public enum AttractorTools {
     BNREDUCTION_REDUCED("bnet_reduction_reduced"),
     BIOLQM_STABLE_STATES("biolqm_stable_states"),
     BIOLQM_TRAPSPACES("biolqm_trapspaces"),
-    MPBN_TRAPSPACES("mpbn_trapspaces");
+    MPBN_TRAPSPACES("mpbn_trapspaces"),
+    NATIVE_STABLE_STATES("native_stable_states");
 
     private String tool;
 
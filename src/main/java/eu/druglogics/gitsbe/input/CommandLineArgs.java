@@ -35,6 +35,10 @@ public class CommandLineArgs {
     @Parameter(names = { "--drugs", "-dr" }, description = "Drugs/DrugPanel file", order = 5)
     private String filenameDrugs;
 
+    @Parameter(names = { "--resume", "-r" },
+            description = "Output directory of an interrupted run to resume (from its checkpoints)", order = 6)
+    private String directoryResume;
+
     public String getProjectName() {
         return projectName;
     }
@@ -58,4 +62,8 @@ public class CommandLineArgs {
     public String getFilenameDrugs() {
         return filenameDrugs;
     }
+
+    public String getDirectoryResume() {
+        return directoryResume;
+    }
 }
@@ -83,6 +83,29 @@ public class Config extends ConfigParametersGitsbe {
 					checkAttractorTool();
 					break;
 
+				case "biolqm_in_memory":
+					biolqm_in_memory = Boolean.parseBoolean(value);
+					break;
+
+				case "attractor_cache_size":
+					attractor_cache_size = Integer.parseInt(value);
+					checkAttractorCacheSize();
+					break;
+
+				case "mpbn_workers":
+					mpbn_workers = Integer.parseInt(value);
+					checkMPBNWorkers();
+					break;
+
+				case "bnet_reduction_timeout":
+					bnet_reduction_timeout = Integer.parseInt(value);
+					checkBNReductionTimeout();
+					break;
+
+				case "async_logging":
+					async_logging = Boolean.parseBoolean(value);
+					break;
+
 				case "remove_output_nodes":
 					remove_output_nodes = Boolean.parseBoolean(value);
 					break;
@@ -196,10 +219,52 @@ public class Config extends ConfigParametersGitsbe {
 					fitness_threshold = Float.parseFloat(value);
 					checkFitnessThreshold();
 					break;
+
+				case "export_fitnesses_to_binary":
+					export_fitnesses_to_binary = Boolean.parseBoolean(value);
+					break;
+
+				case "use_parallel_fitness":
+					use_parallel_fitness = Boolean.parseBoolean(value);
+					break;
+
+				case "parallel_fitness_num":
+					parallel_fitness_num = Integer.parseInt(value);
+					checkParallelFitnessNumber();
+					break;
+
+				case "use_parallel_conditions":
+					use_parallel_conditions = Boolean.parseBoolean(value);
+					break;
+
+				case "parallel_conditions_num":
+					parallel_conditions_num = Integer.parseInt(value);
+					checkParallelConditionsNumber();
+					break;
+
+				case "checkpoint_interval":
+					checkpoint_interval = Integer.parseInt(value);
+					checkCheckpointInterval();
+					break;
+
+				case "migration_interval":
+					migration_interval = Integer.parseInt(value);
+					checkMigrationInterval();
+					break;
+
+				case "migration_size":
+					migration_size = Integer.parseInt(value);
+					checkMigrationSize();
+					break;
+
+				case "use_steady_state":
+					use_steady_state = Boolean.parseBoolean(value);
+					break;
 			}
 		}
 
 		checkPopulationVsSelection();
+		checkSteadyStateVsIntervals();
 	}
 
 	public String[] getConfig() {
@@ -39,6 +39,25 @@ public class ConfigParametersGitsbe extends ConfigParametersGlobal{
     boolean best_models_export_to_ginml;
     boolean best_models_export_to_sbml_qual;
     float fitness_threshold;
+    boolean export_fitnesses_to_binary;
+
+    // Parallel fitness evaluation of each generation's models
+    boolean use_parallel_fitness;
+    int parallel_fitness_num;
+
+    // Parallel simulation of the training data conditions of each model
+    boolean use_parallel_conditions;
+    int parallel_conditions_num;
+
+    // Checkpoints for resuming an interrupted run
+    int checkpoint_interval;
+
+    // Island model: migration of best models between the parallel simulations
+    int migration_interval;
+    int migration_size;
+
+    // Steady-state evolution (instead of generational)
+    boolean use_steady_state;
 
     public boolean exportToGitsbe() {
         return export_to_gitsbe;
@@ -167,6 +186,79 @@ public class ConfigParametersGitsbe extends ConfigParametersGlobal{
                     + "should be between 0 and 1");
     }
 
+    // Returns true if the models of a generation will be evaluated in parallel
+    public boolean useParallelFitness() {
+        return use_parallel_fitness;
+    }
+
+    public int parallelFitnessNumber() {
+        return parallel_fitness_num;
+    }
+
+    void checkParallelFitnessNumber() throws ConfigurationException {
+        if (parallel_fitness_num < 2)
+            throw new ConfigurationException("Parameter `parallel_fitness_num` can only be 2 or larger");
+    }
+
+    // Returns true if the training data conditions of a model will be simulated in parallel
+    public boolean useParallelConditions() {
+        return use_parallel_conditions;
+    }
+
+    public int parallelConditionsNumber() {
+        return parallel_conditions_num;
+    }
+
+    void checkParallelConditionsNumber() throws ConfigurationException {
+        if (parallel_conditions_num < 2)
+            throw new ConfigurationException("Parameter `parallel_conditions_num` can only be 2 or larger");
+    }
+
+    // Number of generations between the checkpoints of a simulation (0: no checkpoints)
+    public int getCheckpointInterval() {
+        return checkpoint_interval;
+    }
+
+    void checkCheckpointInterval() throws ConfigurationException {
+        if (checkpoint_interval < 0)
+            throw new ConfigurationException("Parameter `checkpoint_interval` can only be 0 (no checkpoints) or larger");
+    }
+
+    public boolean exportFitnessesToBinary() {
+        return export_fitnesses_to_binary;
+    }
+
+    // Returns true if the models are bred and evaluated one at a time (steady-state evolution)
+    public boolean useSteadyState() {
+        return use_steady_state;
+    }
+
+    // Number of generations between the migrations of best models (0: no migration)
+    public int getMigrationInterval() {
+        return migration_interval;
+    }
+
+    public int getMigrationSize() {
+        return migration_size;
+    }
+
+    void checkMigrationInterval() throws ConfigurationException {
+        if (migration_interval < 0)
+            throw new ConfigurationException("Parameter `migration_interval` can only be 0 (no migration) or larger");
+    }
+
+    void checkMigrationSize() throws ConfigurationException {
+        if (migration_size < 1)
+            throw new ConfigurationException("Parameter `migration_size` can only be 1 or larger");
+    }
+
+    void checkSteadyStateVsIntervals() throws ConfigurationException {
+        if (use_steady_state && (migration_interval > 0 || checkpoint_interval > 0))
+            throw new ConfigurationException("Parameters `migration_interval` and `checkpoint_interval` "
+                + "should be 0 when `use_steady_state` is true (the steady-state evolution doesn't "
+                + "migrate models or save periodic checkpoints)");
+    }
+
     void checkPopulationVsSelection() throws ConfigurationException {
         if (population < selection)
             throw new ConfigurationException("Parameter `population` (number of models per "
@@ -16,6 +16,11 @@ public class ConfigParametersGlobal {
     public boolean use_parallel_sim;
     public int parallel_sim_num;
     public String attractor_tool;
+    public boolean biolqm_in_memory;
+    public int attractor_cache_size;
+    public int mpbn_workers;
+    public int bnet_reduction_timeout = 30;
+    public boolean async_logging;
 
     public int getVerbosity() {
         return verbosity;
@@ -85,6 +90,49 @@ public class ConfigParametersGlobal {
         }
     }
 
+    // Returns true if the BioLQM tools should build the logical models in-memory (no .bnet files)
+    public boolean useBioLQMInMemory() {
+        return biolqm_in_memory;
+    }
+
+    // The maximum number of models whose attractors are cached (0 disables the cache)
+    public int getAttractorCacheSize() {
+        return attractor_cache_size;
+    }
+
+    protected void checkAttractorCacheSize() throws ConfigurationException {
+        if (attractor_cache_size < 0)
+            throw new ConfigurationException("Parameter `attractor_cache_size` can only be 0 "
+                    + "(no caching) or larger");
+    }
+
+    // The number of long-lived mpbn worker processes (0: run the mpbn script once per model)
+    public int getMPBNWorkers() {
+        return mpbn_workers;
+    }
+
+    protected void checkMPBNWorkers() throws ConfigurationException {
+        if (mpbn_workers < 0)
+            throw new ConfigurationException("Parameter `mpbn_workers` can only be 0 "
+                    + "(no worker processes) or larger");
+    }
+
+    // The time limit (in seconds) of every BNReduction.sh call
+    public int getBNReductionTimeout() {
+        return bnet_reduction_timeout;
+    }
+
+    protected void checkBNReductionTimeout() throws ConfigurationException {
+        if (bnet_reduction_timeout < 1)
+            throw new ConfigurationException("Parameter `bnet_reduction_timeout` can only be 1 "
+                    + "(second) or larger");
+    }
+
+    // Returns true if the log messages are written by a separate thread
+    public boolean useAsyncLogging() {
+        return async_logging;
+    }
+
     boolean useBNReductionScript() {
         return attractor_tool.equals(AttractorTools.BNREDUCTION_FULL.getTool())
                 || attractor_tool.equals(AttractorTools.BNREDUCTION_REDUCED.getTool());
@@ -11,7 +11,6 @@ import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 import static eu.druglogics.gitsbe.util.Util.isNumericString;
 import static eu.druglogics.gitsbe.util.Util.readLinesFromFile;
@@ -156,8 +155,7 @@ public class TrainingData {
 			if (condition.startsWith("Drug")) {
 				int count = StringUtils.countMatches(condition, "Drug");
 				if (count == 1) {
-					Pattern singleDrugPattern = Pattern.compile("^Drug\\((.*)\\)$");
-					Matcher singleDrugMatcher = singleDrugPattern.matcher(condition);
+					Matcher singleDrugMatcher = TrainingDataObservation.singleDrugPattern.matcher(condition);
 					if (singleDrugMatcher.find() && singleDrugMatcher.groupCount() == 1) {
 						String drug = singleDrugMatcher.group(1);
 						try {
@@ -174,8 +172,7 @@ public class TrainingData {
 					}
 				} else if (count == 3) {
 					if (condition.contains("< min(Drug")) { // HSA
-						Pattern twoDrugsHSAPattern = Pattern.compile("^Drug\\((.*)\\+(.*)\\) < min\\(Drug\\((.*)\\),Drug\\((.*)\\)\\)$");
-						Matcher twoDrugsHSAMatcher = twoDrugsHSAPattern.matcher(condition);
+						Matcher twoDrugsHSAMatcher = TrainingDataObservation.twoDrugsHSAPattern.matcher(condition);
 						if (twoDrugsHSAMatcher.find() && twoDrugsHSAMatcher.groupCount() == 4) {
 							String firstDrugInComb  = twoDrugsHSAMatcher.group(1);
 							String secondDrugInComb = twoDrugsHSAMatcher.group(2);
@@ -206,8 +203,7 @@ public class TrainingData {
 							throw new ConfigurationException("Wrong format: `" + condition + "`");
 						}
 					} else if (condition.contains("< product(Drug")) { // Bliss
-						Pattern twoDrugsBlissPattern = Pattern.compile("^Drug\\((.*)\\+(.*)\\) < product\\(Drug\\((.*)\\),Drug\\((.*)\\)\\)$");
-						Matcher twoDrugsBlissMatcher = twoDrugsBlissPattern.matcher(condition);
+						Matcher twoDrugsBlissMatcher = TrainingDataObservation.twoDrugsBlissPattern.matcher(condition);
 						if (twoDrugsBlissMatcher.find() && twoDrugsBlissMatcher.groupCount() == 4) {
 							String firstDrugInComb  = twoDrugsBlissMatcher.group(1);
 							String secondDrugInComb = twoDrugsBlissMatcher.group(2);
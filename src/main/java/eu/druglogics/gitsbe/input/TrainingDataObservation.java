@@ -1,22 +1,131 @@
 package eu.druglogics.gitsbe.input;
 
+import org.apache.commons.lang3.StringUtils;
+
 import java.util.ArrayList;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static eu.druglogics.gitsbe.util.Util.isNumericString;
 
 /**
  * @author asmund
- * 
+ *
  */
 public class TrainingDataObservation {
 
+	/**
+	 * The kind of perturbation defined by the condition of an observation
+	 */
+	public enum Type {
+		UNPERTURBED,
+		NODE_PERTURBATION,
+		SINGLE_DRUG,
+		DOUBLE_DRUG_HSA,
+		DOUBLE_DRUG_BLISS,
+		WRONG_FORMAT
+	}
+
+	static final Pattern singleDrugPattern = Pattern.compile("^Drug\\((.*)\\)$");
+	static final Pattern twoDrugsHSAPattern =
+		Pattern.compile("^Drug\\((.*)\\+(.*)\\) < min\\(Drug\\((.*)\\),Drug\\((.*)\\)\\)$");
+	static final Pattern twoDrugsBlissPattern =
+		Pattern.compile("^Drug\\((.*)\\+(.*)\\) < product\\(Drug\\((.*)\\),Drug\\((.*)\\)\\)$");
+
 	// Array of strings describing perturbed nodes in observation
 	private ArrayList<String> condition;
 	private ArrayList<String> response;
 	private float weight;
 
-	TrainingDataObservation(ArrayList<String> condition, ArrayList<String> response, float weight) {
+	// The condition and response parsed once, when the training data is loaded
+	private Type type;
+	private String[] drugs;
+	private String[] perturbedNodes;
+	private String[] perturbedNodeStates;
+	private boolean globalOutputResponse;
+	private String[] responseNodes;
+	private float[] responseValues;
+
+	public TrainingDataObservation(ArrayList<String> condition, ArrayList<String> response, float weight) {
 		this.condition = condition;
 		this.response = response;
 		this.weight = weight;
+
+		parseCondition();
+		parseResponse();
+	}
+
+	private void parseCondition() {
+		String firstCondition = condition.get(0);
+		drugs = new String[0];
+		perturbedNodes = new String[0];
+		perturbedNodeStates = new String[0];
+
+		if (firstCondition.equals("-")) {
+			type = Type.UNPERTURBED;
+		} else if (firstCondition.startsWith("Drug")) {
+			type = Type.WRONG_FORMAT;
+			int count = StringUtils.countMatches(firstCondition, "Drug");
+
+			if (count == 1) {
+				Matcher singleDrugMatcher = singleDrugPattern.matcher(firstCondition);
+				if (singleDrugMatcher.find()) {
+					type = Type.SINGLE_DRUG;
+					drugs = new String[] { singleDrugMatcher.group(1) };
+				}
+			} else if (count == 3) {
+				Matcher twoDrugsMatcher = null;
+				if (firstCondition.contains("< min(Drug")) {
+					twoDrugsMatcher = twoDrugsHSAPattern.matcher(firstCondition);
+				} else if (firstCondition.contains("< product(Drug")) {
+					twoDrugsMatcher = twoDrugsBlissPattern.matcher(firstCondition);
+				}
+
+				if (twoDrugsMatcher != null && twoDrugsMatcher.find()) {
+					type = (twoDrugsMatcher.pattern() == twoDrugsHSAPattern)
+						? Type.DOUBLE_DRUG_HSA
+						: Type.DOUBLE_DRUG_BLISS;
+					drugs = new String[] { twoDrugsMatcher.group(1), twoDrugsMatcher.group(2) };
+				}
+			}
+		} else {
+			type = Type.NODE_PERTURBATION;
+			perturbedNodes = new String[condition.size()];
+			perturbedNodeStates = new String[condition.size()];
+
+			for (int i = 0; i < condition.size(); i++) {
+				String[] conditionStr = condition.get(i).split(":");
+				perturbedNodes[i] = conditionStr[0];
+				perturbedNodeStates[i] = (conditionStr.length > 1) ? conditionStr[1] : "";
+			}
+		}
+	}
+
+	private void parseResponse() {
+		String[] firstResponse = response.isEmpty() ? new String[] { "" } : response.get(0).split(":");
+		globalOutputResponse = firstResponse[0].equals("globaloutput");
+
+		if (globalOutputResponse) {
+			// only the first response is used
+			responseNodes = new String[] { firstResponse[0] };
+			responseValues = new float[] { parseResponseValue(firstResponse) };
+		} else {
+			responseNodes = new String[response.size()];
+			responseValues = new float[response.size()];
+
+			for (int i = 0; i < response.size(); i++) {
+				String[] responseStr = response.get(i).split(":");
+				responseNodes[i] = responseStr[0].trim();
+				responseValues[i] = parseResponseValue(responseStr);
+			}
+		}
+	}
+
+	private static float parseResponseValue(String[] responseStr) {
+		// the values are validated when the training data file is loaded
+		return (responseStr.length > 1 && isNumericString(responseStr[1]))
+			? Float.parseFloat(responseStr[1].trim())
+			: Float.NaN;
 	}
 
 	public ArrayList<String> getCondition() {
@@ -31,4 +140,46 @@ public class TrainingDataObservation {
 		return weight;
 	}
 
+	public Type getType() {
+		return type;
+	}
+
+	/**
+	 * @return the drug of a single drug perturbation or the two drugs of a
+	 * double drug perturbation (empty for the other types)
+	 */
+	public String[] getDrugs() {
+		return drugs;
+	}
+
+	/**
+	 * @return the perturbed nodes of a node perturbation (knockout/over-expression) condition
+	 */
+	public String[] getPerturbedNodes() {
+		return perturbedNodes;
+	}
+
+	/**
+	 * @return the states of the perturbed nodes (<i>0</i> or <i>1</i>, anything else is
+	 * a wrongly formatted condition), in the order of {@link #getPerturbedNodes()}
+	 */
+	public String[] getPerturbedNodeStates() {
+		return perturbedNodeStates;
+	}
+
+	/**
+	 * @return true if the (first) response is a <i>globaloutput</i> value
+	 */
+	public boolean hasGlobalOutputResponse() {
+		return globalOutputResponse;
+	}
+
+	public String[] getResponseNodes() {
+		return responseNodes;
+	}
+
+	public float[] getResponseValues() {
+		return responseValues;
+	}
+
 }
@@ -0,0 +1,124 @@
+package eu.druglogics.gitsbe.model;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * A bounded, thread-safe (LRU) cache of calculated attractors, keyed by the attractor
+ * tool and the {@link ModelFingerprint fingerprint} of the boolean model. It is shared
+ * between all the simulations of a run, see {@link Attractors#setAttractorCache(AttractorCache)}.
+ */
+public class AttractorCache {
+
+	private final int maxSize;
+	private final LinkedHashMap<Key, Entry> entries;
+
+	private long hits = 0;
+	private long misses = 0;
+	private long evictions = 0;
+
+	public AttractorCache(int maxSize) {
+		this.maxSize = maxSize;
+
+		// access-ordered: the eldest entry is the least recently used one
+		this.entries = new LinkedHashMap<Key, Entry>(16, 0.75f, true) {
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<Key, Entry> eldest) {
+				if (size() > AttractorCache.this.maxSize) {
+					evictions++;
+					return true;
+				}
+				return false;
+			}
+		};
+	}
+
+	/**
+	 * @return the cached entry or null if the attractors of the model (calculated
+	 * with the given attractor tool) are not in the cache
+	 */
+	synchronized Entry get(String attractorTool, ModelFingerprint fingerprint) {
+		Entry entry = entries.get(new Key(attractorTool, fingerprint));
+		if (entry == null) {
+			misses++;
+		} else {
+			hits++;
+		}
+		return entry;
+	}
+
+	synchronized void put(String attractorTool, ModelFingerprint fingerprint, Entry entry) {
+		entries.put(new Key(attractorTool, fingerprint), entry);
+	}
+
+	public synchronized long getHits() {
+		return hits;
+	}
+
+	public synchronized long getMisses() {
+		return misses;
+	}
+
+	public synchronized long getEvictions() {
+		return evictions;
+	}
+
+	public synchronized int size() {
+		return entries.size();
+	}
+
+	public int getMaxSize() {
+		return maxSize;
+	}
+
+	public synchronized String getStatistics() {
+		long lookups = hits + misses;
+		float hitRatio = (lookups > 0) ? (float) hits / lookups : 0;
+
+		return "Attractor cache: " + hits + " hits, " + misses + " misses, " + evictions
+			+ " evictions (hit ratio: " + String.format("%.3f", hitRatio) + ", size: "
+			+ entries.size() + "/" + maxSize + ")";
+	}
+
+	/**
+	 * The (immutable) attractors of a model
+	 */
+	static class Entry {
+		private final List<PackedAttractor> attractors;
+
+		Entry(List<PackedAttractor> attractors) {
+			this.attractors = Collections.unmodifiableList(new ArrayList<>(attractors));
+		}
+
+		List<PackedAttractor> getAttractors() {
+			return attractors;
+		}
+	}
+
+	private static class Key {
+		private final String attractorTool;
+		private final ModelFingerprint fingerprint;
+
+		Key(String attractorTool, ModelFingerprint fingerprint) {
+			this.attractorTool = attractorTool;
+			this.fingerprint = fingerprint;
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			if (this == o) return true;
+			if (!(o instanceof Key)) return false;
+			Key key = (Key) o;
+			return attractorTool.equals(key.attractorTool) && fingerprint.equals(key.fingerprint);
+		}
+
+		@Override
+		public int hashCode() {
+			return Objects.hash(attractorTool, fingerprint);
+		}
+	}
+}
@@ -1,6 +1,9 @@
 package eu.druglogics.gitsbe.model;
 
+import eu.druglogics.gitsbe.util.FileDeleter;
+import eu.druglogics.gitsbe.util.LatencyStatistics;
 import eu.druglogics.gitsbe.util.Logger;
+import eu.druglogics.gitsbe.util.Timer;
 import org.apache.commons.lang3.StringUtils;
 import org.colomoto.biolqm.LogicalModel;
 import org.colomoto.biolqm.io.bnet.BNetFormat;
@@ -17,10 +20,14 @@ import java.io.BufferedReader;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStreamReader;
+import java.nio.file.Files;
+import java.nio.file.Paths;
 import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
-import static eu.druglogics.gitsbe.util.FileDeleter.deleteFilesMatchingPattern;
+import static eu.druglogics.gitsbe.util.FileDeleter.deleteDirectory;
 import static eu.druglogics.gitsbe.util.Util.*;
 import static org.colomoto.biolqm.service.LQMServiceManager.load;
 
@@ -31,7 +38,13 @@ public class Attractors {
 	private String attractorTool;
 	private static String directoryBNET = System.getenv("BNET_HOME");
 	private static String directoryMPBN = System.getenv("MPBN_HOME");
-	private ArrayList<String> attractors; // stable states or trapspaces (ss with '-' dashes)
+	private static boolean bioLQMInMemory = false;
+	private static AttractorCache attractorCache = null;
+	private static MPBNWorkerPool mpbnWorkerPool = null;
+	private static int bnetReductionTimeout = 30; // seconds
+	private static final LatencyStatistics bnetReductionStatistics = new LatencyStatistics();
+	private List<PackedAttractor> attractors; // stable states or trapspaces (free nodes are the '-' dashes)
+	private File scratchDirectory; // where the files of the current calculation are written
 
 	public Attractors(BooleanModel booleanModel, String attractorTool, Logger logger) {
 		this.booleanModel = booleanModel;
@@ -46,17 +59,42 @@ public class Attractors {
 	 * be used is based on the value of {@link Attractors#attractorTool}. </br>
 	 * Please use one of these values for the {@link Attractors#attractorTool}:
 	 * <i>bnet_reduction</i>, <i>bnet_reduction_reduced</i>, <i>biolqm_stable_states</i>,
-	 * <i>biolqm_trapspaces</i>, <i>mpbn_trapspaces</i>.
+	 * <i>biolqm_trapspaces</i>, <i>mpbn_trapspaces</i>, <i>native_stable_states</i>.
+	 *
+	 * If an {@link #setAttractorCache(AttractorCache) attractor cache} is set, the attractors
+	 * of models with the same equations are calculated only once.
 	 *
 	 * @param directoryOutput the name of the directory which will be used to write result
 	 *                        files, the model in .bnet or Veliz-Cuba format, etc.
 	 * @throws Exception
 	 */
 	public void calculateAttractors(String directoryOutput) throws Exception {
+		AttractorCache cache = attractorCache;
+		if (cache == null) {
+			calculateAttractorsWithTool(directoryOutput);
+			return;
+		}
+
+		ModelFingerprint fingerprint = booleanModel.getFingerprint();
+		AttractorCache.Entry entry = cache.get(attractorTool, fingerprint);
+		if (entry != null) {
+			this.attractors = new ArrayList<>(entry.getAttractors());
+			logger.outputStringMessage(2, "Found " + getNumberOfAttractors() + " attractors of model "
+				+ booleanModel.getModelName() + " in the attractor cache");
+			return;
+		}
+
+		calculateAttractorsWithTool(directoryOutput);
+		cache.put(attractorTool, fingerprint, new AttractorCache.Entry(attractors));
+	}
+
+	private void calculateAttractorsWithTool(String directoryOutput) throws Exception {
 		if (attractorTool.startsWith("bnet_"))
 			calculateStableStatesVC(directoryOutput);
 		else if (attractorTool.startsWith("biolqm_"))
 			calculateAttractorsBioLQM(directoryOutput);
+		else if (attractorTool.startsWith("native_"))
+			calculateStableStatesNative();
 		else
 			calculateAttractorsMPBN(directoryOutput);
 	}
@@ -64,21 +102,67 @@ public class Attractors {
 	/**
 	 * Use this function to find the attractors of the boolean model that was
 	 * defined in the constructor of the {@link Attractors} Class using the {@link org.colomoto.biolqm BioLQM} library.
+	 * If {@link #setBioLQMInMemory(boolean) in-memory mode} is enabled, the logical model is
+	 * built directly from the boolean equations and no files are written.
 	 *
 	 * @param directoryOutput the name of the directory where the .bnet file that describes the
 	 *                        boolean model will be generated
 	 * @throws Exception
 	 */
 	private void calculateAttractorsBioLQM(String directoryOutput) throws Exception {
-		booleanModel.exportModelToBoolNetFile(directoryOutput);
+		if (bioLQMInMemory) {
+			LogicalModel logicalModel = null;
+			try {
+				logicalModel = booleanModel.getLogicalModel();
+			} catch (Exception e) {
+				logger.debug("Could not build the logical model of " + booleanModel.getModelName()
+					+ " in-memory (" + e.getMessage() + "), falling back to the .bnet file export");
+			}
 
-		// Load model from .bnet file
-		File boolNetFile = new File(directoryOutput, booleanModel.getModelName() + ".bnet");
-		LogicalModel boolNetModel = load(boolNetFile.getAbsolutePath(), BNetFormat.ID);
+			if (logicalModel != null) {
+				getAttractorsFromLogicalModel(logicalModel);
+				return;
+			}
+		}
 
-		getAttractorsFromLogicalModel(boolNetModel);
+		String directory = getScratchDirectory(directoryOutput);
+		try {
+			booleanModel.exportModelToBoolNetFile(directory);
+
+			// Load model from .bnet file
+			File boolNetFile = new File(directory, booleanModel.getModelName() + ".bnet");
+			LogicalModel boolNetModel = load(boolNetFile.getAbsolutePath(), BNetFormat.ID);
+
+			getAttractorsFromLogicalModel(boolNetModel);
+		} finally {
+			deleteScratchDirectory();
+		}
+	}
+
+	/**
+	 * Use the {@link StableStateSolver} to find the stable states of the boolean model
+	 * that was defined in the constructor of the {@link Attractors} Class. No files
+	 * are written.
+	 *
+	 * @throws Exception
+	 */
+	private void calculateStableStatesNative() throws Exception {
+		StableStateSolver solver = new StableStateSolver(booleanModel);
+		int numberOfNodes = booleanModel.booleanEquations.size();
+		List<long[]> stableStates = solver.getStableStates();
 
-		deleteFilesMatchingPattern(logger, booleanModel.getModelName());
+		if (stableStates.size() > 0) {
+			logger.outputStringMessage(1, "Native solver found " + stableStates.size() + " stable states:");
+			int count = 0;
+			for (long[] stableState : stableStates) {
+				PackedAttractor attractor = PackedAttractor.fromStableState(stableState, numberOfNodes);
+				attractors.add(attractor);
+				int stableStateNumber = ++count;
+				logger.outputStringMessage(2, () -> "Stable state " + stableStateNumber + ": " + attractor);
+			}
+		} else {
+			logger.outputStringMessage(1, "Native solver found no stable states.");
+		}
 	}
 
 	/**
@@ -91,8 +175,27 @@ public class Attractors {
 	 * @throws Exception
 	 */
 	private void calculateAttractorsMPBN(String directoryOutput) throws Exception {
-		booleanModel.exportModelToBoolNetFile(directoryOutput);
-		File boolNetFile = new File(directoryOutput, booleanModel.getModelName() + ".bnet");
+		MPBNWorkerPool workerPool = mpbnWorkerPool;
+		if (workerPool != null) {
+			int count = 0;
+			for (String line : workerPool.calculateTrapSpaces(booleanModel.getModelBoolNet())) {
+				count = addMPBNTrapSpace(line, count);
+			}
+			logMPBNTrapSpacesFound();
+			return;
+		}
+
+		String directory = getScratchDirectory(directoryOutput);
+		try {
+			calculateAttractorsMPBNScript(directory);
+		} finally {
+			deleteScratchDirectory();
+		}
+	}
+
+	private void calculateAttractorsMPBNScript(String directory) throws Exception {
+		booleanModel.exportModelToBoolNetFile(directory);
+		File boolNetFile = new File(directory, booleanModel.getModelName() + ".bnet");
 		String boolNetFilename = boolNetFile.getAbsolutePath();
 
 		String MPBNScriptFile = new File(directoryMPBN, "mpbn-attractors.py").getAbsolutePath();
@@ -117,27 +220,34 @@ public class Attractors {
 				String line;
 
 				while ((line = reader.readLine()) != null) {
-					String trapSpace = StringUtils.replace(line, "*", "-");
-					if (isStringAllDashes(trapSpace)) {
-						logger.outputStringMessage(2, "Found trivial trapspace (all dashes) which will be ignored");
-					} else {
-						attractors.add(trapSpace);
-						logger.outputStringMessage(2, "Trapspace " + (++count) + ": " + attractors.get(count-1));
-					}
+					count = addMPBNTrapSpace(line, count);
 				}
 			}
 
-			if (attractors.size() > 0) {
-				logger.outputStringMessage(1, "MPBN found " + attractors.size() + " trapspaces.");
-			} else {
-				logger.outputStringMessage(1, "MPBN found no trapspaces.");
-			}
+			logMPBNTrapSpacesFound();
 
 		} catch (Exception e) {
 			e.printStackTrace();
 		}
+	}
+
+	private int addMPBNTrapSpace(String line, int count) {
+		String trapSpace = StringUtils.replace(line, "*", "-");
+		if (isStringAllDashes(trapSpace)) {
+			logger.outputStringMessage(2, "Found trivial trapspace (all dashes) which will be ignored");
+		} else {
+			attractors.add(PackedAttractor.fromString(trapSpace));
+			logger.outputStringMessage(2, "Trapspace " + (++count) + ": " + trapSpace);
+		}
+		return count;
+	}
 
-		deleteFilesMatchingPattern(logger, booleanModel.getModelName());
+	private void logMPBNTrapSpacesFound() {
+		if (attractors.size() > 0) {
+			logger.outputStringMessage(1, "MPBN found " + attractors.size() + " trapspaces.");
+		} else {
+			logger.outputStringMessage(1, "MPBN found no trapspaces.");
+		}
 	}
 
 	/**
@@ -158,8 +268,10 @@ public class Attractors {
 				logger.outputStringMessage(1, "BioLQM found " + fixpointList.size() + " stable states:");
 				int count = 0;
 				for (byte[] fixpoint: fixpointList) {
-					attractors.add(byteArrayToString(fixpoint));
-					logger.outputStringMessage(2, "Stable state " + (++count) + ": " + attractors.get(count-1));
+					PackedAttractor attractor = PackedAttractor.fromByteArray(fixpoint);
+					attractors.add(attractor);
+					int stableStateNumber = ++count;
+					logger.outputStringMessage(2, () -> "Stable state " + stableStateNumber + ": " + attractor);
 				}
 			} else {
 				logger.outputStringMessage(1, "BioLQM found no stable states.");
@@ -178,8 +290,8 @@ public class Attractors {
 					if (isStringAllDashes(trapSpaceStr)) {
 						logger.outputStringMessage(2, "Found trivial trapspace (all dashes) which will be ignored");
 					} else {
-						attractors.add(trapSpaceStr);
-						logger.outputStringMessage(2, "Trapspace " + (++count) + ": " + attractors.get(count-1));
+						attractors.add(PackedAttractor.fromString(trapSpaceStr));
+						logger.outputStringMessage(2, "Trapspace " + (++count) + ": " + trapSpaceStr);
 					}
 				}
 			} else {
@@ -209,45 +321,100 @@ public class Attractors {
 	 * Use Veliz-Cuba <code>BNReduction.sh</code> script to calculate stable states (fixpoints)
 	 * for the {@link Attractors#booleanModel boolean model} that was defined in the constructor of the {@link Attractors} Class
 	 *
-	 * @param directoryOutput name of directory to write the <i>.dat</i> (model in Veliz-Cuba format)
-	 *                        and <i>.dat.fp</i> (file with the fixpoints)
+	 * @param directoryOutput name of directory where <code>BNReduction.sh</code> runs. The <i>.dat</i>
+	 *                        (model in Veliz-Cuba format) and <i>.dat.fp</i> (file with the fixpoints)
+	 *                        files are written in a scratch subdirectory of it
 	 * @throws IOException
 	 */
 	public void calculateStableStatesVC(String directoryOutput) throws IOException {
-		booleanModel.exportModelToVelizCubaDataFile(directoryOutput);
+		String directory = getScratchDirectory(directoryOutput);
+		try {
+			calculateStableStatesVC(directory, directoryOutput);
+		} finally {
+			deleteScratchDirectory();
+		}
+	}
+
+	private void calculateStableStatesVC(String directory, String directoryOutput) throws IOException {
+		booleanModel.exportModelToVelizCubaDataFile(directory);
 		String modelName = booleanModel.getModelName();
 
-		// Run the BNReduction script
-		String filenameVCFullPath = new File(directoryOutput, modelName + ".dat").getAbsolutePath();
-		runBNReduction(filenameVCFullPath);
+		// Run the BNReduction script (in the output directory, where FPGB.m2 is)
+		String filenameVCFullPath = new File(directory, modelName + ".dat").getAbsolutePath();
+		runBNReduction(filenameVCFullPath, directoryOutput);
 
 		// Read stable states from BNReduction.sh output file
-		String fixedPointsFile = new File(directoryOutput, modelName + ".dat.fp").getAbsolutePath();
+		String fixedPointsFile = new File(directory, modelName + ".dat.fp").getAbsolutePath();
 
 		logger.outputStringMessage(2, "Reading steady states: " + fixedPointsFile);
 		ArrayList<String> lines = readLinesFromFile(fixedPointsFile, true);
 
-		attractors.addAll(lines);
+		for (String line : lines) {
+			attractors.add(PackedAttractor.fromString(line));
+		}
 
-		if (attractors.size() > 0 && attractors.get(0).length() > 0) {
-			logger.outputStringMessage(1, "BNReduction found " + attractors.size() + " stable states:");
+		if (lines.size() > 0) {
+			logger.outputStringMessage(1, "BNReduction found " + lines.size() + " stable states:");
 			int count = 0;
-			for (String attractor : attractors) {
+			for (String attractor : lines) {
 				logger.outputStringMessage(2, "Stable state " + (++count) + ": " + attractor);
 			}
 		} else {
 			logger.outputStringMessage(1, "BNReduction found no stable states.");
 		}
+	}
+
+	/**
+	 * Every calculation writes its files in its own (uniquely named) subdirectory of the output
+	 * directory, which is deleted as a unit when the calculation is done, even if it fails (see
+	 * {@link #deleteScratchDirectory()}). This way, no directory scans are needed and models
+	 * with the same name can be calculated concurrently.
+	 *
+	 * If the temporary files are kept (the {@link FileDeleter} is not active), the subdirectory
+	 * is named after the model, so every calculation of a model reuses it and overwrites the
+	 * files of the previous one (as when the files were written in the output directory).
+	 *
+	 * @param directoryOutput
+	 * @return the absolute path of the scratch directory
+	 * @throws IOException
+	 */
+	private String getScratchDirectory(String directoryOutput) throws IOException {
+		if (scratchDirectory == null) {
+			if (FileDeleter.isActive()) {
+				scratchDirectory = Files.createTempDirectory(Paths.get(directoryOutput),
+					booleanModel.getModelName() + "_").toFile();
+			} else {
+				scratchDirectory = Files.createDirectories(Paths.get(directoryOutput,
+					String.valueOf(booleanModel.getModelName()))).toFile();
+			}
+		}
+		return scratchDirectory.getAbsolutePath();
+	}
 
-		deleteFilesMatchingPattern(logger, modelName);
+	private void deleteScratchDirectory() {
+		if (scratchDirectory != null) {
+			deleteDirectory(logger, scratchDirectory);
+			scratchDirectory = null;
+		}
 	}
 
-	private void runBNReduction(String filenameVC) {
+	/**
+	 * Runs the <code>BNReduction.sh</code> script on the given Veliz-Cuba file. The script reads
+	 * the model from and writes the fixpoints to files (it can't use the standard streams), so
+	 * these are still needed. The output of the script is redirected to a file next to the
+	 * Veliz-Cuba file (so it can never block on a full pipe buffer, without a thread to drain
+	 * it) and the script is killed after {@link #bnetReductionTimeout} seconds. The duration
+	 * of every call is recorded in {@link #bnetReductionStatistics}.
+	 *
+	 * @param filenameVC
+	 * @param workingDirectory
+	 */
+	private void runBNReduction(String filenameVC, String workingDirectory) {
 		String BNReductionScriptFile = new File(directoryBNET, "BNReduction.sh").getAbsolutePath();
 
 		try {
 			ProcessBuilder pb = null;
-			String timeoutSeconds = "30";
+			String timeoutSeconds = Integer.toString(bnetReductionTimeout);
 			switch(attractorTool) {
 				case "bnet_reduction":
 					pb = new ProcessBuilder("timeout", timeoutSeconds, BNReductionScriptFile,
@@ -259,28 +426,46 @@ public class Attractors {
 					break;
 			}
 
-			if (logger.getVerbosity() >= 3) {
-				pb.redirectErrorStream(true);
-				pb.redirectOutput();
-			}
+			// the output is only logged with the highest verbosity
+			File outputFile = new File(new File(filenameVC).getParent(), booleanModel.getModelName() + ".out");
+			pb.redirectErrorStream(true);
+			pb.redirectOutput(outputFile);
 
-			File parentVCdir = new File(new File(filenameVC).getParent());
-			pb.directory(parentVCdir);
+			pb.directory(new File(workingDirectory));
 			logger.outputStringMessage(3, "Running BNReduction.sh in directory " + pb.directory());
 
-			Process p;
-			p = pb.start();
+			Timer timer = new Timer();
+			Process p = pb.start();
 
+			// `timeout` kills the script (and its children), the JVM-side wait is just a safeguard
+			boolean timedOut = false;
 			try {
-				p.waitFor();
+				if (p.waitFor(bnetReductionTimeout + 5, TimeUnit.SECONDS)) {
+					// 124 is the exit status of `timeout` when the time limit is reached
+					timedOut = (p.exitValue() == 124);
+				} else {
+					p.destroyForcibly();
+					timedOut = true;
+				}
 			} catch (InterruptedException e) {
 				e.printStackTrace();
 			}
+			timer.stopTimer();
+
+			String modelName = booleanModel.getModelName();
+			bnetReductionStatistics.record(modelName, timer.getMilliSecondsOfDuration(), timedOut);
+			if (timedOut) {
+				logger.outputStringMessage(1, "BNReduction timed out (" + bnetReductionTimeout
+					+ " sec) for model " + modelName);
+			} else {
+				logger.outputStringMessage(2, "BNReduction finished in "
+					+ timer.getMilliSecondsOfDuration() + " ms");
+			}
 
-			// Redirecting the output of BNReduction.sh
-			BufferedReader r = new BufferedReader(new InputStreamReader(p.getInputStream()));
-			while (r.ready()) {
-				logger.outputStringMessage(3, r.readLine());
+			if (logger.getVerbosity() >= 3) {
+				for (String line : Files.readAllLines(outputFile.toPath())) {
+					logger.outputStringMessage(3, line);
+				}
 			}
 
 		} catch (IOException e) {
@@ -293,7 +478,23 @@ public class Attractors {
 	 *
 	 */
 	boolean hasAttractors() {
-		return attractors.size() > 0;
+		return getNumberOfAttractors() > 0;
+	}
+
+	int getNumberOfAttractors() {
+		return attractors.size();
+	}
+
+	/**
+	 * Get the activity state value of a node in an attractor, read directly from
+	 * the packed attractor (no Strings are built).
+	 *
+	 * @param attractorIndex the index of the attractor (stable state or trapspace)
+	 * @param nodeIndex the index of the node (same as the index of its equation in the model)
+	 * @return 0 or 1 (or 0.5 if the node's value is not fixed in a trapspace)
+	 */
+	float getNodeStateValue(int attractorIndex, int nodeIndex) {
+		return attractors.get(attractorIndex).getNodeStateValue(nodeIndex);
 	}
 
 	/**
@@ -301,15 +502,20 @@ public class Attractors {
 	 *
 	 */
 	boolean hasStableStates() {
-		return getStableStates().size() > 0;
+		for (PackedAttractor attractor : attractors) {
+			if (attractor.isStableState()) return true;
+		}
+		return false;
 	}
 
 	/**
-	 * Get all the attractors (stable states or trapspaces)
+	 * Get all the attractors (stable states or trapspaces) as Strings
 	 *
 	 */
 	ArrayList<String> getAttractors() {
-		return attractors;
+		return attractors.stream()
+			.map(PackedAttractor::toString)
+			.collect(Collectors.toCollection(ArrayList::new));
 	}
 
 	/**
@@ -318,7 +524,8 @@ public class Attractors {
 	 */
 	ArrayList<String> getStableStates() {
 		return attractors.stream()
-			.filter(state -> !state.contains("-"))
+			.filter(PackedAttractor::isStableState)
+			.map(PackedAttractor::toString)
 			.collect(Collectors.toCollection(ArrayList::new));
 	}
 
@@ -328,12 +535,17 @@ public class Attractors {
 	 * node (column) in the attractor (stable state or trapspace)
 	 */
 	String[][] getAttractorsWithNodes() {
-		String[][] result = new String[attractors.size() + 1][booleanModel.getNodeNames().size()];
+		String[][] result = new String[attractors.size() + 1][];
 
 		result[0] = booleanModel.getNodeNames().toArray(new String[0]);
 
 		for (int i = 0; i < attractors.size(); i++) {
-			result[i + 1] = attractors.get(i).split("(?!^)");
+			PackedAttractor attractor = attractors.get(i);
+			String[] nodeStates = new String[attractor.getNumberOfNodes()];
+			for (int j = 0; j < nodeStates.length; j++) {
+				nodeStates[j] = String.valueOf(attractor.getNodeState(j));
+			}
+			result[i + 1] = nodeStates;
 		}
 
 		return result;
@@ -347,10 +559,84 @@ public class Attractors {
 	 * @param attractors
 	 */
 	void setAttractors(ArrayList<String> attractors) {
-		this.attractors = attractors;
+		this.attractors = new ArrayList<>();
+		for (String attractor : attractors) {
+			this.attractors.add(PackedAttractor.fromString(attractor));
+		}
+	}
+
+	/**
+	 * Use the already calculated attractors of another model with the same equations
+	 * (the attractors are immutable, so they are shared)
+	 *
+	 * @param other
+	 */
+	void copyAttractors(Attractors other) {
+		this.attractors = new ArrayList<>(other.attractors);
 	}
 
 	public String getAttractorTool() {
 		return attractorTool;
 	}
+
+	void setLogger(Logger logger) {
+		this.logger = logger;
+	}
+
+	/**
+	 * Set to true so that the BioLQM attractor tools build the logical model directly
+	 * from the in-memory boolean equations, instead of exporting and re-loading a
+	 * <i>.bnet</i> file for every calculation.
+	 *
+	 * @param inMemory
+	 */
+	public static void setBioLQMInMemory(boolean inMemory) {
+		bioLQMInMemory = inMemory;
+	}
+
+	public static boolean isBioLQMInMemory() {
+		return bioLQMInMemory;
+	}
+
+	/**
+	 * Set the cache that will be used by all {@link Attractors} objects (null disables caching)
+	 *
+	 * @param cache
+	 */
+	public static void setAttractorCache(AttractorCache cache) {
+		attractorCache = cache;
+	}
+
+	public static AttractorCache getAttractorCache() {
+		return attractorCache;
+	}
+
+	/**
+	 * Set the time limit (in seconds) of every <code>BNReduction.sh</code> call
+	 *
+	 * @param timeout
+	 */
+	public static void setBNReductionTimeout(int timeout) {
+		bnetReductionTimeout = timeout;
+	}
+
+	public static LatencyStatistics getBNReductionStatistics() {
+		return bnetReductionStatistics;
+	}
+
+	/**
+	 * Use this function to calculate the <i>mpbn_trapspaces</i> with a pool of long-lived
+	 * <b>mpbn</b> worker processes instead of running the <code>mpbn-attractors.py</code>
+	 * script once per model (no .bnet files are written then). Use <i>null</i> to stop
+	 * using the pool.
+	 *
+	 * @param workerPool
+	 */
+	public static void setMPBNWorkerPool(MPBNWorkerPool workerPool) {
+		mpbnWorkerPool = workerPool;
+	}
+
+	public static MPBNWorkerPool getMPBNWorkerPool() {
+		return mpbnWorkerPool;
+	}
 }
@@ -1,45 +1,71 @@
 package eu.druglogics.gitsbe.model;
 
+import org.colomoto.mddlib.MDDManager;
+import org.colomoto.mddlib.MDDOperator;
+import org.colomoto.mddlib.MDDVariable;
+import org.colomoto.mddlib.operators.MDDBaseOperators;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.Collections;
+import java.util.BitSet;
+import java.util.Map;
 
 import static eu.druglogics.gitsbe.util.RandomManager.randInt;
-import static eu.druglogics.gitsbe.util.Util.getRepeatedString;
 
 public class BooleanEquation {
 
-	// String target name
-	private String target;
+	private static final byte LINK_NONE = 0;
+	private static final byte LINK_AND = 1;
+	private static final byte LINK_OR = 2;
 
-	// Strings regulators
-	private ArrayList<String> activatingRegulators;
-	private ArrayList<String> inhibitoryRegulators;
+	private static final int[] NO_REGULATORS = new int[0];
 
-	// Strings operators
-	private ArrayList<String> operatorsActivatingRegulators;
-	private ArrayList<String> operatorsInhibitoryRegulators;
+	// The node names are stored as ids (see NodeRegistry) and are only resolved when
+	// the equation is converted to a string
 
-	// whitelist of regulators to include in equation - string of true and false
-	// where true means included
-	private ArrayList<Boolean> whitelistActivatingRegulators;
-	private ArrayList<Boolean> whitelistInhibitoryRegulators;
+	// Target node id
+	private int target;
 
-	// String link activators and inhibitors ("and not"/"or not")
-	private String link;
+	// Regulator node ids
+	private int[] activatingRegulators;
+	private int[] inhibitoryRegulators;
+
+	// Operators: bit i is set if the operator between regulators i and i+1 is
+	// an 'and', otherwise it's an 'or'
+	private BitSet andOperatorsActivatingRegulators;
+	private BitSet andOperatorsInhibitoryRegulators;
+
+	// whitelist of regulators to include in equation: bit i is set if regulator
+	// i is included
+	private BitSet whitelistActivatingRegulators;
+	private BitSet whitelistInhibitoryRegulators;
+
+	// number of whitelisted regulators (the cardinality of the whitelists)
+	private int numWhitelistedActivatingRegulators;
+	private int numWhitelistedInhibitoryRegulators;
+
+	// link activators and inhibitors ("and not"/"or not")
+	private byte link;
+
+	// The Booleannet string of the equation: built on demand and reset (null)
+	// whenever the equation is changed
+	private String booleanEquation;
 
 	public BooleanEquation() {
 
 		// Initialize variables
 
-		activatingRegulators = new ArrayList<>();
-		inhibitoryRegulators = new ArrayList<>();
+		activatingRegulators = NO_REGULATORS;
+		inhibitoryRegulators = NO_REGULATORS;
 
-		operatorsActivatingRegulators = new ArrayList<>();
-		operatorsInhibitoryRegulators = new ArrayList<>();
+		andOperatorsActivatingRegulators = new BitSet();
+		andOperatorsInhibitoryRegulators = new BitSet();
 
-		whitelistActivatingRegulators = new ArrayList<>();
-		whitelistInhibitoryRegulators = new ArrayList<>();
+		whitelistActivatingRegulators = new BitSet();
+		whitelistInhibitoryRegulators = new BitSet();
 	}
 
 	/**
@@ -48,55 +74,44 @@ public class BooleanEquation {
 	 * @param originalEquation
 	 */
 	BooleanEquation(BooleanEquation originalEquation) {
-		this();
+		this.target = originalEquation.target;
 
-		this.operatorsActivatingRegulators.addAll(originalEquation.operatorsActivatingRegulators);
-		this.operatorsInhibitoryRegulators.addAll(originalEquation.operatorsInhibitoryRegulators);
+		// the regulator arrays are shared with the original equation: they are never
+		// modified in place, a shuffle replaces them with a modified copy (see swap())
+		this.activatingRegulators = originalEquation.activatingRegulators;
+		this.inhibitoryRegulators = originalEquation.inhibitoryRegulators;
 
-		for (int i = 0; i < originalEquation.inhibitoryRegulators.size(); i++) {
-			this.inhibitoryRegulators.add(originalEquation.inhibitoryRegulators.get(i));
-			this.whitelistInhibitoryRegulators.add(originalEquation.whitelistInhibitoryRegulators.get(i));
-		}
+		this.andOperatorsActivatingRegulators = (BitSet) originalEquation.andOperatorsActivatingRegulators.clone();
+		this.andOperatorsInhibitoryRegulators = (BitSet) originalEquation.andOperatorsInhibitoryRegulators.clone();
 
-		for (int i = 0; i < originalEquation.activatingRegulators.size(); i++) {
-			this.activatingRegulators.add((originalEquation.activatingRegulators.get(i)));
-			this.whitelistActivatingRegulators.add(originalEquation.whitelistActivatingRegulators.get(i));
-		}
+		this.whitelistActivatingRegulators = (BitSet) originalEquation.whitelistActivatingRegulators.clone();
+		this.whitelistInhibitoryRegulators = (BitSet) originalEquation.whitelistInhibitoryRegulators.clone();
+		this.numWhitelistedActivatingRegulators = originalEquation.numWhitelistedActivatingRegulators;
+		this.numWhitelistedInhibitoryRegulators = originalEquation.numWhitelistedInhibitoryRegulators;
 
 		this.link = originalEquation.link;
-		this.target = originalEquation.target;
+		this.booleanEquation = originalEquation.booleanEquation;
 	}
 
 	BooleanEquation(MultipleInteraction multipleInteraction) {
 		this();
 
-		// Build expression
-		target = multipleInteraction.getTarget();
+		// Build expression (all operators are 'or' and all regulators are whitelisted)
+		target = NodeRegistry.getId(multipleInteraction.getTarget());
 
 		ArrayList<String> tempActivatingRegulators = multipleInteraction.getActivatingRegulators();
-
-		for (int i = 0; i < tempActivatingRegulators.size(); i++) {
-			activatingRegulators.add(tempActivatingRegulators.get(i));
-			whitelistActivatingRegulators.add(true);
-
-			if (i < tempActivatingRegulators.size() - 1) {
-				operatorsActivatingRegulators.add("or");
-			}
-		}
+		activatingRegulators = getIds(tempActivatingRegulators);
+		whitelistActivatingRegulators.set(0, activatingRegulators.length);
+		numWhitelistedActivatingRegulators = activatingRegulators.length;
 
 		ArrayList<String> tempInhibitoryRegulators = multipleInteraction.getInhibitoryRegulators();
-
-		for (int i = 0; i < tempInhibitoryRegulators.size(); i++) {
-			inhibitoryRegulators.add(tempInhibitoryRegulators.get(i));
-			whitelistInhibitoryRegulators.add(true);
-			if (i < tempInhibitoryRegulators.size() - 1) {
-				operatorsInhibitoryRegulators.add("or");
-			}
-		}
+		inhibitoryRegulators = getIds(tempInhibitoryRegulators);
+		whitelistInhibitoryRegulators.set(0, inhibitoryRegulators.length);
+		numWhitelistedInhibitoryRegulators = inhibitoryRegulators.length;
 
 		link = (tempInhibitoryRegulators.size() == 0 || tempActivatingRegulators.size() == 0)
-				? ""
-				: "and";
+				? LINK_NONE
+				: LINK_AND;
 	}
 
 	/**
@@ -127,11 +142,16 @@ public class BooleanEquation {
 		// Split equation to array
 		ArrayList<String> splitEquation = new ArrayList<>(Arrays.asList(equation.split(" ")));
 
-		target = splitEquation.get(0);
-		link = ""; // in case equation has only activating or inhibiting regulators
+		target = NodeRegistry.getId(splitEquation.get(0));
+		link = LINK_NONE; // in case equation has only activating or inhibiting regulators
 		splitEquation.remove(0);
 		boolean beforeNot = true;
 
+		ArrayList<String> tempActivatingRegulators = new ArrayList<>();
+		ArrayList<String> tempInhibitoryRegulators = new ArrayList<>();
+		int numActivatingOperators = 0;
+		int numInhibitoryOperators = 0;
+
 		// Parse each element of array
 		do {
 			String element = splitEquation.get(0).trim();
@@ -144,11 +164,11 @@ public class BooleanEquation {
 				break;
 			case "andnot":
 				beforeNot = false;
-				link = "and";
+				link = LINK_AND;
 				break;
 			case "ornot":
 				beforeNot = false;
-				link = "or";
+				link = LINK_OR;
 				break;
 			case "not":
 				beforeNot = false;
@@ -156,74 +176,374 @@ public class BooleanEquation {
 			case "or":
 			case "and":
 				if (beforeNot)
-					operatorsActivatingRegulators.add(element);
+					andOperatorsActivatingRegulators.set(numActivatingOperators++, element.equals("and"));
 				else
-					operatorsInhibitoryRegulators.add(element);
+					andOperatorsInhibitoryRegulators.set(numInhibitoryOperators++, element.equals("and"));
 				break;
 			default:
 				if (beforeNot) {
-					activatingRegulators.add(element);
-					whitelistActivatingRegulators.add(true);
+					tempActivatingRegulators.add(element);
 				} else {
-					inhibitoryRegulators.add(element);
-					whitelistInhibitoryRegulators.add(true);
+					tempInhibitoryRegulators.add(element);
 				}
 			}
 		} while (splitEquation.size() > 0);
 
+		activatingRegulators = getIds(tempActivatingRegulators);
+		whitelistActivatingRegulators.set(0, activatingRegulators.length);
+		numWhitelistedActivatingRegulators = activatingRegulators.length;
+
+		inhibitoryRegulators = getIds(tempInhibitoryRegulators);
+		whitelistInhibitoryRegulators.set(0, inhibitoryRegulators.length);
+		numWhitelistedInhibitoryRegulators = inhibitoryRegulators.length;
+	}
+
+	/**
+	 * Writes the full state of the equation, including the blacklisted regulators that
+	 * are not part of the Booleannet string (used for the {@link Checkpoint checkpoints}).
+	 * The node names are written instead of their ids.
+	 *
+	 * @param out
+	 */
+	void write(DataOutput out) throws IOException {
+		out.writeUTF(NodeRegistry.getName(target));
+		writeRegulators(out, activatingRegulators, andOperatorsActivatingRegulators,
+			whitelistActivatingRegulators);
+		writeRegulators(out, inhibitoryRegulators, andOperatorsInhibitoryRegulators,
+			whitelistInhibitoryRegulators);
+		out.writeByte(link);
+	}
+
+	/**
+	 * Reads an equation written with {@link #write(DataOutput)}
+	 *
+	 * @param in
+	 */
+	static BooleanEquation read(DataInput in) throws IOException {
+		BooleanEquation equation = new BooleanEquation();
+
+		equation.target = NodeRegistry.getId(in.readUTF());
+
+		equation.activatingRegulators = readIds(in);
+		equation.andOperatorsActivatingRegulators = readBitSet(in);
+		equation.whitelistActivatingRegulators = readBitSet(in);
+		equation.numWhitelistedActivatingRegulators = equation.whitelistActivatingRegulators.cardinality();
+
+		equation.inhibitoryRegulators = readIds(in);
+		equation.andOperatorsInhibitoryRegulators = readBitSet(in);
+		equation.whitelistInhibitoryRegulators = readBitSet(in);
+		equation.numWhitelistedInhibitoryRegulators = equation.whitelistInhibitoryRegulators.cardinality();
+
+		equation.link = in.readByte();
+
+		return equation;
+	}
+
+	private static void writeRegulators(DataOutput out, int[] regulators, BitSet andOperators,
+										BitSet whitelist) throws IOException {
+		out.writeInt(regulators.length);
+		for (int regulator : regulators) {
+			out.writeUTF(NodeRegistry.getName(regulator));
+		}
+		writeBitSet(out, andOperators);
+		writeBitSet(out, whitelist);
+	}
+
+	private static void writeBitSet(DataOutput out, BitSet bitSet) throws IOException {
+		long[] words = bitSet.toLongArray();
+		out.writeInt(words.length);
+		for (long word : words) {
+			out.writeLong(word);
+		}
+	}
+
+	private static int[] readIds(DataInput in) throws IOException {
+		int size = in.readInt();
+		if (size == 0) return NO_REGULATORS;
+
+		int[] ids = new int[size];
+		for (int i = 0; i < size; i++) {
+			ids[i] = NodeRegistry.getId(in.readUTF());
+		}
+		return ids;
+	}
+
+	private static BitSet readBitSet(DataInput in) throws IOException {
+		long[] words = new long[in.readInt()];
+		for (int i = 0; i < words.length; i++) {
+			words[i] = in.readLong();
+		}
+		return BitSet.valueOf(words);
+	}
+
+	private static int[] getIds(ArrayList<String> names) {
+		if (names.isEmpty()) return NO_REGULATORS;
+
+		int[] ids = new int[names.size()];
+		for (int i = 0; i < ids.length; i++) {
+			ids[i] = NodeRegistry.getId(names.get(i));
+		}
+		return ids;
+	}
+
+	private static ArrayList<String> getNames(int[] ids) {
+		ArrayList<String> names = new ArrayList<>(ids.length);
+		for (int id : ids) {
+			names.add(NodeRegistry.getName(id));
+		}
+		return names;
+	}
+
+	private static String getOperator(BitSet andOperators, int index) {
+		return andOperators.get(index) ? "and" : "or";
 	}
 
 	/**
 	 * Returns the string of the equation represented in the Booleannet format: <br>
 	 * <i>A *=  (  (  B )  or C or ...) and not  (  ( E )  or F or ...)</i>
-	 *
+	 * <br>
+	 * The string is built only once and is rebuilt after the equation is changed.
 	 */
 	public String getBooleanEquation() {
-		StringBuilder equation = new StringBuilder(target + " *= ");
+		String equation = booleanEquation;
+		if (equation == null) {
+			equation = renderBooleanEquation();
+			booleanEquation = equation;
+		}
+		return equation;
+	}
+
+	/**
+	 * Builds the Booleannet string in a single pass over the regulators
+	 */
+	private String renderBooleanEquation() {
+		StringBuilder equation = new StringBuilder(32 + 16 * getNumRegulators());
+		equation.append(' ').append(NodeRegistry.getName(target)).append(" *= ");
 
 		// Add activating regulators
-		if (Collections.frequency(whitelistActivatingRegulators, true) > 0) {
-			equation.append(getRepeatedString(" ( ",
-					Collections.frequency(whitelistActivatingRegulators, true)));
-			equation.append(" ");
-
-			for (int i = 0; i < activatingRegulators.size(); i++) {
-
-				if (whitelistActivatingRegulators.get(i)) {
-					// If not first element then add boolean operator before regulator
-					if (Collections.frequency(whitelistActivatingRegulators.subList(0, i), true) > 0) {
-						equation.append(" ").append(operatorsActivatingRegulators.get(i - 1)).append(" ");
-					}
-					equation.append(activatingRegulators.get(i)).append(" ) ");
-				}
-			}
+		if (numWhitelistedActivatingRegulators > 0) {
+			appendOpeningParentheses(equation, numWhitelistedActivatingRegulators);
+			equation.append(' ');
+			appendRegulators(equation, activatingRegulators, andOperatorsActivatingRegulators,
+				whitelistActivatingRegulators);
 		}
 
 		// Find correct link for activators and inhibitory regulators
-		if ((Collections.frequency(whitelistActivatingRegulators, true) > 0)
-				&& (Collections.frequency(whitelistInhibitoryRegulators, true) > 0))
-			equation.append(link);
+		if ((numWhitelistedActivatingRegulators > 0) && (numWhitelistedInhibitoryRegulators > 0))
+			equation.append(getLink());
 
-		if (Collections.frequency(whitelistInhibitoryRegulators, true) > 0) {
+		if (numWhitelistedInhibitoryRegulators > 0) {
 			equation.append(" not ");
+			appendOpeningParentheses(equation, numWhitelistedInhibitoryRegulators);
+			appendRegulators(equation, inhibitoryRegulators, andOperatorsInhibitoryRegulators,
+				whitelistInhibitoryRegulators);
+		}
+
+		// the equation ends with " ) " (at least one regulator is whitelisted) or
+		// with "*= " (no whitelisted regulators): keep a single trailing space
+		int length = equation.length();
+		while (length > 1 && equation.charAt(length - 1) == ' ' && equation.charAt(length - 2) == ' ') {
+			length--;
+		}
+		equation.setLength(length);
+
+		return equation.toString();
+	}
+
+	private static void appendOpeningParentheses(StringBuilder equation, int number) {
+		for (int i = 0; i < number; i++) {
+			equation.append(" ( ");
+		}
+	}
+
+	/**
+	 * Appends <i>"A )  or B )  and C ) "</i> for the whitelisted regulators
+	 */
+	private static void appendRegulators(StringBuilder equation, int[] regulators, BitSet andOperators,
+										 BitSet whitelist) {
+		boolean first = true;
+		for (int i = whitelist.nextSetBit(0); i >= 0; i = whitelist.nextSetBit(i + 1)) {
+			// If not first element then add boolean operator before regulator
+			if (!first) {
+				equation.append(' ').append(getOperator(andOperators, i - 1)).append(' ');
+			}
+			equation.append(NodeRegistry.getName(regulators[i])).append(" ) ");
+			first = false;
+		}
+	}
+
+	/**
+	 * Appends the canonical form of the equation to the given builder: only the parts
+	 * that define the equation's logical function are included (the target, the
+	 * whitelisted regulators with their operators and the link operator, if
+	 * both activating and inhibitory regulators are whitelisted).
+	 *
+	 * @param builder
+	 */
+	void appendCanonicalForm(StringBuilder builder) {
+		builder.append(NodeRegistry.getName(target).trim()).append('=');
+		boolean hasActivatingRegulators = appendCanonicalForm(builder, activatingRegulators,
+			andOperatorsActivatingRegulators, whitelistActivatingRegulators);
+		builder.append('!');
+		boolean hasInhibitoryRegulators = appendCanonicalForm(builder, inhibitoryRegulators,
+			andOperatorsInhibitoryRegulators, whitelistInhibitoryRegulators);
+
+		if (hasActivatingRegulators && hasInhibitoryRegulators)
+			builder.append('#').append(getLink());
+
+		builder.append(';');
+	}
 
-			equation.append(getRepeatedString(" ( ",
-					Collections.frequency(whitelistInhibitoryRegulators, true)));
+	private static boolean appendCanonicalForm(StringBuilder builder, int[] regulators,
+											   BitSet andOperators, BitSet whitelist) {
+		boolean first = true;
+		for (int i = 0; i < regulators.length; i++) {
+			if (whitelist.get(i)) {
+				if (!first) builder.append(' ').append(getOperator(andOperators, i - 1)).append(' ');
+				builder.append(NodeRegistry.getName(regulators[i]));
+				first = false;
+			}
+		}
+		return !first;
+	}
+
+	/**
+	 * Builds the logical function of the equation as an MDD node, using the
+	 * same semantics as the Booleannet string returned by {@link #getBooleanEquation()}:
+	 * the whitelisted regulators are combined from left to right with their
+	 * respective operators and the activating and inhibitory parts are joined
+	 * with the link operator.
+	 *
+	 * @param ddmanager the MDD manager that holds the variables of the model
+	 * @param variables a mapping from the node names of the model to their MDD variables
+	 * @return the MDD node that represents the equation's function
+	 * @throws Exception when a regulator is not a node of the model or when the
+	 * equation has no whitelisted regulators
+	 */
+	int getMDDFunction(MDDManager ddmanager, Map<String, MDDVariable> variables) throws Exception {
+		boolean hasActivatingRegulators = numWhitelistedActivatingRegulators > 0;
+		boolean hasInhibitoryRegulators = numWhitelistedInhibitoryRegulators > 0;
+
+		if (hasActivatingRegulators && hasInhibitoryRegulators) {
+			int activatingFunction = getMDDFunction(ddmanager, variables, activatingRegulators,
+				andOperatorsActivatingRegulators, whitelistActivatingRegulators);
+			int inhibitoryFunction = ddmanager.not(getMDDFunction(ddmanager, variables,
+				inhibitoryRegulators, andOperatorsInhibitoryRegulators, whitelistInhibitoryRegulators));
+
+			MDDOperator linkOperator = (link == LINK_OR)
+				? MDDBaseOperators.OR
+				: MDDBaseOperators.AND;
+			return linkOperator.combine(ddmanager, activatingFunction, inhibitoryFunction);
+		} else if (hasActivatingRegulators) {
+			return getMDDFunction(ddmanager, variables, activatingRegulators,
+				andOperatorsActivatingRegulators, whitelistActivatingRegulators);
+		} else if (hasInhibitoryRegulators) {
+			return ddmanager.not(getMDDFunction(ddmanager, variables, inhibitoryRegulators,
+				andOperatorsInhibitoryRegulators, whitelistInhibitoryRegulators));
+		} else {
+			throw new Exception("Equation of target `" + getTarget() + "` has no whitelisted regulators");
+		}
+	}
 
-			for (int i = 0; i < inhibitoryRegulators.size(); i++)
+	private static int getMDDFunction(MDDManager ddmanager, Map<String, MDDVariable> variables,
+									  int[] regulators, BitSet andOperators, BitSet whitelist) throws Exception {
+		int function = -1;
 
-			{
-				if (whitelistInhibitoryRegulators.get(i)) {
-					if (Collections.frequency(whitelistInhibitoryRegulators.subList(0, i), true) > 0)
-						equation.append(" ").append(operatorsInhibitoryRegulators.get(i - 1)).append(" ");
+		for (int i = 0; i < regulators.length; i++) {
+			if (whitelist.get(i)) {
+				int regulatorFunction = getMDDLiteral(ddmanager, variables, NodeRegistry.getName(regulators[i]));
 
-					equation.append(inhibitoryRegulators.get(i)).append(" ) ");
+				if (function < 0) {
+					function = regulatorFunction;
+				} else {
+					MDDOperator operator = andOperators.get(i - 1)
+						? MDDBaseOperators.AND
+						: MDDBaseOperators.OR;
+					function = operator.combine(ddmanager, function, regulatorFunction);
 				}
 			}
+		}
+
+		return function;
+	}
+
+	private static int getMDDLiteral(MDDManager ddmanager, Map<String, MDDVariable> variables,
+									 String regulator) throws Exception {
+		// leaves of a Boolean MDD: 0 (false) and 1 (true)
+		switch (regulator) {
+			case "true":
+			case "1":
+				return 1;
+			case "false":
+			case "0":
+				return 0;
+		}
+
+		MDDVariable variable = variables.get(regulator);
+		if (variable == null) {
+			throw new Exception("Regulator `" + regulator + "` is not a node of the model");
+		}
+
+		return variable.getNode(0, 1);
+	}
+
+	/**
+	 * Compiles the equation to a {@link StableStateSolver.Function}, using the
+	 * same semantics as the Booleannet string returned by {@link #getBooleanEquation()}.
+	 *
+	 * @param nodeIndexes a mapping from the node names of the model to their indexes
+	 * @throws Exception when a regulator is not a node of the model or when the
+	 * equation has no whitelisted regulators
+	 */
+	StableStateSolver.Function getSolverFunction(Map<String, Integer> nodeIndexes) throws Exception {
+		int numActivatingRegulators = numWhitelistedActivatingRegulators;
+		int numInhibitoryRegulators = numWhitelistedInhibitoryRegulators;
+
+		if (numActivatingRegulators + numInhibitoryRegulators == 0)
+			throw new Exception("Equation of target `" + getTarget() + "` has no whitelisted regulators");
+
+		int[] activatingLiterals = new int[numActivatingRegulators];
+		boolean[] activatingAndOperators = new boolean[Math.max(numActivatingRegulators - 1, 0)];
+		getSolverLiterals(nodeIndexes, activatingRegulators, andOperatorsActivatingRegulators,
+			whitelistActivatingRegulators, activatingLiterals, activatingAndOperators);
+
+		int[] inhibitoryLiterals = new int[numInhibitoryRegulators];
+		boolean[] inhibitoryAndOperators = new boolean[Math.max(numInhibitoryRegulators - 1, 0)];
+		getSolverLiterals(nodeIndexes, inhibitoryRegulators, andOperatorsInhibitoryRegulators,
+			whitelistInhibitoryRegulators, inhibitoryLiterals, inhibitoryAndOperators);
+
+		return new StableStateSolver.Function(activatingLiterals, activatingAndOperators,
+			inhibitoryLiterals, inhibitoryAndOperators, link == LINK_OR);
+	}
+
+	private static void getSolverLiterals(Map<String, Integer> nodeIndexes, int[] regulators,
+										  BitSet andOperators, BitSet whitelist,
+										  int[] literals, boolean[] literalAndOperators) throws Exception {
+		int count = 0;
+		for (int i = whitelist.nextSetBit(0); i >= 0; i = whitelist.nextSetBit(i + 1)) {
+			if (count > 0) {
+				literalAndOperators[count - 1] = andOperators.get(i - 1);
+			}
+			literals[count++] = getSolverLiteral(nodeIndexes, NodeRegistry.getName(regulators[i]));
+		}
+	}
 
+	private static int getSolverLiteral(Map<String, Integer> nodeIndexes, String regulator) throws Exception {
+		switch (regulator) {
+			case "true":
+			case "1":
+				return StableStateSolver.LITERAL_TRUE;
+			case "false":
+			case "0":
+				return StableStateSolver.LITERAL_FALSE;
 		}
 
-		return " " + equation.toString().trim() + " ";
+		Integer index = nodeIndexes.get(regulator);
+		if (index == null) {
+			throw new Exception("Regulator `" + regulator + "` is not a node of the model");
+		}
+
+		return index;
 	}
 
 	void mutateRandomOperator() {
@@ -234,63 +554,70 @@ public class BooleanEquation {
 		}
 	}
 
-	void mutateRegulator() {
+	/**
+	 * Randomly blacklists or whitelists one of the regulators, making sure that at
+	 * least one regulator is kept
+	 *
+	 * @return true if the equation was changed
+	 */
+	boolean mutateRegulator() {
 		// randomly select activating or inhibiting regulator, but make sure at least
 		// one regulator is kept
-		if ((Collections.frequency(whitelistActivatingRegulators, true)
-				+ Collections.frequency(whitelistInhibitoryRegulators, true)) > 1) {
+		if (getNumWhitelistedRegulators() > 1) {
 			if (randInt(0, 1) > 0.5) {
-				mutateActivatingRegulator();
+				return mutateActivatingRegulator();
 			} else {
-				mutateInhibitoryRegulator();
+				return mutateInhibitoryRegulator();
 			}
 		}
+		return false;
 	}
 	
-	private void mutateActivatingRegulator() {
-		if (this.activatingRegulators.size() > 0) {
-			int index = randInt(0, activatingRegulators.size() - 1);
-			this.whitelistActivatingRegulators.set(index, !whitelistActivatingRegulators.get(index));
+	private boolean mutateActivatingRegulator() {
+		if (this.activatingRegulators.length > 0) {
+			int index = randInt(0, activatingRegulators.length - 1);
+			this.whitelistActivatingRegulators.flip(index);
+			this.numWhitelistedActivatingRegulators += whitelistActivatingRegulators.get(index) ? 1 : -1;
+			this.booleanEquation = null;
+			return true;
 		}
+		return false;
 	}
 
-	private void mutateInhibitoryRegulator() {
-		if (this.inhibitoryRegulators.size() > 0) {
-			int index = randInt(0, inhibitoryRegulators.size() - 1);
-			this.whitelistInhibitoryRegulators.set(index, !whitelistInhibitoryRegulators.get(index));
+	private boolean mutateInhibitoryRegulator() {
+		if (this.inhibitoryRegulators.length > 0) {
+			int index = randInt(0, inhibitoryRegulators.length - 1);
+			this.whitelistInhibitoryRegulators.flip(index);
+			this.numWhitelistedInhibitoryRegulators += whitelistInhibitoryRegulators.get(index) ? 1 : -1;
+			this.booleanEquation = null;
+			return true;
 		}
+		return false;
 	}
 
 	private void mutateRandomActivatoryOperator() {
-		if (operatorsActivatingRegulators.size() > 0) {
-			int randomIndex = randInt(0, operatorsActivatingRegulators.size() - 1);
-
-			if (operatorsActivatingRegulators.get(randomIndex).trim().equals("or")) {
-				operatorsActivatingRegulators.set(randomIndex, " and ");
-			} else {
-				operatorsActivatingRegulators.set(randomIndex, "or");
-			}
+		if (activatingRegulators.length > 1) {
+			int randomIndex = randInt(0, activatingRegulators.length - 2);
+			andOperatorsActivatingRegulators.flip(randomIndex);
+			booleanEquation = null;
 		}
 	}
 
 	private void mutateRandomInhibitoryOperator() {
-		if (operatorsInhibitoryRegulators.size() > 0) {
-			int randomIndex = randInt(0, operatorsInhibitoryRegulators.size() - 1);
-
-			if (operatorsInhibitoryRegulators.get(randomIndex).trim().equals("or")) {
-				operatorsInhibitoryRegulators.set(randomIndex, "and");
-			} else {
-				operatorsInhibitoryRegulators.set(randomIndex, "or");
-			}
+		if (inhibitoryRegulators.length > 1) {
+			int randomIndex = randInt(0, inhibitoryRegulators.length - 2);
+			andOperatorsInhibitoryRegulators.flip(randomIndex);
+			booleanEquation = null;
 		}
 	}
 
 	public void mutateLinkOperator() {
-		if (link.trim().equals("and")) {
-			link = "or";
+		if (link == LINK_AND) {
+			link = LINK_OR;
 		} else {
-			link = "and";
+			link = LINK_AND;
 		}
+		booleanEquation = null;
 	}
 
 	void shuffleRandomRegulatorPriority() {
@@ -302,46 +629,55 @@ public class BooleanEquation {
 	}
 
 	private void shuffleRandomActivatingRegulatorPriority() {
-		if (activatingRegulators.size() > 1) {
-			int randomIndex = randInt(0, activatingRegulators.size() - 2);
-
-			String temp = activatingRegulators.get(randomIndex);
-			activatingRegulators.set(randomIndex, activatingRegulators.get(randomIndex + 1));
-			activatingRegulators.set(randomIndex + 1, temp);
+		if (activatingRegulators.length > 1) {
+			int randomIndex = randInt(0, activatingRegulators.length - 2);
+			activatingRegulators = swap(activatingRegulators, randomIndex);
+			booleanEquation = null;
 		}
 	}
 
 	private void shuffleRandomInhibitoryRegulatorPriority() {
-		if (inhibitoryRegulators.size() > 1) {
-			int randomIndex = randInt(0, inhibitoryRegulators.size() - 2);
-
-			String temp = inhibitoryRegulators.get(randomIndex);
-			inhibitoryRegulators.set(randomIndex, inhibitoryRegulators.get(randomIndex + 1));
-			inhibitoryRegulators.set(randomIndex + 1, temp);
+		if (inhibitoryRegulators.length > 1) {
+			int randomIndex = randInt(0, inhibitoryRegulators.length - 2);
+			inhibitoryRegulators = swap(inhibitoryRegulators, randomIndex);
+			booleanEquation = null;
 		}
 	}
 
+	/**
+	 * @return a copy of the regulators with the ones at <i>index</i> and <i>index + 1</i>
+	 * swapped (the regulator arrays can be shared between copies of an equation)
+	 */
+	private static int[] swap(int[] regulators, int index) {
+		int[] swapped = regulators.clone();
+		swapped[index] = regulators[index + 1];
+		swapped[index + 1] = regulators[index];
+		return swapped;
+	}
+
 	ArrayList<String> convertToSifLines(String delimiter) {
 		ArrayList<String> lines = new ArrayList<>();
+		String target = getTarget();
 
-		for (String activatingRegulator : activatingRegulators)
-			lines.add(activatingRegulator + delimiter + "->" + delimiter + target);
+		for (int activatingRegulator : activatingRegulators)
+			lines.add(NodeRegistry.getName(activatingRegulator) + delimiter + "->" + delimiter + target);
 
-		for (String inhibitoryRegulator : inhibitoryRegulators)
-			lines.add(inhibitoryRegulator + delimiter + "-|" + delimiter + target);
+		for (int inhibitoryRegulator : inhibitoryRegulators)
+			lines.add(NodeRegistry.getName(inhibitoryRegulator) + delimiter + "-|" + delimiter + target);
 
 		return lines;
 	}
 
 	public ArrayList<SingleInteraction> getSingleInteractions() {
 		ArrayList<SingleInteraction> singleInteractions = new ArrayList<>();
+		String target = getTarget();
 
-		for (String activatingRegulator : activatingRegulators) {
-			singleInteractions.add(new SingleInteraction(activatingRegulator, "->", target));
+		for (int activatingRegulator : activatingRegulators) {
+			singleInteractions.add(new SingleInteraction(NodeRegistry.getName(activatingRegulator), "->", target));
 		}
 
-		for (String inhibitoryRegulator : inhibitoryRegulators) {
-			singleInteractions.add(new SingleInteraction(inhibitoryRegulator, "-|", target));
+		for (int inhibitoryRegulator : inhibitoryRegulators) {
+			singleInteractions.add(new SingleInteraction(NodeRegistry.getName(inhibitoryRegulator), "-|", target));
 		}
 
 		return singleInteractions;
@@ -358,50 +694,80 @@ public class BooleanEquation {
 	}
 
 	public int getNumWhitelistedActivatingRegulators() {
-		return Collections.frequency(whitelistActivatingRegulators, true);
+		return numWhitelistedActivatingRegulators;
 	}
 
 	public int getNumWhitelistedInhibitoryRegulators() {
-		return Collections.frequency(whitelistInhibitoryRegulators, true);
+		return numWhitelistedInhibitoryRegulators;
 	}
 
 	public int getNumBlacklistedActivatingRegulators() {
-		return Collections.frequency(whitelistActivatingRegulators, false);
+		return activatingRegulators.length - getNumWhitelistedActivatingRegulators();
 	}
 
 	public int getNumBlacklistedInhibitoryRegulators() {
-		return Collections.frequency(whitelistInhibitoryRegulators, false);
+		return inhibitoryRegulators.length - getNumWhitelistedInhibitoryRegulators();
 	}
 
 	public int getNumRegulators() {
-		return (activatingRegulators.size() + inhibitoryRegulators.size());
+		return (activatingRegulators.length + inhibitoryRegulators.length);
 	}
 
 	public void blacklistActivatingRegulator(int index) throws IndexOutOfBoundsException {
-		whitelistActivatingRegulators.set(index, false);
+		if (index < 0 || index >= activatingRegulators.length)
+			throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + activatingRegulators.length);
+		if (whitelistActivatingRegulators.get(index)) {
+			whitelistActivatingRegulators.clear(index);
+			numWhitelistedActivatingRegulators--;
+			booleanEquation = null;
+		}
 	}
 
 	public void blacklistInhibitoryRegulator(int index) throws IndexOutOfBoundsException {
-		whitelistInhibitoryRegulators.set(index, false);
+		if (index < 0 || index >= inhibitoryRegulators.length)
+			throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + inhibitoryRegulators.length);
+		if (whitelistInhibitoryRegulators.get(index)) {
+			whitelistInhibitoryRegulators.clear(index);
+			numWhitelistedInhibitoryRegulators--;
+			booleanEquation = null;
+		}
 	}
 
+	/**
+	 * @return the names of the activating regulators (a new list)
+	 */
 	public ArrayList<String> getActivatingRegulators() {
-		return activatingRegulators;
+		return getNames(activatingRegulators);
 	}
 
+	/**
+	 * @return the names of the inhibitory regulators (a new list)
+	 */
 	public ArrayList<String> getInhibitoryRegulators() {
-		return inhibitoryRegulators;
+		return getNames(inhibitoryRegulators);
 	}
 
 	public String getTarget() {
-		return target;
+		return NodeRegistry.getName(target);
 	}
 
 	public void setTarget(String target) {
-		this.target = target;
+		this.target = NodeRegistry.getId(target);
+		this.booleanEquation = null;
 	}
 
+	/**
+	 * @return the link operator: <i>and</i>, <i>or</i> or an empty string if the
+	 * equation has only activating or only inhibitory regulators
+	 */
 	public String getLink() {
-		return link;
+		switch (link) {
+			case LINK_AND:
+				return "and";
+			case LINK_OR:
+				return "or";
+			default:
+				return "";
+		}
 	}
 }
@@ -4,15 +4,23 @@ import eu.druglogics.gitsbe.input.ModelOutputs;
 import eu.druglogics.gitsbe.input.OutputWeight;
 import eu.druglogics.gitsbe.util.Logger;
 import org.colomoto.biolqm.LogicalModel;
+import org.colomoto.biolqm.LogicalModelImpl;
+import org.colomoto.biolqm.NodeInfo;
 import org.colomoto.biolqm.io.bnet.BNetFormat;
 import org.colomoto.biolqm.io.ginml.GINMLFormat;
 import org.colomoto.biolqm.io.sbml.SBMLFormat;
+import org.colomoto.mddlib.MDDManager;
+import org.colomoto.mddlib.MDDManagerFactory;
+import org.colomoto.mddlib.MDDVariable;
+import org.colomoto.mddlib.MDDVariableFactory;
 
 import java.io.File;
 import java.io.IOException;
 import java.io.PrintWriter;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 
 import static eu.druglogics.gitsbe.util.Util.*;
@@ -25,8 +33,10 @@ import static org.colomoto.biolqm.service.LQMServiceManager.load;
  */
 public class BooleanModel {
 
-	protected ArrayList<BooleanEquation> booleanEquations;
+	protected List<BooleanEquation> booleanEquations;
+	// never modified after the model is loaded, so it's shared by the model copies
 	LinkedHashMap<String, String> nodeNameToVariableMap;
+	NodeIndex nodeIndex;
 	protected Attractors attractors;
 	protected String modelName;
 	private String filename;
@@ -66,6 +76,7 @@ public class BooleanModel {
 			booleanEquations.add(booleanEquation);
 		}
 
+		this.nodeIndex = new NodeIndex(nodeNameToVariableMap.keySet());
 		this.attractors = new Attractors(this, attractorTool, logger);
 	}
 
@@ -157,6 +168,8 @@ public class BooleanModel {
 						"model from file is not supported");
 		}
 
+		if (nodeNameToVariableMap != null)
+			this.nodeIndex = new NodeIndex(nodeNameToVariableMap.keySet());
 		this.attractors = new Attractors(this, attractorTool, logger);
 	}
 
@@ -171,14 +184,14 @@ public class BooleanModel {
 
 		// (Deep) copy of the Boolean equations objects
 		this.booleanEquations = new ArrayList<>();
-		for (BooleanEquation booleanEquation: booleanModel.getBooleanEquations()) {
+		for (BooleanEquation booleanEquation: booleanModel.booleanEquations) {
 			BooleanEquation booleanEquationCopy = new BooleanEquation(booleanEquation);
 			this.booleanEquations.add(booleanEquationCopy);
 		}
 
-		// Copy nodeNameToVariableMap
-		this.nodeNameToVariableMap = new LinkedHashMap<>();
-		this.nodeNameToVariableMap.putAll(booleanModel.nodeNameToVariableMap);
+		// Share nodeNameToVariableMap and the node index table
+		this.nodeNameToVariableMap = booleanModel.nodeNameToVariableMap;
+		this.nodeIndex = booleanModel.nodeIndex;
 
 		this.attractors = new Attractors(this, booleanModel.getAttractorTool(), logger);
 
@@ -323,6 +336,52 @@ public class BooleanModel {
 		writer.close();
 	}
 
+	/**
+	 * Builds a BioLQM {@link LogicalModel} directly from the model's boolean equations,
+	 * without writing and then parsing a <i>.bnet</i> file. The components of the
+	 * logical model are in the same order as the model's equations (and node names).
+	 *
+	 * @throws Exception when an equation cannot be translated to an MDD function
+	 * (e.g. it has a regulator that is not a node of the model)
+	 */
+	public LogicalModel getLogicalModel() throws Exception {
+		List<NodeInfo> nodes = new ArrayList<>();
+		MDDVariableFactory variableFactory = new MDDVariableFactory();
+
+		for (BooleanEquation booleanEquation : booleanEquations) {
+			NodeInfo node = new NodeInfo(booleanEquation.getTarget());
+			nodes.add(node);
+			variableFactory.add(node, (byte) 2);
+		}
+
+		MDDManager ddmanager = MDDManagerFactory.getManager(variableFactory, 2);
+
+		Map<String, MDDVariable> variables = new HashMap<>();
+		for (NodeInfo node : nodes) {
+			variables.put(node.getNodeID(), ddmanager.getVariableForKey(node));
+		}
+
+		int[] functions = new int[booleanEquations.size()];
+		for (int i = 0; i < booleanEquations.size(); i++) {
+			functions[i] = booleanEquations.get(i).getMDDFunction(ddmanager, variables);
+		}
+
+		return new LogicalModelImpl(nodes, ddmanager, functions);
+	}
+
+	/**
+	 * Computes the fingerprint of the model's equations (see {@link ModelFingerprint}).
+	 * Equations that differ only in their non-whitelisted regulators, in the spacing
+	 * of their operators or in an unused link operator have the same fingerprint.
+	 */
+	ModelFingerprint getFingerprint() {
+		StringBuilder canonicalForm = new StringBuilder();
+		for (BooleanEquation booleanEquation : booleanEquations) {
+			booleanEquation.appendCanonicalForm(canonicalForm);
+		}
+		return ModelFingerprint.of(canonicalForm);
+	}
+
 	/**
 	 * @return an ArrayList of Strings (the model equations in Booleannet format)
 	 */
@@ -382,11 +441,11 @@ public class BooleanModel {
 	 * @param target
 	 */
 	public int getIndexOfEquation(String target) {
-		return new ArrayList<>(nodeNameToVariableMap.keySet()).indexOf(target.trim());
+		return nodeIndex.getIndex(target.trim());
 	}
 
 	public ArrayList<String> getNodeNames() {
-		return new ArrayList<>(nodeNameToVariableMap.keySet());
+		return new ArrayList<>(nodeIndex.getNodeNames());
 	}
 
 	/**
@@ -414,7 +473,9 @@ public class BooleanModel {
 	 * the link operator is neither <i>and</i> or <i>or</i>.
 	 */
 	public void changeLinkOperator(int index) throws Exception {
-		BooleanEquation booleanEquation = getBooleanEquations().get(index);
+		// the equation might be shared with another model (see EquationOverlay),
+		// so a modified copy replaces it
+		BooleanEquation booleanEquation = new BooleanEquation(booleanEquations.get(index));
 
 		logger.outputStringMessage(3, "Changing link operator of equation: "
 			+ booleanEquation.getBooleanEquation());
@@ -468,6 +529,20 @@ public class BooleanModel {
 		return attractors.getAttractors();
 	}
 
+	/**
+	 * Wrapper-function. See: {@link Attractors#getNumberOfAttractors()}
+	 */
+	public int getNumberOfAttractors() {
+		return attractors.getNumberOfAttractors();
+	}
+
+	/**
+	 * Wrapper-function. See: {@link Attractors#getNodeStateValue(int, int)}
+	 */
+	public float getNodeStateValue(int attractorIndex, int nodeIndex) {
+		return attractors.getNodeStateValue(attractorIndex, nodeIndex);
+	}
+
 	/**
 	 * Wrapper-function. See: {@link Attractors#getAttractorsWithNodes()}
 	 */
@@ -486,26 +561,34 @@ public class BooleanModel {
 		ModelOutputs modelOutputs = ModelOutputs.getInstance();
 		float globaloutput = 0;
 
-		for (String attractor : this.getAttractors()) {
+		int numberOfAttractors = attractors.getNumberOfAttractors();
+		for (int attractorIndex = 0; attractorIndex < numberOfAttractors; attractorIndex++) {
 			for (OutputWeight outputWeight : modelOutputs.getModelOutputs()) {
 				int nodeIndexInAttractor = this.getIndexOfEquation(outputWeight.getNodeName());
 				if (nodeIndexInAttractor >= 0) {
-					// can only be '1','0' or '-'
-					char nodeState = attractor.charAt(nodeIndexInAttractor);
-					float stateValue = (nodeState == '-')
-						? (float) 0.5
-						: Character.getNumericValue(attractor.charAt(nodeIndexInAttractor));
+					// can only be 1, 0 or 0.5 (for '-')
+					float stateValue = attractors.getNodeStateValue(attractorIndex, nodeIndexInAttractor);
 
 					globaloutput += stateValue * outputWeight.getWeight();
 				}
 			}
 		}
 
-		globaloutput /= getAttractors().size();
+		globaloutput /= numberOfAttractors;
 
 		return ((globaloutput - modelOutputs.getMinOutput()) / (modelOutputs.getMaxOutput() - modelOutputs.getMinOutput()));
 	}
 
+	/**
+	 * Change the logger of the model (and of its attractors)
+	 *
+	 * @param logger
+	 */
+	public void setLogger(Logger logger) {
+		this.logger = logger;
+		this.attractors.setLogger(logger);
+	}
+
 	public void setModelName(String modelName) {
 		this.modelName = modelName;
 	}
@@ -514,8 +597,15 @@ public class BooleanModel {
 		return modelName;
 	}
 
+	/**
+	 * @return the boolean equations of the model (for a condition model, whose equations
+	 * are shared with its parent model, a new list with the current equations)
+	 */
 	public ArrayList<BooleanEquation> getBooleanEquations() {
-		return booleanEquations;
+		if (booleanEquations instanceof ArrayList) {
+			return (ArrayList<BooleanEquation>) booleanEquations;
+		}
+		return new ArrayList<>(booleanEquations);
 	}
 
 	/**
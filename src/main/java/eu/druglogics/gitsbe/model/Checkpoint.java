@@ -0,0 +1,264 @@
+package eu.druglogics.gitsbe.model;
+
+import eu.druglogics.gitsbe.util.Logger;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * The checkpoint of an {@link Evolution} simulation, used to resume an interrupted
+ * Gitsbe run. It consists of two binary files:
+ * <ul>
+ *     <li><i>simulation_N.checkpoint</i>: the number of finished generations, whether the
+ *     simulation has finished, the initial phase flag, the state of the random number
+ *     generator and the best models. It is written to a temporary file which is then
+ *     renamed, so an interrupted write leaves the previous checkpoint intact.</li>
+ *     <li><i>simulation_N.generations</i>: the fitnesses of the models and the number of
+ *     skipped evaluations of every generation. Only the generations since the previous
+ *     checkpoint are appended to it and the checkpoint file tells how many are valid.</li>
+ * </ul>
+ */
+public class Checkpoint {
+
+	private static final int MAGIC = 0x4753434B; // "GSCK"
+	private static final int VERSION = 1;
+
+	private final File checkpointFile;
+	private final File generationsFile;
+
+	// number of generations already in the generations file
+	private int savedGenerations = 0;
+
+	// The state of the simulation, when loaded from the files
+	private int generations;
+	private boolean completed;
+	private boolean initialPhase;
+	private Random random;
+	private ArrayList<MutatedBooleanModel> bestModels;
+	private ArrayList<float[]> fitnesses;
+	private ArrayList<Integer> skippedEvaluations;
+
+	/**
+	 * @param directory the checkpoint directory of the Gitsbe run
+	 * @param simulation the number of the simulation (starting from 1)
+	 */
+	public Checkpoint(String directory, int simulation) {
+		this.checkpointFile = new File(directory, "simulation_" + simulation + ".checkpoint");
+		this.generationsFile = new File(directory, "simulation_" + simulation + ".generations");
+	}
+
+	public boolean exists() {
+		return checkpointFile.exists();
+	}
+
+	/**
+	 * Loads the state of the simulation from the checkpoint files. The generations
+	 * appended after the checkpoint file was written are discarded, since they will
+	 * be simulated again.
+	 *
+	 * @param generalBooleanModel the model that the simulation started from
+	 * @param logger the logger of the restored best models
+	 * @throws IOException if the files are incomplete or don't match the model
+	 */
+	public void load(BooleanModel generalBooleanModel, Logger logger) throws IOException {
+		try (DataInputStream in = new DataInputStream(
+			new BufferedInputStream(new FileInputStream(checkpointFile)))) {
+
+			if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+				throw new IOException("Not a checkpoint file (or of another version): " + checkpointFile);
+			}
+
+			generations = in.readInt();
+			completed = in.readBoolean();
+			initialPhase = in.readBoolean();
+
+			byte[] randomState = new byte[in.readInt()];
+			in.readFully(randomState);
+			random = readRandom(randomState);
+
+			int numberOfModels = in.readInt();
+			ArrayList<MutatedBooleanModel> models = new ArrayList<>(numberOfModels);
+			for (int i = 0; i < numberOfModels; i++) {
+				MutatedBooleanModel model = new MutatedBooleanModel(generalBooleanModel, logger);
+				model.setModelName(in.readUTF());
+				model.setFitness(in.readFloat());
+
+				int numberOfEquations = in.readInt();
+				if (numberOfEquations != model.booleanEquations.size()) {
+					throw new IOException("The models of the checkpoint file " + checkpointFile
+						+ " don't match the network: " + numberOfEquations + " equations instead of "
+						+ model.booleanEquations.size());
+				}
+				for (int j = 0; j < numberOfEquations; j++) {
+					model.booleanEquations.set(j, BooleanEquation.read(in));
+				}
+
+				models.add(model);
+			}
+			bestModels = models;
+		}
+
+		long validLength = 0;
+		fitnesses = new ArrayList<>(generations);
+		skippedEvaluations = new ArrayList<>(generations);
+		try (DataInputStream in = new DataInputStream(
+			new BufferedInputStream(new FileInputStream(generationsFile)))) {
+
+			for (int generation = 0; generation < generations; generation++) {
+				skippedEvaluations.add(in.readInt());
+				float[] generationFitness = new float[in.readInt()];
+				for (int i = 0; i < generationFitness.length; i++) {
+					generationFitness[i] = in.readFloat();
+				}
+				fitnesses.add(generationFitness);
+				validLength += 8 + 4L * generationFitness.length;
+			}
+		}
+
+		try (FileChannel channel = FileChannel.open(generationsFile.toPath(), StandardOpenOption.WRITE)) {
+			channel.truncate(validLength);
+		}
+		savedGenerations = generations;
+	}
+
+	/**
+	 * Saves the state of the simulation: the generations since the previous call are
+	 * appended to the generations file and then the checkpoint file is replaced.
+	 *
+	 * @param generations the number of finished generations
+	 * @param completed true if the simulation has finished (and its best models are saved)
+	 * @param initialPhase
+	 * @param random the random number generator of the simulation
+	 * @param bestModels
+	 * @param fitnesses the fitnesses of all the finished generations
+	 * @param skippedEvaluations the skipped evaluations of all the finished generations
+	 */
+	void save(int generations, boolean completed, boolean initialPhase, Random random,
+			  List<MutatedBooleanModel> bestModels, List<float[]> fitnesses,
+			  List<Integer> skippedEvaluations) throws IOException {
+
+		// a new simulation starts with an empty generations file
+		try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+			new FileOutputStream(generationsFile, savedGenerations > 0)))) {
+
+			for (int generation = savedGenerations; generation < generations; generation++) {
+				float[] generationFitness = fitnesses.get(generation);
+				out.writeInt(skippedEvaluations.get(generation));
+				out.writeInt(generationFitness.length);
+				for (float fitness : generationFitness) {
+					out.writeFloat(fitness);
+				}
+			}
+		}
+		savedGenerations = generations;
+
+		File tmpFile = new File(checkpointFile.getPath() + ".tmp");
+		try (DataOutputStream out = new DataOutputStream(
+			new BufferedOutputStream(new FileOutputStream(tmpFile)))) {
+
+			out.writeInt(MAGIC);
+			out.writeInt(VERSION);
+			out.writeInt(generations);
+			out.writeBoolean(completed);
+			out.writeBoolean(initialPhase);
+
+			byte[] randomState = writeRandom(random);
+			out.writeInt(randomState.length);
+			out.write(randomState);
+
+			out.writeInt(bestModels.size());
+			for (MutatedBooleanModel model : bestModels) {
+				out.writeUTF(model.getModelName());
+				out.writeFloat(model.getFitness());
+				out.writeInt(model.booleanEquations.size());
+				for (BooleanEquation booleanEquation : model.booleanEquations) {
+					booleanEquation.write(out);
+				}
+			}
+		}
+
+		try {
+			Files.move(tmpFile.toPath(), checkpointFile.toPath(), StandardCopyOption.ATOMIC_MOVE);
+		} catch (AtomicMoveNotSupportedException e) {
+			Files.move(tmpFile.toPath(), checkpointFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+		}
+	}
+
+	/**
+	 * @return true if the state of the simulation was loaded with {@link #load(BooleanModel, Logger)}
+	 */
+	public boolean isLoaded() {
+		return bestModels != null;
+	}
+
+	private static byte[] writeRandom(Random random) throws IOException {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+			out.writeObject(random);
+		}
+		return bytes.toByteArray();
+	}
+
+	private static Random readRandom(byte[] randomState) throws IOException {
+		try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(randomState))) {
+			return (Random) in.readObject();
+		} catch (ClassNotFoundException | ClassCastException e) {
+			throw new IOException("Wrong random number generator state in checkpoint", e);
+		}
+	}
+
+	/**
+	 * @return the number of finished generations
+	 */
+	public int getGenerations() {
+		return generations;
+	}
+
+	/**
+	 * @return true if the simulation had finished when the checkpoint was saved
+	 */
+	public boolean isCompleted() {
+		return completed;
+	}
+
+	boolean isInitialPhase() {
+		return initialPhase;
+	}
+
+	/**
+	 * @return the random number generator, in the state it was when the checkpoint was saved
+	 */
+	public Random getRandom() {
+		return random;
+	}
+
+	ArrayList<MutatedBooleanModel> getBestModels() {
+		return bestModels;
+	}
+
+	ArrayList<float[]> getFitnesses() {
+		return fitnesses;
+	}
+
+	ArrayList<Integer> getSkippedEvaluations() {
+		return skippedEvaluations;
+	}
+}
@@ -0,0 +1,306 @@
+package eu.druglogics.gitsbe.model;
+
+import eu.druglogics.gitsbe.drug.DrugPanel;
+import eu.druglogics.gitsbe.input.TrainingData;
+import eu.druglogics.gitsbe.input.TrainingDataObservation;
+import eu.druglogics.gitsbe.util.Logger;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * The training data observations compiled for the nodes of a model: the perturbations
+ * are resolved to node indexes and ready-made (clamped) equations, the drugs to their
+ * targets and the responses to node indexes with their observed values. This way, the
+ * fitness calculation of a model only does the arithmetic and the attractor lookups.
+ *
+ * Since all the models of an evolution share the same {@link NodeIndex}, the training
+ * data is compiled once and then reused by every fitness calculation. The objects are
+ * immutable, so they can be shared between threads.
+ */
+final class CompiledTrainingData {
+
+	private static volatile CompiledTrainingData compiledTrainingData = null;
+
+	private final TrainingData trainingData;
+	private final NodeIndex nodeIndex;
+	private final List<Observation> observations;
+	private final float weightSum;
+
+	/**
+	 * The equations that are replaced in a model to simulate a drug or a
+	 * knockout/over-expression of some nodes
+	 */
+	static final class Perturbation {
+		final String name; // the drug's name (null for node perturbations)
+		final int[] nodes;
+		final boolean[] values;
+		final BooleanEquation[] equations; // shared, never modified
+		final String[] definitions; // e.g. `A *= false`
+
+		private Perturbation(String name, List<String> targets, List<Boolean> targetValues,
+							 NodeIndex nodeIndex) throws Exception {
+			this.name = name;
+			this.nodes = new int[targets.size()];
+			this.values = new boolean[targets.size()];
+			this.equations = new BooleanEquation[targets.size()];
+			this.definitions = new String[targets.size()];
+
+			for (int i = 0; i < nodes.length; i++) {
+				String equation = targets.get(i) + " *= " + targetValues.get(i);
+				nodes[i] = nodeIndex.getIndex(targets.get(i).trim());
+
+				if (nodes[i] < 0) {
+					throw new Exception("Target of equation [" + equation + "] not found");
+				}
+				values[i] = targetValues.get(i);
+				equations[i] = new BooleanEquation(equation);
+				definitions[i] = equation;
+			}
+		}
+	}
+
+	/**
+	 * Identifies a perturbed model by the sorted set of its clamped nodes and their values
+	 * (models with equal keys have the same equations and thus the same attractors)
+	 */
+	static final class PerturbationKey {
+		// the key of the model itself (e.g. for the unperturbed observations)
+		static final PerturbationKey NO_PERTURBATION = new PerturbationKey();
+
+		private final int[] clampedNodes; // (node index << 1) | value, sorted
+
+		private PerturbationKey(Perturbation... perturbations) {
+			// the perturbations are applied in order, so a later one overrides an earlier one
+			TreeMap<Integer, Boolean> clamped = new TreeMap<>();
+			for (Perturbation perturbation : perturbations) {
+				for (int i = 0; i < perturbation.nodes.length; i++) {
+					clamped.put(perturbation.nodes[i], perturbation.values[i]);
+				}
+			}
+
+			this.clampedNodes = new int[clamped.size()];
+			int i = 0;
+			for (Map.Entry<Integer, Boolean> entry : clamped.entrySet()) {
+				clampedNodes[i++] = (entry.getKey() << 1) | (entry.getValue() ? 1 : 0);
+			}
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			if (this == o) return true;
+			if (!(o instanceof PerturbationKey)) return false;
+			return Arrays.equals(clampedNodes, ((PerturbationKey) o).clampedNodes);
+		}
+
+		@Override
+		public int hashCode() {
+			return Arrays.hashCode(clampedNodes);
+		}
+	}
+
+	/**
+	 * A perturbed model that has to be simulated for an observation
+	 */
+	static final class Simulation {
+		final String name; // appended to the name of the simulated model
+		final PerturbationKey key;
+		final Perturbation[] perturbations;
+
+		private Simulation(String name, Perturbation... perturbations) {
+			this.name = name;
+			this.key = new PerturbationKey(perturbations);
+			this.perturbations = perturbations;
+		}
+	}
+
+	static final class Observation {
+		final int conditionNumber;
+		final TrainingDataObservation.Type type;
+		final String condition; // the first condition (for logging)
+		final float weight;
+		final Perturbation[] perturbations; // two for double drug perturbations
+		final Simulation[] simulations; // in the order they are used
+		final boolean globalOutputResponse;
+		final float globalOutput;
+		final int[] responseNodes; // only the ones found in the model
+		final String[] responseNodeNames;
+		final float[] responseValues;
+
+		private Observation(int conditionNumber, TrainingDataObservation observation,
+							Perturbation[] perturbations, NodeIndex nodeIndex) {
+			this.conditionNumber = conditionNumber;
+			this.type = observation.getType();
+			this.condition = observation.getCondition().get(0);
+			this.weight = observation.getWeight();
+			this.perturbations = perturbations;
+			this.simulations = getSimulations(conditionNumber, type, perturbations);
+			this.globalOutputResponse = observation.hasGlobalOutputResponse();
+			this.globalOutput = globalOutputResponse ? observation.getResponseValues()[0] : 0;
+
+			String[] nodeNames = observation.getResponseNodes();
+			int[] indexes = new int[nodeNames.length];
+			int[] positions = new int[nodeNames.length];
+			int foundNodes = 0;
+			if (!globalOutputResponse) {
+				for (int i = 0; i < nodeNames.length; i++) {
+					int index = nodeIndex.getIndex(nodeNames[i]);
+					if (index >= 0) {
+						indexes[foundNodes] = index;
+						positions[foundNodes++] = i;
+					}
+				}
+			}
+
+			this.responseNodes = Arrays.copyOf(indexes, foundNodes);
+			this.responseNodeNames = new String[foundNodes];
+			this.responseValues = new float[foundNodes];
+			for (int i = 0; i < foundNodes; i++) {
+				responseNodeNames[i] = nodeNames[positions[i]];
+				responseValues[i] = observation.getResponseValues()[positions[i]];
+			}
+		}
+	}
+
+	/**
+	 * A double drug perturbation needs three models: one perturbed with the first drug,
+	 * one with the second drug and one with both drugs. All the other observations need
+	 * only one model, with all of their perturbations.
+	 */
+	private static Simulation[] getSimulations(int conditionNumber, TrainingDataObservation.Type type,
+											   Perturbation[] perturbations) {
+		String name = "_condition_" + conditionNumber;
+
+		if (type == TrainingDataObservation.Type.DOUBLE_DRUG_HSA
+			|| type == TrainingDataObservation.Type.DOUBLE_DRUG_BLISS) {
+			return new Simulation[] {
+				new Simulation(name + "_drug_1", perturbations[0]),
+				new Simulation(name + "_drug_2", perturbations[1]),
+				new Simulation(name, perturbations)
+			};
+		}
+
+		return new Simulation[] { new Simulation(name, perturbations) };
+	}
+
+	private CompiledTrainingData(TrainingData trainingData, NodeIndex nodeIndex, Logger logger) throws Exception {
+		this.trainingData = trainingData;
+		this.nodeIndex = nodeIndex;
+		this.weightSum = trainingData.getWeightSum();
+
+		List<Observation> observations = new ArrayList<>();
+		List<TrainingDataObservation> trainingDataObservations = trainingData.getObservations();
+
+		for (int conditionNumber = 0; conditionNumber < trainingDataObservations.size(); conditionNumber++) {
+			Observation observation = compileObservation(conditionNumber,
+				trainingDataObservations.get(conditionNumber), nodeIndex, logger);
+			if (observation != null) {
+				observations.add(observation);
+			}
+		}
+
+		this.observations = Collections.unmodifiableList(observations);
+	}
+
+	/**
+	 * @return the training data compiled for the nodes of the given index (compiled
+	 * only the first time, or when the training data or the index changes)
+	 */
+	static CompiledTrainingData getInstance(TrainingData trainingData, NodeIndex nodeIndex,
+											Logger logger) throws Exception {
+		CompiledTrainingData compiled = compiledTrainingData;
+
+		if (compiled == null || compiled.trainingData != trainingData || compiled.nodeIndex != nodeIndex) {
+			compiled = new CompiledTrainingData(trainingData, nodeIndex, logger);
+			compiledTrainingData = compiled;
+		}
+
+		return compiled;
+	}
+
+	/**
+	 * @return the given observation compiled for the nodes of the given index, or null if it's
+	 * wrongly formatted (then the error is logged and the observation is skipped)
+	 */
+	static Observation compileObservation(int conditionNumber, TrainingDataObservation observation,
+										  NodeIndex nodeIndex, Logger logger) throws Exception {
+		String[] drugs = observation.getDrugs();
+		Perturbation[] perturbations;
+
+		switch (observation.getType()) {
+			case UNPERTURBED:
+				perturbations = new Perturbation[0];
+				break;
+			case NODE_PERTURBATION:
+				perturbations = new Perturbation[] { getNodePerturbation(observation, nodeIndex, logger) };
+				break;
+			case SINGLE_DRUG:
+				perturbations = new Perturbation[] { getDrugPerturbation(drugs[0], nodeIndex) };
+				break;
+			case DOUBLE_DRUG_HSA:
+			case DOUBLE_DRUG_BLISS:
+				if (!observation.hasGlobalOutputResponse()) {
+					logger.error("Wrong format on first response (expected `globaloutput` but got): `"
+						+ observation.getResponse().get(0).split(":")[0] + "` - "
+						+ "skipping this observation, continuing with the next");
+					return null;
+				}
+				perturbations = new Perturbation[] {
+					getDrugPerturbation(drugs[0], nodeIndex), getDrugPerturbation(drugs[1], nodeIndex)
+				};
+				break;
+			default:
+				logger.error("Wrong format on first condition: `" + observation.getCondition().get(0)
+					+ "` - skipping this observation, continuing with the next");
+				return null;
+		}
+
+		return new Observation(conditionNumber, observation, perturbations, nodeIndex);
+	}
+
+	private static Perturbation getNodePerturbation(TrainingDataObservation observation, NodeIndex nodeIndex,
+													Logger logger) throws Exception {
+		String[] nodes = observation.getPerturbedNodes();
+		String[] states = observation.getPerturbedNodeStates();
+		List<String> targets = new ArrayList<>();
+		List<Boolean> values = new ArrayList<>();
+
+		for (int i = 0; i < nodes.length; i++) {
+			if (states[i].equals("1") || states[i].equals("0")) {
+				targets.add(nodes[i]);
+				values.add(states[i].equals("1"));
+			} else {
+				logger.error("Training data with incorrectly formatted condition: "
+					+ observation.getCondition().get(i));
+			}
+		}
+
+		return new Perturbation(null, targets, values, nodeIndex);
+	}
+
+	private static Perturbation getDrugPerturbation(String drug, NodeIndex nodeIndex) throws Exception {
+		ArrayList<String> targets = DrugPanel.getInstance().getDrugTargets(drug);
+		boolean effect = DrugPanel.getInstance().getDrugEffect(drug);
+
+		return new Perturbation(drug, targets, Collections.nCopies(targets.size(), effect), nodeIndex);
+	}
+
+	/**
+	 * @return the observations to simulate, in the order of the training data (the wrongly
+	 * formatted ones are left out)
+	 */
+	List<Observation> getObservations() {
+		return observations;
+	}
+
+	/**
+	 * @return the sum of the weights of all the training data observations
+	 */
+	float getWeightSum() {
+		return weightSum;
+	}
+}
@@ -0,0 +1,53 @@
+package eu.druglogics.gitsbe.model;
+
+import java.util.AbstractList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+
+/**
+ * A copy-on-write view of the boolean equations of another model: the equations are
+ * read from the <i>base</i> list, except for the ones that were replaced with
+ * {@link #set(int, BooleanEquation)}, which are only stored in this overlay. So, creating
+ * a perturbed (condition) model costs as much as the number of perturbed nodes and not
+ * as much as the size of the network.
+ *
+ * The base equations are shared: they must not be modified in place (replace them with
+ * a modified copy instead) and the base list must not change while the overlay is used.
+ */
+class EquationOverlay extends AbstractList<BooleanEquation> implements RandomAccess {
+
+	private final List<BooleanEquation> base;
+	private final Map<Integer, BooleanEquation> overrides;
+
+	EquationOverlay(List<BooleanEquation> base) {
+		this.base = base;
+		this.overrides = new HashMap<>(4);
+	}
+
+	@Override
+	public BooleanEquation get(int index) {
+		BooleanEquation booleanEquation = overrides.get(index);
+		return (booleanEquation != null) ? booleanEquation : base.get(index);
+	}
+
+	@Override
+	public BooleanEquation set(int index, BooleanEquation booleanEquation) {
+		BooleanEquation previous = get(index);
+		overrides.put(index, booleanEquation);
+		return previous;
+	}
+
+	@Override
+	public int size() {
+		return base.size();
+	}
+
+	/**
+	 * @return the number of equations that were replaced in this overlay
+	 */
+	int getNumberOfOverrides() {
+		return overrides.size();
+	}
+}
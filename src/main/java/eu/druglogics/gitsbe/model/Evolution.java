@@ -3,11 +3,25 @@ package eu.druglogics.gitsbe.model;
 import eu.druglogics.gitsbe.input.Config;
 import eu.druglogics.gitsbe.output.Summary;
 import eu.druglogics.gitsbe.util.Logger;
+import eu.druglogics.gitsbe.util.RandomManager;
 
 import java.io.IOException;
 import java.util.ArrayList;
-
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+import static eu.druglogics.gitsbe.util.RandomManager.getRandom;
 import static eu.druglogics.gitsbe.util.RandomManager.randInt;
+import static eu.druglogics.gitsbe.util.Util.getTopIndexes;
 import static java.lang.Math.min;
 
 public class Evolution {
@@ -21,7 +35,31 @@ public class Evolution {
 	private Summary summary;
 	private String directoryOutput;
 	private Logger logger;
-	private boolean initialPhase;
+	private volatile boolean initialPhase;
+
+	// Fitnesses of all models and skipped fitness evaluations, per generation
+	private ArrayList<float[]> fitnesses;
+	private ArrayList<Integer> skippedEvaluations;
+
+	// Fitness of every genome (model equations) scored in this simulation
+	private HashMap<ModelFingerprint, Float> fitnessTable;
+
+	// Pool for the parallel fitness evaluation of each generation's models (null: serial)
+	private ForkJoinPool evaluationPool;
+
+	// Pool for the parallel simulation of the training data conditions of each model (null: serial)
+	private ForkJoinPool conditionPool;
+
+	// Guards the best models, the fitness table and the fitness history in the
+	// steady-state evolution (see evolveSteadyState())
+	private final ReentrantLock eliteLock = new ReentrantLock();
+
+	// Checkpoint of the simulation (null: no checkpoints)
+	private Checkpoint checkpoint;
+
+	// Island model: the ring of the parallel simulations and the index of this one (null: no migration)
+	private MigrationRing migrationRing;
+	private int island;
 
 	public Evolution(Summary summary, BooleanModel generalBooleanModel, String baseModelName,
 					 String modelDirectory, String directoryOutput, Logger logger) {
@@ -54,10 +92,24 @@ public class Evolution {
 			bestModels.add(new MutatedBooleanModel(generalBooleanModel, logger));
 		}
 
-		ArrayList<float[]> fitnesses = new ArrayList<>();
+		fitnesses = new ArrayList<>();
+		skippedEvaluations = new ArrayList<>();
+		fitnessTable = new HashMap<>();
+
+		int firstGeneration = 0;
+		boolean completed = false;
+		if (checkpoint != null && checkpoint.isLoaded()) {
+			firstGeneration = resumeFromCheckpoint();
+			completed = checkpoint.isCompleted();
+		}
+
+		if (!completed && config.useSteadyState()) {
+			evolveSteadyState(firstGeneration);
+			completed = true;
+		}
 
 		// Evolve models through mutations, crossover and selection
-		for (int generation = 0; generation < config.getGenerations(); generation++) {
+		for (int generation = firstGeneration; !completed && generation < config.getGenerations(); generation++) {
 
 			logger.outputHeader(1, "Generation " + generation);
 
@@ -71,15 +123,12 @@ public class Evolution {
 			mutateModels(generationModels);
 
 			// Calculate stable states and fitness
-			for (int i = 0; i < config.getPopulation(); i++) {
-				logger.outputStringMessage(2, "\nModel " + generationModels.get(i).getModelName());
-
-				try {
-					generationModels.get(i).calculateFitness(directoryOutput);
-				} catch (Exception e) {
-					e.printStackTrace();
-				}
-			}
+			int skipped = (evaluationPool == null)
+				? calculateFitness(generationModels)
+				: calculateFitnessInParallel(generationModels);
+			skippedEvaluations.add(skipped);
+			logger.outputStringMessage(2, "Skipped " + skipped + " fitness evaluations of already "
+				+ "evaluated genomes in generation " + generation);
 
 			// Append summary (fitness values for all models in current generation)
 			addSummaryFitnessValues(generationModels, fitnesses);
@@ -98,12 +147,511 @@ public class Evolution {
 				break;
 			}
 
+			int migrationInterval = config.getMigrationInterval();
+			if (migrationRing != null && migrationInterval > 0 && (generation + 1) % migrationInterval == 0) {
+				migrate(generation);
+			}
+
+			// the last generations are checkpointed when the simulation is completed
+			int checkpointInterval = config.getCheckpointInterval();
+			if (checkpointInterval > 0 && (generation + 1) % checkpointInterval == 0) {
+				saveCheckpoint(false);
+			}
 		}
 
 		// append to summary the fitnesses of the models for all generations of the
 		// current simulation/run
 		summary.addSimulationFitnesses(fitnesses, run);
+		summary.addSimulationSkippedEvaluations(skippedEvaluations, run);
+
+	}
+
+	/**
+	 * Steady-state evolution: instead of breeding whole generations, every worker breeds one
+	 * model at a time from two random best models (the elite), mutates it, calculates its
+	 * fitness and inserts it in the best models if it's fitter than the worst of them. So, no
+	 * worker waits for the slowest model of a generation. As many models as in the generational
+	 * evolution are evaluated (<i>generations</i> x <i>population</i>) and every <i>population</i>
+	 * models are reported as one generation in the summary.
+	 * <br>
+	 * The workers run on the {@link #evaluationPool}, each with its own random generator seeded
+	 * by the simulation's one (without a pool, one worker runs on the current thread). The best
+	 * models, the {@link #fitnessTable} and the fitness history are only accessed while holding
+	 * the {@link #eliteLock}. The order of the evaluations depends on the scheduling of the
+	 * workers, so parallel runs are not reproducible.
+	 *
+	 * @param firstGeneration the generation to continue from (when resumed from a checkpoint)
+	 */
+	private void evolveSteadyState(int firstGeneration) {
+		Config config = Config.getInstance();
+		int population = config.getPopulation();
+		int lastModel = config.getGenerations() * population;
+		AtomicInteger nextModel = new AtomicInteger(firstGeneration * population);
+		AtomicBoolean targetReached = new AtomicBoolean(false);
+
+		logger.outputHeader(1, "Steady-state evolution of " + (lastModel - nextModel.get()) + " models");
+
+		if (evaluationPool == null) {
+			breedSteadyState(nextModel, lastModel, targetReached);
+		} else {
+			List<Callable<Void>> workers = new ArrayList<>();
+			for (int i = 0; i < evaluationPool.getParallelism(); i++) {
+				Random random = new Random(getRandom().nextLong());
+				workers.add(() -> {
+					RandomManager.withRandom(random, () -> breedSteadyState(nextModel, lastModel, targetReached));
+					return null;
+				});
+			}
+
+			for (Future<Void> worker : evaluationPool.invokeAll(workers)) {
+				try {
+					worker.get();
+				} catch (InterruptedException | ExecutionException e) {
+					e.printStackTrace();
+				}
+			}
+		}
+
+		// the last generation is incomplete if the target fitness was reached
+		int evaluatedModels = min(nextModel.get(), lastModel);
+		if (evaluatedModels % population != 0 && !fitnesses.isEmpty()) {
+			int lastGeneration = fitnesses.size() - 1;
+			fitnesses.set(lastGeneration, Arrays.copyOf(fitnesses.get(lastGeneration), evaluatedModels % population));
+		}
+
+		logger.outputStringMessage(2, "\nBest models after " + evaluatedModels + " models: ");
+		for (MutatedBooleanModel bestModel : bestModels) {
+			logger.outputStringMessage(2,
+					() -> "\t" + bestModel.getModelName() + "\tFitness: " + bestModel.getFitness());
+		}
+	}
+
+	/**
+	 * A steady-state evolution worker: breeds and evaluates the next model until all models
+	 * have been evaluated or the target fitness is reached
+	 */
+	private void breedSteadyState(AtomicInteger nextModel, int lastModel, AtomicBoolean targetReached) {
+		Config config = Config.getInstance();
+		int population = config.getPopulation();
+
+		while (!targetReached.get()) {
+			int modelNumber = nextModel.getAndIncrement();
+			if (modelNumber >= lastModel) break;
+
+			// log each model's messages together
+			Logger modelLogger = (evaluationPool == null) ? logger : logger.newBufferedLogger();
+
+			MutatedBooleanModel parent1;
+			MutatedBooleanModel parent2;
+			eliteLock.lock();
+			try {
+				parent1 = bestModels.get(randInt(0, config.getSelection() - 1));
+				parent2 = bestModels.get(randInt(0, config.getSelection() - 1));
+			} finally {
+				eliteLock.unlock();
+			}
+
+			int generation = modelNumber / population;
+			String modelName = baseModelName + "_G" + generation + "_M" + (modelNumber % population);
+			MutatedBooleanModel model = new MutatedBooleanModel(parent1, parent2, modelName, modelLogger);
+			modelLogger.outputStringMessage(2, () -> "\nModel " + modelName + " from "
+					+ parent1.getModelName() + " and " + parent2.getModelName());
+			mutateModel(model, modelLogger);
+
+			ModelFingerprint fingerprint = model.getFingerprint();
+			Float knownFitness;
+			eliteLock.lock();
+			try {
+				knownFitness = fitnessTable.get(fingerprint);
+			} finally {
+				eliteLock.unlock();
+			}
+
+			boolean evaluated = false;
+			if (knownFitness != null) {
+				model.setFitness(knownFitness);
+				modelLogger.outputStringMessage(2, () -> "Genome already evaluated in this simulation, "
+					+ "fitness: " + knownFitness);
+			} else {
+				try {
+					model.calculateFitness(directoryOutput, conditionPool);
+					evaluated = true;
+				} catch (Exception e) {
+					e.printStackTrace();
+				}
+			}
+
+			eliteLock.lock();
+			try {
+				if (evaluated) {
+					fitnessTable.put(fingerprint, model.getFitness());
+				}
+				addSteadyStateFitness(generation, modelNumber % population, model.getFitness(),
+					knownFitness != null);
+				insertIntoElite(model, modelLogger, targetReached);
+			} finally {
+				eliteLock.unlock();
+			}
+
+			if (modelLogger != logger) {
+				modelLogger.flushBufferTo(logger);
+			}
+		}
+	}
+
+	/**
+	 * Records the fitness of a model in the fitness history (must hold the {@link #eliteLock})
+	 */
+	private void addSteadyStateFitness(int generation, int index, float fitness, boolean skipped) {
+		while (fitnesses.size() <= generation) {
+			fitnesses.add(new float[Config.getInstance().getPopulation()]);
+			skippedEvaluations.add(0);
+		}
+
+		fitnesses.get(generation)[index] = fitness;
+		if (skipped) {
+			skippedEvaluations.set(generation, skippedEvaluations.get(generation) + 1);
+		}
+	}
+
+	/**
+	 * Replaces the worst of the best models with the given model, if it's fitter, and updates
+	 * the initial phase and the target fitness flag (must hold the {@link #eliteLock})
+	 */
+	private void insertIntoElite(MutatedBooleanModel model, Logger modelLogger, AtomicBoolean targetReached) {
+		int worst = bestModels.size() - 1;
+
+		if (model.getFitness() > bestModels.get(worst).getFitness()) {
+			modelLogger.outputStringMessage(2, "Model " + model.getModelName() + " (fitness: "
+				+ model.getFitness() + ") replaces " + bestModels.get(worst).getModelName()
+				+ " in the best models");
+
+			model.setLogger(logger);
+			bestModels.set(worst, model);
+
+			// keep the best models in descending fitness order (stable for equal fitness)
+			bestModels.sort((model1, model2) -> Float.compare(model2.getFitness(), model1.getFitness()));
+		}
+
+		// the smallest fitness score among the best models (as in selection())
+		float currentMaxFitness = bestModels.get(worst).getFitness();
+
+		if (initialPhase && currentMaxFitness > 0) {
+			initialPhase = false;
+			modelLogger.outputStringMessage(3, "Setting initial phase to: " + initialPhase);
+		}
+
+		if (currentMaxFitness > Config.getInstance().getTargetFitness() && !targetReached.getAndSet(true)) {
+			modelLogger.outputStringMessage(2, "Breaking evolution after model " + model.getModelName()
+				+ ", since the target fitness value is reached: " + Config.getInstance().getTargetFitness());
+		}
+	}
+
+	/**
+	 * Restores the state of the simulation from the loaded {@link #checkpoint}
+	 *
+	 * @return the generation to continue the evolution from
+	 */
+	private int resumeFromCheckpoint() {
+		initialPhase = checkpoint.isInitialPhase();
+		bestModels = checkpoint.getBestModels();
+		for (MutatedBooleanModel bestModel : bestModels) {
+			bestModel.setLogger(logger);
+		}
+		fitnesses = checkpoint.getFitnesses();
+		skippedEvaluations = checkpoint.getSkippedEvaluations();
+
+		if (checkpoint.isCompleted()) {
+			logger.outputStringMessage(1, "Simulation already completed, the best models are "
+				+ "restored from the checkpoint");
+		} else {
+			logger.outputStringMessage(1, "Resuming the evolution from the checkpoint after "
+				+ checkpoint.getGenerations() + " generations");
+		}
+		logger.outputStringMessage(3, "Setting initial phase to: " + initialPhase);
+
+		return checkpoint.getGenerations();
+	}
+
+	/**
+	 * Saves the state of the simulation to its checkpoint (if one is set). It must be
+	 * called with the random number generator of the simulation (see
+	 * {@link eu.druglogics.gitsbe.util.RandomManager#withRandom(java.util.Random, Runnable)}).
+	 *
+	 * @param completed true if the simulation is completed (it won't be simulated again
+	 *                  when the run is resumed)
+	 */
+	public void saveCheckpoint(boolean completed) {
+		if (checkpoint == null || Config.getInstance().getCheckpointInterval() == 0) return;
+
+		try {
+			checkpoint.save(fitnesses.size(), completed, initialPhase, getRandom(), bestModels,
+				fitnesses, skippedEvaluations);
+			logger.outputStringMessage(2, "Saved checkpoint after " + fitnesses.size() + " generations"
+				+ (completed ? " (simulation completed)" : ""));
+		} catch (IOException e) {
+			e.printStackTrace();
+			logger.outputStringMessage(1, "Problem saving the checkpoint after "
+				+ fitnesses.size() + " generations");
+		}
+	}
+
+	/**
+	 * Calculates the fitness of the generation's models one after the other. Models
+	 * with an already scored genome inherit its fitness.
+	 *
+	 * @return the number of skipped fitness evaluations
+	 */
+	private int calculateFitness(ArrayList<MutatedBooleanModel> generationModels) {
+		int skipped = 0;
+
+		for (MutatedBooleanModel model : generationModels) {
+			logger.outputStringMessage(2, () -> "\nModel " + model.getModelName());
+
+			ModelFingerprint fingerprint = model.getFingerprint();
+			if (inheritFitness(model, fingerprint)) {
+				skipped++;
+				continue;
+			}
+
+			try {
+				model.calculateFitness(directoryOutput, conditionPool);
+				fitnessTable.put(fingerprint, model.getFitness());
+			} catch (Exception e) {
+				e.printStackTrace();
+			}
+		}
+
+		return skipped;
+	}
+
+	/**
+	 * Calculates the fitness of the generation's models using the {@link #evaluationPool}.
+	 * Each (not already scored) genome is evaluated once by a worker that logs to its own
+	 * in-memory logger. The results and the buffered log messages are then collected in
+	 * the order of the models, so the outcome is the same as in {@link #calculateFitness(ArrayList)}.
+	 * No random numbers are drawn during the evaluation, so the workers don't need
+	 * a {@link eu.druglogics.gitsbe.util.RandomManager RandomManager} random generator.
+	 *
+	 * @return the number of skipped fitness evaluations
+	 */
+	private int calculateFitnessInParallel(ArrayList<MutatedBooleanModel> generationModels) {
+		int population = generationModels.size();
+		ModelFingerprint[] fingerprints = new ModelFingerprint[population];
+		boolean[] evaluated = new boolean[population];
+		HashMap<ModelFingerprint, Integer> firstIndexes = new HashMap<>();
+		List<Callable<FitnessEvaluation>> tasks = new ArrayList<>();
+
+		for (int i = 0; i < population; i++) {
+			fingerprints[i] = generationModels.get(i).getFingerprint();
+			if (!fitnessTable.containsKey(fingerprints[i]) && !firstIndexes.containsKey(fingerprints[i])) {
+				firstIndexes.put(fingerprints[i], i);
+				evaluated[i] = true;
+
+				MutatedBooleanModel model = generationModels.get(i);
+				tasks.add(() -> evaluate(model));
+			}
+		}
+
+		List<Future<FitnessEvaluation>> results = evaluationPool.invokeAll(tasks);
+
+		int skipped = 0;
+		int resultIndex = 0;
+		for (int i = 0; i < population; i++) {
+			MutatedBooleanModel model = generationModels.get(i);
+			logger.outputStringMessage(2, () -> "\nModel " + model.getModelName());
+
+			if (evaluated[i]) {
+				FitnessEvaluation evaluation;
+				try {
+					evaluation = results.get(resultIndex++).get();
+				} catch (Exception e) {
+					e.printStackTrace();
+					continue;
+				}
+
+				evaluation.logger.flushBufferTo(logger);
+				if (evaluation.exception != null) {
+					evaluation.exception.printStackTrace();
+				} else {
+					fitnessTable.put(fingerprints[i], model.getFitness());
+				}
+			} else if (inheritFitness(model, fingerprints[i])) {
+				skipped++;
+			}
+		}
+
+		return skipped;
+	}
+
+	private FitnessEvaluation evaluate(MutatedBooleanModel model) {
+		FitnessEvaluation evaluation = new FitnessEvaluation(logger.newBufferedLogger());
+
+		model.setLogger(evaluation.logger);
+		try {
+			model.calculateFitness(directoryOutput, conditionPool);
+		} catch (Exception e) {
+			evaluation.exception = e;
+		} finally {
+			model.setLogger(logger);
+		}
 
+		return evaluation;
+	}
+
+	/**
+	 * If the genome of the model has already been scored in this simulation, the model
+	 * inherits its fitness
+	 *
+	 * @return true if the fitness of the model was set
+	 */
+	private boolean inheritFitness(MutatedBooleanModel model, ModelFingerprint fingerprint) {
+		Float fitness = fitnessTable.get(fingerprint);
+		if (fitness == null) return false;
+
+		model.setFitness(fitness);
+		logger.outputStringMessage(2, () -> "Genome already evaluated in this simulation, "
+			+ "fitness: " + fitness);
+		return true;
+	}
+
+	private static class FitnessEvaluation {
+		private final Logger logger;
+		private Exception exception;
+
+		FitnessEvaluation(Logger logger) {
+			this.logger = logger;
+		}
+	}
+
+	/**
+	 * @return the fitnesses of all the models of the simulation, per generation
+	 */
+	ArrayList<float[]> getFitnesses() {
+		return fitnesses;
+	}
+
+	/**
+	 * @return the number of skipped fitness evaluations (of already scored genomes), per generation
+	 */
+	ArrayList<Integer> getSkippedEvaluations() {
+		return skippedEvaluations;
+	}
+
+	/**
+	 * @return true if the best models don't all have a positive fitness yet
+	 */
+	boolean isInitialPhase() {
+		return initialPhase;
+	}
+
+	/**
+	 * @return the fitness of the model's genome if it has been scored in this simulation (else null)
+	 */
+	Float getKnownFitness(MutatedBooleanModel model) {
+		return fitnessTable.get(model.getFingerprint());
+	}
+
+	/**
+	 * Use this function to evaluate the models of each generation in parallel, using
+	 * the given pool (by default, the models are evaluated serially)
+	 *
+	 * @param evaluationPool
+	 */
+	public void setEvaluationPool(ForkJoinPool evaluationPool) {
+		this.evaluationPool = evaluationPool;
+	}
+
+	/**
+	 * Use this function to simulate the training data conditions of each model in parallel,
+	 * using the given pool (by default, the conditions are simulated serially)
+	 *
+	 * @param conditionPool
+	 */
+	public void setConditionPool(ForkJoinPool conditionPool) {
+		this.conditionPool = conditionPool;
+	}
+
+	/**
+	 * Use this function to save the state of the simulation every <i>checkpoint_interval</i>
+	 * generations. If the given checkpoint is {@link Checkpoint#isLoaded() loaded}, the
+	 * simulation is resumed from it.
+	 *
+	 * @param checkpoint
+	 */
+	public void setCheckpoint(Checkpoint checkpoint) {
+		this.checkpoint = checkpoint;
+	}
+
+	/**
+	 * Use this function to exchange best models with the other simulations running in
+	 * parallel, every <i>migration_interval</i> generations (island model)
+	 *
+	 * @param migrationRing the ring shared by all simulations
+	 * @param island the index of this simulation in the ring
+	 */
+	public void setMigration(MigrationRing migrationRing, int island) {
+		this.migrationRing = migrationRing;
+		this.island = island;
+	}
+
+	/**
+	 * Sends copies of the <i>migration_size</i> best models to the next simulation of the
+	 * {@link #migrationRing} and collects the ones sent by the previous simulation. Every
+	 * collected model that is fitter than the worst of the {@link #bestModels} replaces it,
+	 * so it takes part in the crossovers of the next generation. Its genome is added to the
+	 * {@link #fitnessTable} and, as in {@link #selection(ArrayList, int)}, the initial phase
+	 * is over when all the best models have a positive fitness.
+	 *
+	 * @param generation
+	 */
+	private void migrate(int generation) {
+		int migrationSize = min(Config.getInstance().getMigrationSize(), bestModels.size());
+
+		List<MutatedBooleanModel> migrants = new ArrayList<>(migrationSize);
+		for (int i = 0; i < migrationSize; i++) {
+			MutatedBooleanModel migrant = new MutatedBooleanModel(bestModels.get(i), logger);
+			migrant.setFitness(bestModels.get(i).getFitness());
+			migrants.add(migrant);
+		}
+		migrationRing.send(island, migrants);
+
+		List<MutatedBooleanModel> immigrants = migrationRing.receive(island);
+		if (immigrants == null) {
+			logger.outputStringMessage(2, "No models migrated to this simulation in generation " + generation);
+			return;
+		}
+
+		int accepted = 0;
+		for (int i = 0; i < immigrants.size(); i++) {
+			MutatedBooleanModel immigrant = immigrants.get(i);
+			int worst = bestModels.size() - 1;
+
+			if (immigrant.getFitness() > bestModels.get(worst).getFitness()) {
+				// rename the model, so that it's saved only once (by this simulation)
+				String modelName = baseModelName + "_G" + generation + "_I" + i;
+				logger.outputStringMessage(2, "Migrated model " + immigrant.getModelName()
+					+ " (renamed to " + modelName + ", fitness: " + immigrant.getFitness()
+					+ ") replaces " + bestModels.get(worst).getModelName());
+
+				immigrant.setModelName(modelName);
+				immigrant.setLogger(logger);
+				bestModels.set(worst, immigrant);
+				fitnessTable.putIfAbsent(immigrant.getFingerprint(), immigrant.getFitness());
+
+				// keep the best models in descending fitness order (stable for equal fitness)
+				bestModels.sort((model1, model2) -> Float.compare(model2.getFitness(), model1.getFitness()));
+				accepted++;
+			}
+		}
+
+		logger.outputStringMessage(2, "Accepted " + accepted + " of " + immigrants.size()
+			+ " models migrated to this simulation in generation " + generation);
+
+		if (initialPhase && accepted > 0 && bestModels.get(bestModels.size() - 1).getFitness() > 0) {
+			initialPhase = false;
+			logger.outputStringMessage(3, "Setting initial phase to: " + initialPhase);
+		}
 	}
 
 	/**
@@ -115,23 +663,22 @@ public class Evolution {
 	 * 
 	 */
 	private float selection(ArrayList<MutatedBooleanModel> generationModels, int generation) {
-		float currentMaxFitness = 0;
+		float[] generationFitness = new float[generationModels.size()];
+		for (int i = 0; i < generationFitness.length; i++) {
+			generationFitness[i] = generationModels.get(i).getFitness();
+		}
 
 		// Choose the new bestModels based on the highest fitness score
-		for (int i = 0; i < Config.getInstance().getSelection(); i++) {
-			int indexBest = 0;
-			currentMaxFitness = 0; // reset currentMaxFitness
-
-			for (int k = 0; k < generationModels.size(); k++) {
-				if (generationModels.get(k).getFitness() > currentMaxFitness) {
-					currentMaxFitness = generationModels.get(k).getFitness();
-					indexBest = k;
-				}
-			}
+		// (among models with equal fitness, the earlier one in the generation is chosen first)
+		int[] bestIndexes = getTopIndexes(generationFitness, Config.getInstance().getSelection());
+		for (int i = 0; i < bestIndexes.length; i++) {
+			bestModels.set(i, generationModels.get(bestIndexes[i]));
+		}
 
-			// Add the highest fitness model and remove it from the generation's model list
-			bestModels.set(i, generationModels.get(indexBest));
-			generationModels.remove(indexBest);
+		// the smallest fitness score among the best models (0 if not positive)
+		float currentMaxFitness = 0;
+		if (bestIndexes.length > 0 && generationFitness[bestIndexes[bestIndexes.length - 1]] > 0) {
+			currentMaxFitness = generationFitness[bestIndexes[bestIndexes.length - 1]];
 		}
 
 		// If all best models have a stableState with fitness > 0 then
@@ -145,7 +692,7 @@ public class Evolution {
 		logger.outputStringMessage(2, "\nBest models in generation " + generation + ": ");
 		for (MutatedBooleanModel bestModel : bestModels) {
 			logger.outputStringMessage(2,
-					"\t" + bestModel.getModelName() + "\tFitness: " + bestModel.getFitness());
+					() -> "\t" + bestModel.getModelName() + "\tFitness: " + bestModel.getFitness());
 		}
 		logger.outputStringMessage(2, "\n");
 
@@ -178,66 +725,69 @@ public class Evolution {
 					bestModels.get(parent1), bestModels.get(parent2), modelName, logger)
 			);
 
-			logger.outputStringMessage(3, "Define new model " + baseModelName + "_G"
-					+ generation + "_M" + i + " from " + bestModels.get(parent1).getModelName()
-					+ " and " + bestModels.get(parent2).getModelName());
+			logger.outputStringMessage(3, () -> "Define new model " + modelName + " from "
+					+ bestModels.get(parent1).getModelName() + " and " + bestModels.get(parent2).getModelName());
 		}
 	}
 
 	private void mutateModels(ArrayList<MutatedBooleanModel> generationModels) {
+		for (MutatedBooleanModel model : generationModels) {
+			mutateModel(model, logger);
+		}
+	}
+
+	private void mutateModel(MutatedBooleanModel model, Logger logger) {
 		Config config = Config.getInstance();
 
-		for (int i = 0; i < config.getPopulation(); i++) {
-			int mutationsFactor;
-			int shuffleFactor;
-			int topologyMutationsFactor;
-
-			if (initialPhase) {
-				mutationsFactor = config.getBootstrapMutationsFactor();
-				shuffleFactor = config.getBootstrapShuffleFactor();
-				topologyMutationsFactor = config.getBootstrapTopologyMutationsFactor();
-			} else {
-				mutationsFactor = config.getMutationsFactor();
-				shuffleFactor = config.getShuffleFactor();
-				topologyMutationsFactor = config.getTopologyMutationsFactor();
-			}
+		int mutationsFactor;
+		int shuffleFactor;
+		int topologyMutationsFactor;
 
-			if ((config.getBalanceMutations() * mutationsFactor) > 0) {
-				logger.outputStringMessage(3, "Introducing "
-						+ (config.getBalanceMutations() * mutationsFactor)
-						+ " balance mutations to model " + generationModels.get(i).getModelName());
-				generationModels.get(i).introduceBalanceMutation(
-						mutationsFactor * config.getBalanceMutations()
-				);
-			}
+		if (initialPhase) {
+			mutationsFactor = config.getBootstrapMutationsFactor();
+			shuffleFactor = config.getBootstrapShuffleFactor();
+			topologyMutationsFactor = config.getBootstrapTopologyMutationsFactor();
+		} else {
+			mutationsFactor = config.getMutationsFactor();
+			shuffleFactor = config.getShuffleFactor();
+			topologyMutationsFactor = config.getTopologyMutationsFactor();
+		}
 
-			if ((config.getRandomMutations() * mutationsFactor) > 0) {
-				logger.outputStringMessage(3, "Introducing "
-						+ (config.getRandomMutations() * mutationsFactor)
-						+ " random mutations to model " + generationModels.get(i).getModelName());
-				generationModels.get(i).introduceRandomMutation(
-						mutationsFactor * config.getRandomMutations()
-				);
-			}
+		if ((config.getBalanceMutations() * mutationsFactor) > 0) {
+			logger.outputStringMessage(3, () -> "Introducing "
+					+ (config.getBalanceMutations() * mutationsFactor)
+					+ " balance mutations to model " + model.getModelName());
+			model.introduceBalanceMutation(
+					mutationsFactor * config.getBalanceMutations()
+			);
+		}
 
-			if ((config.getShuffleMutations() * shuffleFactor) > 0) {
-				logger.outputStringMessage(3, "Introducing "
-						+ (config.getShuffleMutations() * shuffleFactor)
-						+ " regulator priority shuffle mutations to model "
-						+ generationModels.get(i).getModelName());
-				generationModels.get(i).shuffleRandomRegulatorPriorities(
-						shuffleFactor * config.getShuffleMutations()
-				);
-			}
+		if ((config.getRandomMutations() * mutationsFactor) > 0) {
+			logger.outputStringMessage(3, () -> "Introducing "
+					+ (config.getRandomMutations() * mutationsFactor)
+					+ " random mutations to model " + model.getModelName());
+			model.introduceRandomMutation(
+					mutationsFactor * config.getRandomMutations()
+			);
+		}
 
-			if ((config.getTopologyMutations() * topologyMutationsFactor) > 0) {
-				logger.outputStringMessage(3, "Introducing "
-						+ (config.getTopologyMutations() * topologyMutationsFactor)
-						+ " topology mutations to model " + generationModels.get(i).getModelName());
-				generationModels.get(i).topologyMutations(
-						topologyMutationsFactor * config.getTopologyMutations()
-				);
-			}
+		if ((config.getShuffleMutations() * shuffleFactor) > 0) {
+			logger.outputStringMessage(3, () -> "Introducing "
+					+ (config.getShuffleMutations() * shuffleFactor)
+					+ " regulator priority shuffle mutations to model "
+					+ model.getModelName());
+			model.shuffleRandomRegulatorPriorities(
+					shuffleFactor * config.getShuffleMutations()
+			);
+		}
+
+		if ((config.getTopologyMutations() * topologyMutationsFactor) > 0) {
+			logger.outputStringMessage(3, () -> "Introducing "
+					+ (config.getTopologyMutations() * topologyMutationsFactor)
+					+ " topology mutations to model " + model.getModelName());
+			model.topologyMutations(
+					topologyMutationsFactor * config.getTopologyMutations()
+			);
 		}
 	}
 
@@ -289,8 +839,11 @@ public class Evolution {
 				bestModel.setFilename(bestModel.getModelName() + ".gitsbe");
 				logger.outputStringMessage(1, "\tFile: " + modelDirectory + "/" + bestModel.getFilename());
 
-				// calculate stable states for saving as part of .gitsbe file
-				bestModel.calculateAttractors(directoryOutput);
+				// calculate stable states for saving as part of .gitsbe file (unless they
+				// were kept from the fitness calculation of the model)
+				if (!bestModel.hasUnperturbedAttractors()) {
+					bestModel.calculateAttractors(directoryOutput);
+				}
 				bestModel.exportModelToGitsbeFile(modelDirectory);
 
 				if (exportToGINML) {
@@ -0,0 +1,260 @@
+package eu.druglogics.gitsbe.model;
+
+import eu.druglogics.gitsbe.util.Logger;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A pool of long-lived python processes running the <code>mpbn-worker.py</code> script, which
+ * calculate the terminal trapspaces of boolean models using the <b>mpbn</b> library. This way,
+ * the python interpreter is started and <b>mpbn</b> is imported only once per worker and not
+ * once per model.
+ *
+ * A worker accepts one model per line on its standard input (the BoolNet equations separated
+ * by tabs) and answers with one trapspace per line, followed by an <code>END</code> line.
+ * Before a request, the worker is health-checked (a <code>PING</code> must be answered with
+ * a <code>PONG</code>) and a dead or unresponsive worker is restarted. A request that fails
+ * because the worker crashed is retried once on the restarted worker. Every answer is waited
+ * for at most <i>timeout</i> seconds: a worker that doesn't answer in time is killed and
+ * restarted, and the request fails.
+ *
+ * The pool can be used concurrently: each request takes an idle worker (waiting if none is
+ * available) and gives it back when done.
+ */
+public class MPBNWorkerPool {
+
+	static final String WORKER_SCRIPT = "mpbn-worker.py";
+	static final String PING = "PING";
+	static final String PONG = "PONG";
+	static final String END = "END";
+	static final String ERROR = "ERROR";
+	private static final String EXITED = new String(""); // compared by reference
+
+	private final String scriptFile;
+	private final File directory;
+	private final Logger logger;
+	private final int timeout;
+	private final List<Worker> workers;
+	private final BlockingQueue<Worker> idleWorkers;
+	private final AtomicInteger restarts;
+
+	/**
+	 * Starts <i>size</i> workers running the given python script
+	 *
+	 * @param size the number of worker processes
+	 * @param scriptFile the absolute path of the worker script (see {@link #extractWorkerScript(String)})
+	 * @param directory the working directory of the workers (their error output is
+	 *                  appended to a <i>mpbn-worker.err</i> file there)
+	 * @param timeout the time limit (in seconds) for every answer of a worker
+	 * @param logger
+	 * @throws IOException if a worker process can't be started
+	 */
+	public MPBNWorkerPool(int size, String scriptFile, String directory, int timeout,
+						  Logger logger) throws IOException {
+		this.scriptFile = scriptFile;
+		this.directory = new File(directory);
+		this.timeout = timeout;
+		this.logger = logger;
+		this.workers = new ArrayList<>();
+		this.idleWorkers = new ArrayBlockingQueue<>(size);
+		this.restarts = new AtomicInteger();
+
+		for (int i = 0; i < size; i++) {
+			Worker worker = new Worker();
+			worker.start();
+			workers.add(worker);
+			idleWorkers.add(worker);
+		}
+	}
+
+	/**
+	 * Copies the worker script that is shipped with Gitsbe to the given directory
+	 *
+	 * @return the absolute path of the copied script
+	 * @throws IOException
+	 */
+	public static String extractWorkerScript(String directory) throws IOException {
+		File scriptFile = new File(directory, WORKER_SCRIPT);
+
+		try (InputStream script = MPBNWorkerPool.class.getClassLoader().getResourceAsStream(WORKER_SCRIPT)) {
+			if (script == null)
+				throw new FileNotFoundException("Resource " + WORKER_SCRIPT + " not found");
+			Files.copy(script, scriptFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+		}
+
+		return scriptFile.getAbsolutePath();
+	}
+
+	/**
+	 * Calculates the terminal trapspaces of a model using one of the workers
+	 *
+	 * @param equations the model equations in BoolNet format
+	 * @return the trapspaces, as returned by mpbn ('*' for the free nodes), with the nodes
+	 * in the order of the equations
+	 * @throws TimeoutException if the worker didn't answer in time (it's then restarted)
+	 * @throws Exception if mpbn couldn't process the model or the worker failed twice
+	 */
+	public List<String> calculateTrapSpaces(List<String> equations) throws Exception {
+		String request = String.join("\t", equations);
+
+		Worker worker = idleWorkers.take();
+		try {
+			if (!worker.isHealthy()) restart(worker);
+
+			try {
+				return worker.request(request);
+			} catch (IOException e) {
+				logger.outputStringMessage(2, "mpbn worker failed (" + e.getMessage()
+					+ "), retrying with a new worker");
+				restart(worker);
+				return worker.request(request);
+			}
+		} catch (TimeoutException e) {
+			logger.outputStringMessage(2, "mpbn worker is not responding (" + e.getMessage()
+				+ "), restarting it");
+			restart(worker);
+			throw e;
+		} finally {
+			idleWorkers.add(worker);
+		}
+	}
+
+	private void restart(Worker worker) throws IOException {
+		restarts.incrementAndGet();
+		worker.stop(true);
+		worker.start();
+	}
+
+	public int getSize() {
+		return workers.size();
+	}
+
+	// Number of times a crashed or unresponsive worker was restarted
+	public int getRestarts() {
+		return restarts.get();
+	}
+
+	/**
+	 * Stops all the worker processes
+	 */
+	public void shutdown() {
+		for (Worker worker : workers) {
+			worker.stop(false);
+		}
+	}
+
+	private class Worker {
+		private Process process;
+		private BufferedWriter input;
+		private BlockingQueue<String> output; // the lines written by the process (then EXITED)
+
+		void start() throws IOException {
+			ProcessBuilder pb = new ProcessBuilder("python", scriptFile);
+			pb.directory(directory);
+			pb.redirectError(ProcessBuilder.Redirect.appendTo(new File(directory, "mpbn-worker.err")));
+
+			process = pb.start();
+			input = new BufferedWriter(new OutputStreamWriter(process.getOutputStream(), StandardCharsets.UTF_8));
+
+			// the output is read by a separate thread, so that the answers can be waited for with a timeout
+			BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8));
+			BlockingQueue<String> lines = new LinkedBlockingQueue<>();
+			Thread readerThread = new Thread(() -> readLines(reader, lines), "mpbn-worker-reader");
+			readerThread.setDaemon(true);
+			readerThread.start();
+			output = lines;
+		}
+
+		private void readLines(BufferedReader reader, BlockingQueue<String> lines) {
+			try {
+				String line;
+				while ((line = reader.readLine()) != null) {
+					lines.add(line);
+				}
+			} catch (IOException ignored) {
+				// the process was stopped
+			} finally {
+				lines.add(EXITED);
+			}
+		}
+
+		/**
+		 * @param forcibly true to kill the process (e.g. if it's not responding)
+		 */
+		void stop(boolean forcibly) {
+			if (process == null) return;
+
+			try {
+				input.close();
+			} catch (IOException ignored) {
+				// the process is destroyed anyway
+			}
+			if (forcibly) {
+				process.destroyForcibly();
+			} else {
+				process.destroy();
+			}
+			process = null;
+		}
+
+		boolean isHealthy() throws InterruptedException {
+			if (process == null || !process.isAlive()) return false;
+
+			try {
+				send(PING);
+				return PONG.equals(readLine());
+			} catch (IOException | TimeoutException e) {
+				return false;
+			}
+		}
+
+		List<String> request(String request) throws Exception {
+			send(request);
+
+			List<String> lines = new ArrayList<>();
+			String error = null;
+			String line;
+			while ((line = readLine()) != null) {
+				if (line.equals(END)) {
+					if (error != null) throw new Exception("mpbn failed: " + error);
+					return lines;
+				} else if (line.startsWith(ERROR)) {
+					error = line.substring(ERROR.length()).trim();
+				} else {
+					lines.add(line);
+				}
+			}
+
+			throw new IOException("mpbn worker exited unexpectedly");
+		}
+
+		/**
+		 * @return the next line written by the process (null if it exited)
+		 * @throws TimeoutException if no line was written within the {@link #timeout}
+		 */
+		private String readLine() throws InterruptedException, TimeoutException {
+			String line = output.poll(timeout, TimeUnit.SECONDS);
+			if (line == null)
+				throw new TimeoutException("no answer within " + timeout + " seconds");
+
+			return (line == EXITED) ? null : line;
+		}
+
+		private void send(String line) throws IOException {
+			input.write(line);
+			input.write('\n');
+			input.flush();
+		}
+	}
+}
@@ -0,0 +1,79 @@
+package eu.druglogics.gitsbe.model;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * The mailboxes of the island model: the simulations (islands) that run in parallel form
+ * a ring and every island periodically sends copies of its best models to the next one.
+ * Each island has one slot where it publishes its latest migrants (replacing the ones that
+ * the next island has not collected yet). No locks are used and a simulation never waits
+ * for another one: migrants that have not been sent yet just arrive at a later migration.
+ * <br>
+ * The ring has one island per running simulation (<i>parallel_sim_num</i>), not per
+ * simulation: a simulation {@link #join() joins} the ring when it starts and {@link
+ * #leave(int) leaves} it when it finishes, so the next simulation takes over its island.
+ * This way, every island of the ring is occupied while there are simulations waiting to run.
+ */
+public class MigrationRing {
+
+	private final AtomicReferenceArray<List<MutatedBooleanModel>> slots;
+	private final AtomicIntegerArray occupied;
+
+	/**
+	 * @param islands the number of simulations that run at the same time
+	 */
+	public MigrationRing(int islands) {
+		this.slots = new AtomicReferenceArray<>(islands);
+		this.occupied = new AtomicIntegerArray(islands);
+	}
+
+	/**
+	 * Claims a free island of the ring for a simulation that starts
+	 *
+	 * @return the index of the island (-1 if all islands are occupied)
+	 */
+	public int join() {
+		for (int island = 0; island < occupied.length(); island++) {
+			if (occupied.compareAndSet(island, 0, 1)) {
+				return island;
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * Frees the island of a simulation that finished. Migrants that were sent to this
+	 * island and not collected yet are received by the next simulation that joins it.
+	 *
+	 * @param island
+	 */
+	public void leave(int island) {
+		occupied.set(island, 0);
+	}
+
+	/**
+	 * Publishes the migrants of the given island to the next island of the ring
+	 *
+	 * @param island
+	 * @param migrants copies of the best models, which are not used by the island afterwards
+	 */
+	void send(int island, List<MutatedBooleanModel> migrants) {
+		slots.set(island, migrants);
+	}
+
+	/**
+	 * Collects the migrants sent by the previous island of the ring
+	 *
+	 * @param island
+	 * @return the migrants (null if nothing was sent since the last call)
+	 */
+	List<MutatedBooleanModel> receive(int island) {
+		return slots.getAndSet((island + slots.length() - 1) % slots.length(), null);
+	}
+
+	public int size() {
+		return slots.length();
+	}
+}
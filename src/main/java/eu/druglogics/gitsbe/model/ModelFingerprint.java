@@ -0,0 +1,66 @@
+package eu.druglogics.gitsbe.model;
+
+/**
+ * A 128-bit hash of the canonical form of a {@link BooleanModel}'s equations
+ * (see {@link BooleanModel#getFingerprint()}). Two models with the same fingerprint
+ * have the same logical functions for the same nodes (in the same order) and
+ * therefore the same attractors.
+ */
+final class ModelFingerprint {
+
+	private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+	private static final long FNV_PRIME = 0x100000001b3L;
+	private static final long GOLDEN_GAMMA = 0x9e3779b97f4a7c15L;
+
+	private final long hash1;
+	private final long hash2;
+
+	private ModelFingerprint(long hash1, long hash2) {
+		this.hash1 = hash1;
+		this.hash2 = hash2;
+	}
+
+	/**
+	 * Hashes the given canonical form with two independent 64-bit hash functions
+	 * (FNV-1a and a multiplicative hash with a final avalanche mix)
+	 */
+	static ModelFingerprint of(CharSequence canonicalForm) {
+		long hash1 = FNV_OFFSET_BASIS;
+		long hash2 = canonicalForm.length();
+
+		for (int i = 0; i < canonicalForm.length(); i++) {
+			char c = canonicalForm.charAt(i);
+			hash1 = (hash1 ^ c) * FNV_PRIME;
+			hash2 = (hash2 + c) * GOLDEN_GAMMA;
+		}
+
+		return new ModelFingerprint(hash1, mix(hash2));
+	}
+
+	private static long mix(long h) {
+		h ^= h >>> 33;
+		h *= 0xff51afd7ed558ccdL;
+		h ^= h >>> 33;
+		h *= 0xc4ceb9fe1a85ec53L;
+		h ^= h >>> 33;
+		return h;
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		if (this == o) return true;
+		if (!(o instanceof ModelFingerprint)) return false;
+		ModelFingerprint that = (ModelFingerprint) o;
+		return hash1 == that.hash1 && hash2 == that.hash2;
+	}
+
+	@Override
+	public int hashCode() {
+		return (int) (hash1 ^ (hash1 >>> 32));
+	}
+
+	@Override
+	public String toString() {
+		return String.format("%016x%016x", hash1, hash2);
+	}
+}
@@ -1,10 +1,9 @@
 package eu.druglogics.gitsbe.model;
 
-import eu.druglogics.gitsbe.drug.DrugPanel;
 import eu.druglogics.gitsbe.input.Config;
 import eu.druglogics.gitsbe.input.TrainingData;
+import eu.druglogics.gitsbe.input.TrainingDataObservation;
 import eu.druglogics.gitsbe.util.Logger;
-import org.apache.commons.lang3.StringUtils;
 
 import javax.naming.ConfigurationException;
 import java.io.File;
@@ -12,10 +11,13 @@ import java.io.IOException;
 import java.io.PrintWriter;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
 
 import static eu.druglogics.gitsbe.util.RandomManager.randInt;
 import static java.lang.Math.abs;
@@ -25,10 +27,35 @@ public class MutatedBooleanModel extends BooleanModel {
 
 	private float fitness;
 
+	// true if the attractors of the model were kept from its fitness calculation
+	private boolean unperturbedAttractors = false;
+
 	MutatedBooleanModel(BooleanModel booleanModel, Logger logger) {
 		super(booleanModel, logger);
 	}
 
+	/**
+	 * Constructor for creating a perturbed (condition) model of the given model, used to
+	 * simulate the training data conditions: the boolean equations are shared with the
+	 * parent model (see {@link EquationOverlay}) and only the equations replaced with
+	 * {@link #modifyEquation(String)} belong to the new model. So, the new model must not be
+	 * mutated in any other way.
+	 *
+	 * @param parent
+	 * @param modelName
+	 * @param logger
+	 */
+	private MutatedBooleanModel(MutatedBooleanModel parent, String modelName, Logger logger) {
+		super(logger);
+
+		this.booleanEquations = new EquationOverlay(parent.booleanEquations);
+		this.nodeNameToVariableMap = parent.nodeNameToVariableMap;
+		this.nodeIndex = parent.nodeIndex;
+		this.modelName = modelName;
+
+		this.attractors = new Attractors(this, parent.getAttractorTool(), logger);
+	}
+
 	/**
 	 * Constructor for creating a {@link MutatedBooleanModel} offspring from two {@link MutatedBooleanModel}
 	 * parents, using <i>crossover</i> : the offspring will get some of the boolean equations from
@@ -47,9 +74,9 @@ public class MutatedBooleanModel extends BooleanModel {
 		// Copy Boolean equations from parents
 		crossoverCopy(parent1, parent2, logger);
 
-		// Copy nodeNameToVariableMap
-		this.nodeNameToVariableMap = new LinkedHashMap<>();
-		this.nodeNameToVariableMap.putAll(parent1.nodeNameToVariableMap);
+		// Share nodeNameToVariableMap and the node index table
+		this.nodeNameToVariableMap = parent1.nodeNameToVariableMap;
+		this.nodeIndex = parent1.nodeIndex;
 
 		// Assign modelName
 		this.modelName = modelName;
@@ -62,7 +89,7 @@ public class MutatedBooleanModel extends BooleanModel {
 
 		int crossovers = Config.getInstance().getCrossovers();
 		int numberOfBooleanEquations = parent1.booleanEquations.size();
-		logger.debug("Crossovers: " + crossovers + "\nNumber of boolean equations: "
+		logger.debug(() -> "Crossovers: " + crossovers + "\nNumber of boolean equations: "
 				+ numberOfBooleanEquations);
 
 		if (crossovers >= numberOfBooleanEquations - 1) {
@@ -83,7 +110,7 @@ public class MutatedBooleanModel extends BooleanModel {
 			}
 			Collections.sort(crossoverList);
 			crossoverList.add(numberOfBooleanEquations);
-			logger.debug(crossoverList.toString());
+			logger.debug(crossoverList::toString);
 
 			int currentIndex = 0;
 			int currentParent = 1;
@@ -94,15 +121,19 @@ public class MutatedBooleanModel extends BooleanModel {
 						+ " Current parent: " + currentParent);
 				for (i = currentIndex; i < crossoverIndex; i++) {
 					if (currentParent == 1) {
-						this.booleanEquations.add(new BooleanEquation(parent1.booleanEquations.get(i)));
+						BooleanEquation parentEquation = parent1.booleanEquations.get(i);
+						BooleanEquation childEquation = new BooleanEquation(parentEquation);
+						this.booleanEquations.add(childEquation);
 						logger.debug("i: " + i + " -> Added equation from parent 1");
-						logger.debug("Parent Equation: `" + parent1.booleanEquations.get(i).getBooleanEquation() + "`");
-						logger.debug("Child  Equation: `" + booleanEquations.get(i).getBooleanEquation() + "`");
+						logger.debug(() -> "Parent Equation: `" + parentEquation.getBooleanEquation() + "`");
+						logger.debug(() -> "Child  Equation: `" + childEquation.getBooleanEquation() + "`");
 					} else {
-						this.booleanEquations.add(new BooleanEquation(parent2.booleanEquations.get(i)));
+						BooleanEquation parentEquation = parent2.booleanEquations.get(i);
+						BooleanEquation childEquation = new BooleanEquation(parentEquation);
+						this.booleanEquations.add(childEquation);
 						logger.debug("i: " + i + " -> Added equation from parent 2");
-						logger.debug("Parent Equation: `" + parent1.booleanEquations.get(i).getBooleanEquation() + "`");
-						logger.debug("Child  Equation: `" + booleanEquations.get(i).getBooleanEquation() + "`");
+						logger.debug(() -> "Parent Equation: `" + parentEquation.getBooleanEquation() + "`");
+						logger.debug(() -> "Child  Equation: `" + childEquation.getBooleanEquation() + "`");
 					}
 				}
 				currentIndex = i;
@@ -148,14 +179,15 @@ public class MutatedBooleanModel extends BooleanModel {
 		for (int i = 0; i < numberOfMutations; i++) {
 			// Find random equation to mutate.
 			int randomEquationIndex = randInt(0, booleanEquations.size() - 1);
-			String orig = booleanEquations.get(randomEquationIndex).getBooleanEquation();
+			BooleanEquation booleanEquation = booleanEquations.get(randomEquationIndex);
 
-			booleanEquations.get(randomEquationIndex).mutateRegulator();
+			// the equation is only rendered if the change will be logged
+			String orig = (logger.getVerbosity() >= 2) ? booleanEquation.getBooleanEquation() : null;
 
-			if (!booleanEquations.get(randomEquationIndex).getBooleanEquation().equals(orig))
-				logger.outputStringMessage(2, "Exchanging equation " + randomEquationIndex
+			if (booleanEquation.mutateRegulator())
+				logger.outputStringMessage(2, () -> "Exchanging equation " + randomEquationIndex
 						+ "\n\t" + orig + "\n\t"
-						+ booleanEquations.get(randomEquationIndex).getBooleanEquation() + "\n");
+						+ booleanEquation.getBooleanEquation() + "\n");
 		}
 	}
 
@@ -178,185 +210,282 @@ public class MutatedBooleanModel extends BooleanModel {
 	 * (HSA or Bliss) where the globaloutput response given is the relative observed response
 	 * that is compared with the predicted HSA or Bliss excess.
 	 *
+	 * The observations are compiled once for the nodes of the model (see {@link CompiledTrainingData}).
+	 * If a condition pool is given, the perturbed models are simulated in parallel first
+	 * (see {@link #simulateInParallel}).
+	 *
+	 * @param directoryOutput
+	 * @param conditionPool the pool to simulate the training data conditions in parallel
+	 * (null to simulate them serially)
 	 * @throws Exception
 	 */
-	void calculateFitness(String directoryOutput) throws Exception {
+	void calculateFitness(String directoryOutput, ForkJoinPool conditionPool) throws Exception {
 		TrainingData data = TrainingData.getInstance();
+		CompiledTrainingData compiledData = CompiledTrainingData.getInstance(data, nodeIndex, logger);
 
 		// reset fitness
 		fitness = 0;
+		unperturbedAttractors = false;
+
+		// the perturbed models (with their attractors) of this model, so that the same
+		// perturbation (e.g. a drug in many drug combinations) is only simulated once
+		Map<CompiledTrainingData.PerturbationKey, SimulationResult> perturbedModels = new HashMap<>();
+
+		if (conditionPool != null && compiledData.getObservations().size() > 1) {
+			simulateInParallel(directoryOutput, compiledData, perturbedModels, conditionPool);
+		}
 
 		// iterate through each data observation
-		for (int conditionNumber = 0; conditionNumber < data.size(); conditionNumber++) {
-			float conditionfitness = 0;
-			float weight = data.getObservations().get(conditionNumber).getWeight();
+		for (CompiledTrainingData.Observation observation : compiledData.getObservations()) {
+			int conditionNumber = observation.conditionNumber;
+			float weight = observation.weight;
+			String conditionModelName = this.modelName + "_condition_" + conditionNumber;
+
+			logger.outputHeader(3, () -> "Defining model for training data: " + this.modelName);
+
+			float conditionfitness;
+			if (observation.type == TrainingDataObservation.Type.DOUBLE_DRUG_HSA
+				|| observation.type == TrainingDataObservation.Type.DOUBLE_DRUG_BLISS) {
+				conditionfitness = getConditionFitnessForTwoDrugPerturbation(
+					directoryOutput, observation, perturbedModels);
+			} else {
+				conditionfitness = getConditionFitness(
+					directoryOutput, observation, perturbedModels);
+			}
 
-			logger.outputHeader(3, "Defining model for training data: " + this.modelName);
-			ArrayList<String> condition = data.getObservations().get(conditionNumber).getCondition();
-			ArrayList<String> response = data.getObservations().get(conditionNumber).getResponse();
+			logger.outputStringMessage(3, () -> "Scaled fitness [0..1] for model [" + conditionModelName
+					+ "] condition " + conditionNumber + " " + "(weight: " + weight + "): "
+					+ conditionfitness);
 
-			MutatedBooleanModel mutatedBooleanModel = new MutatedBooleanModel(this, logger);
-			mutatedBooleanModel.modelName = this.modelName + "_condition_" + conditionNumber;
+			// compute fitness and scale to ratio of weight to weights of all conditions
+			fitness += conditionfitness * weight / compiledData.getWeightSum();
+		}
 
-			// Set up model compliant with condition
-			String firstCondition = condition.get(0);
-			boolean isDoubleDrugPerturbation = false;
+		logger.outputStringMessage(3, () -> "Scaled fitness [0..1] for model [" + modelName
+				+ "] across all (" + data.size() + ") conditions: " + fitness);
 
-			if (firstCondition.equals("-")) { // unperturbed state
-				logger.outputStringMessage(3, "Defining condition: Unperturbed (weight: " + weight + ")");
+		keepUnperturbedAttractors(perturbedModels);
+	}
 
-			} else if (firstCondition.startsWith("Drug")) {
-				int count = StringUtils.countMatches(firstCondition, "Drug");
+	/**
+	 * If an observation was simulated without any perturbation (e.g. the unperturbed
+	 * condition), its attractors are the attractors of this model, so they are kept to be
+	 * saved with the model (see {@link #hasUnperturbedAttractors()}).
+	 */
+	private void keepUnperturbedAttractors(Map<CompiledTrainingData.PerturbationKey, SimulationResult> perturbedModels) {
+		SimulationResult result = perturbedModels.get(CompiledTrainingData.PerturbationKey.NO_PERTURBATION);
 
-				if (count == 1) { // single drug perturbation
-					Pattern singleDrugPattern = Pattern.compile("^Drug\\((.*)\\)$");
-					Matcher singleDrugMatcher = singleDrugPattern.matcher(firstCondition);
+		if (result != null && result.used && result.exception == null) {
+			attractors.copyAttractors(result.model.attractors);
+			unperturbedAttractors = true;
+		}
+	}
 
-					String drug;
-					if (singleDrugMatcher.find()) {
-						drug = singleDrugMatcher.group(1);
-					} else {
-						logger.error("Wrong format on first condition: `" + firstCondition + "` - "
-							+ "skipping this observation, continuing with the next");
-						continue;
-					}
+	/**
+	 * @return true if the attractors of the model were already calculated during its
+	 * {@link #calculateFitness(String, ForkJoinPool) fitness calculation}, so there is no need to call
+	 * {@link #calculateAttractors(String)} again
+	 */
+	boolean hasUnperturbedAttractors() {
+		return unperturbedAttractors;
+	}
 
-					ArrayList<String> targets = DrugPanel.getInstance().getDrugTargets(drug);
-					boolean effect = DrugPanel.getInstance().getDrugEffect(drug);
+	/**
+	 * Fitness of an unperturbed, node perturbation (knockout/over-expression) or single
+	 * drug perturbation observation
+	 *
+	 * @return a fitness score for the given observation scaled from 0 to 1
+	 * @throws Exception
+	 */
+	private float getConditionFitness(String directoryOutput, CompiledTrainingData.Observation observation,
+									  Map<CompiledTrainingData.PerturbationKey, SimulationResult> perturbedModels) throws Exception {
+		float conditionfitness = 0;
+
+		// Set up model compliant with condition
+		if (observation.type == TrainingDataObservation.Type.UNPERTURBED) {
+			logger.outputStringMessage(3, () -> "Defining condition: Unperturbed (weight: "
+				+ observation.weight + ")");
+		} else if (observation.type == TrainingDataObservation.Type.SINGLE_DRUG) {
+			logger.outputStringMessage(3, () -> "Condition is a single drug perturbation: `"
+				+ observation.condition + "`");
+		}
 
-					logger.outputStringMessage(3, "Condition is a single drug perturbation: `"
-						+ firstCondition + "`");
+		for (CompiledTrainingData.Perturbation perturbation : observation.perturbations) {
+			logPerturbation(perturbation);
+		}
 
-					for (String target : targets) {
-						String equation = target + " *= " + effect;
-						logger.outputStringMessage(3, "Defining condition: " + equation);
-						mutatedBooleanModel.modifyEquation(equation);
-					}
-				} else if (count == 3) { // Two drug perturbation condition (HSA or Bliss)
-					String firstResponse = response.get(0);
-					try {
-						conditionfitness = getConditionFitnessForTwoDrugPerturbation(
-							directoryOutput, firstCondition, firstResponse);
-					} catch (ConfigurationException e) {
-						continue;
+		// compute stable state(s) for condition
+		MutatedBooleanModel mutatedBooleanModel = getPerturbedModel(
+			directoryOutput, observation.simulations[0], perturbedModels);
+
+		// go through each element (output) of a response
+		if (mutatedBooleanModel.hasAttractors()) {
+			// check if globaloutput observation
+			if (observation.globalOutputResponse) {
+				float observedGlobalOutput = observation.globalOutput;
+				float predictedGlobalOutput = mutatedBooleanModel.calculateGlobalOutput();
+
+				logger.outputStringMessage(3, () -> "Observed globalOutput: " + observedGlobalOutput);
+				logger.outputStringMessage(3, () -> "Predicted globalOutput: " + predictedGlobalOutput);
+
+				conditionfitness = 1 - abs(predictedGlobalOutput - observedGlobalOutput);
+			} else {
+				// Go through all the specified states in observation
+				// and contrast with attractor(s) (stable states or trapspaces)
+
+				// A model with an existing stable state will get higher fitness than models
+				// without stable states (e.g. models that have only trapspaces as attractors)
+				if (mutatedBooleanModel.hasStableStates())
+					conditionfitness += 1;
+
+				float averageMatch = 0;
+				int foundObservations = observation.responseNodes.length;
+
+				// check computed stable state(s) with training data observation
+				int numberOfAttractors = mutatedBooleanModel.getNumberOfAttractors();
+				for (int indexState = 0; indexState < numberOfAttractors; indexState++) {
+					int stateNumber = indexState + 1;
+					logger.outputStringMessage(2, () -> "Checking stable state no. " + stateNumber + ":");
+
+					float matchSum = 0;
+
+					for (int i = 0; i < foundObservations; i++) {
+						String node = observation.responseNodeNames[i];
+						float obs = observation.responseValues[i];
+						float stateValue = mutatedBooleanModel.getNodeStateValue(indexState, observation.responseNodes[i]);
+						float match = 1 - abs(stateValue - obs);
+						logger.outputStringMessage(3, () -> "Match for observation on node "
+							+ node + ": " + match + " (1 - |"
+							+ stateValue + " - " + obs + "|)");
+						matchSum += match;
 					}
-					isDoubleDrugPerturbation = true;
-				} else {
-					logger.error("Wrong format on first condition: `" + firstCondition + "` - "
-						+ "skipping this observation, continuing with the next");
-					continue;
+
+					float matches = matchSum;
+					logger.outputStringMessage(2, () -> "From " + foundObservations
+						+ " observations, found " + matches + " matches");
+					averageMatch += matchSum;
 				}
-			} else { // single to multiple knockout/over-expression conditions
-				for (String conditionStr : condition) {
-					String node = conditionStr.split(":")[0];
-					String state = conditionStr.split(":")[1];
-
-					String equation = node + " *= ";
-
-					if (state.equals("1"))
-						equation += "true";
-					else if (state.equals("0"))
-						equation += "false";
-					else {
-						logger.error("Training data with incorrectly formatted condition: " + conditionStr);
-						continue;
-					}
 
-					logger.outputStringMessage(3, "Defining condition: " + equation);
-					mutatedBooleanModel.modifyEquation(equation);
+				averageMatch /= numberOfAttractors;
+				float average = averageMatch;
+				logger.outputStringMessage(2, () -> "Average match value through all stable states: "
+					+ average);
+				conditionfitness += averageMatch;
+
+				if (foundObservations > 0) {
+					// +1 to account for the fact there is also a
+					// stable state, which gives a fitness of 1 itself
+					if (mutatedBooleanModel.hasStableStates())
+						conditionfitness /= (foundObservations + 1);
+					else
+						conditionfitness /= foundObservations;
 				}
 			}
+		}
 
-			if (!isDoubleDrugPerturbation) {
-				// compute stable state(s) for condition
-				mutatedBooleanModel.calculateAttractors(directoryOutput);
+		return conditionfitness;
+	}
 
-				// check computed stable state(s) with training data observation
-				String[][] attractorsWithNodes = mutatedBooleanModel.getAttractorsWithNodes();
+	/**
+	 * Returns the model perturbed for the given simulation, with its attractors calculated.
+	 * The perturbed models are kept in the given map, so if a model with the same clamped
+	 * nodes was already simulated, it's reused instead of calculating its attractors again.
+	 */
+	private MutatedBooleanModel getPerturbedModel(String directoryOutput, CompiledTrainingData.Simulation simulation,
+												  Map<CompiledTrainingData.PerturbationKey, SimulationResult> perturbedModels) throws Exception {
+		SimulationResult result = perturbedModels.get(simulation.key);
+
+		if (result == null) {
+			result = simulate(directoryOutput, simulation, logger);
+			perturbedModels.put(simulation.key, result);
+		} else if (result.used) {
+			MutatedBooleanModel perturbedModel = result.model;
+			logger.outputStringMessage(3, () -> "Reusing the attractors of the same perturbed model: "
+				+ perturbedModel.modelName);
+			return perturbedModel;
+		}
 
-				// go through each element (output) of a response
-				if (mutatedBooleanModel.hasAttractors()) {
-					// check if globaloutput observation
-					if (response.get(0).split(":")[0].equals("globaloutput")) {
-						float observedGlobalOutput = Float.parseFloat(response.get(0).split(":")[1]);
-						float predictedGlobalOutput = mutatedBooleanModel.calculateGlobalOutput();
+		// the messages of a parallel simulation are written now, as if it was simulated here
+		result.used = true;
+		result.logger.flushBufferTo(logger);
 
-						logger.outputStringMessage(3, "Observed globalOutput: " + observedGlobalOutput);
-						logger.outputStringMessage(3, "Predicted globalOutput: " + predictedGlobalOutput);
+		if (result.exception != null) throw result.exception;
+		return result.model;
+	}
 
-						conditionfitness = 1 - abs(predictedGlobalOutput - observedGlobalOutput);
-					} else {
-						// Go through all the specified states in observation
-						// and contrast with attractor(s) (stable states or trapspaces)
-
-						// A model with an existing stable state will get higher fitness than models
-						// without stable states (e.g. models that have only trapspaces as attractors)
-						if (mutatedBooleanModel.hasStableStates())
-							conditionfitness += 1;
-
-						float averageMatch = 0;
-						int foundObservations = 0;
-						ArrayList<Float> matches = new ArrayList<>();
-
-						for (int indexState = 1; indexState < attractorsWithNodes.length; indexState++) {
-							logger.outputStringMessage(2, "Checking stable state no. " + indexState + ":");
-
-							float matchSum = 0;
-							foundObservations = 0;
-
-							for (String responseStr : response) {
-								String node = responseStr.split(":")[0].trim();
-								String obs = responseStr.split(":")[1].trim();
-
-								int indexNode = getIndexOfEquation(node);
-
-								if (indexNode >= 0) {
-									foundObservations++;
-									String nodeState = attractorsWithNodes[indexState][indexNode];
-									float stateValue = (nodeState.equals("-"))
-										? (float) 0.5 : Float.parseFloat(nodeState);
-									float match = 1 - abs(stateValue - Float.parseFloat(obs));
-									logger.outputStringMessage(3, "Match for observation on node "
-										+ node + ": " + match + " (1 - |"
-										+ stateValue + " - " + obs + "|)");
-									matchSum += match;
-								}
-							}
-							logger.outputStringMessage(2, "From " + foundObservations
-								+ " observations, found " + matchSum + " matches");
-							matches.add(matchSum);
-						}
-
-						for (Float match : matches) {
-							averageMatch += match;
-						}
-						averageMatch /= matches.size();
-						logger.outputStringMessage(2, "Average match value through all stable states: "
-							+ averageMatch);
-						conditionfitness += averageMatch;
-
-						if (foundObservations > 0) {
-							// +1 to account for the fact there is also a
-							// stable state, which gives a fitness of 1 itself
-							if (mutatedBooleanModel.hasStableStates())
-								conditionfitness /= (foundObservations + 1);
-							else
-								conditionfitness /= foundObservations;
-						}
-					}
+	/**
+	 * Simulates the distinct perturbed models of all the observations using the given pool.
+	 * Each simulation logs to its own in-memory logger, whose messages are written when the
+	 * perturbed model is first used (see {@link #getPerturbedModel}). The observations are
+	 * then scored serially, in their order, so the fitness and the log are the same as when
+	 * the perturbed models are simulated serially.
+	 */
+	private void simulateInParallel(String directoryOutput, CompiledTrainingData compiledData,
+									Map<CompiledTrainingData.PerturbationKey, SimulationResult> perturbedModels, ForkJoinPool pool) throws Exception {
+		Map<CompiledTrainingData.PerturbationKey, Callable<SimulationResult>> tasks = new LinkedHashMap<>();
+
+		for (CompiledTrainingData.Observation observation : compiledData.getObservations()) {
+			for (CompiledTrainingData.Simulation simulation : observation.simulations) {
+				if (!tasks.containsKey(simulation.key)) {
+					Logger simulationLogger = logger.newBufferedLogger();
+					tasks.put(simulation.key, () -> simulate(directoryOutput, simulation, simulationLogger));
 				}
 			}
+		}
 
-			logger.outputStringMessage(3, "Scaled fitness [0..1] for model [" + mutatedBooleanModel.modelName
-					+ "] condition " + conditionNumber + " " + "(weight: " + weight + "): "
-					+ conditionfitness);
+		List<Future<SimulationResult>> results = pool.invokeAll(tasks.values());
 
-			// compute fitness and scale to ratio of weight to weights of all conditions
-			fitness += conditionfitness * weight / data.getWeightSum();
+		int resultIndex = 0;
+		for (CompiledTrainingData.PerturbationKey key : tasks.keySet()) {
+			perturbedModels.put(key, results.get(resultIndex++).get());
 		}
+	}
 
-		logger.outputStringMessage(3, "Scaled fitness [0..1] for model [" + modelName
-				+ "] across all (" + data.size() + ") conditions: " + fitness);
+	private SimulationResult simulate(String directoryOutput, CompiledTrainingData.Simulation simulation,
+									  Logger simulationLogger) {
+		MutatedBooleanModel perturbedModel = new MutatedBooleanModel(
+			this, modelName + simulation.name, simulationLogger);
+		for (CompiledTrainingData.Perturbation perturbation : simulation.perturbations) {
+			perturbedModel.perturb(perturbation);
+		}
+
+		SimulationResult result = new SimulationResult(perturbedModel, simulationLogger);
+		try {
+			perturbedModel.calculateAttractors(directoryOutput);
+		} catch (Exception e) {
+			result.exception = e;
+		}
+		perturbedModel.setLogger(logger);
+
+		return result;
+	}
+
+	private static class SimulationResult {
+		private final MutatedBooleanModel model;
+		private final Logger logger; // in-memory logger for parallel simulations
+		private Exception exception;
+		private boolean used = false;
+
+		SimulationResult(MutatedBooleanModel model, Logger logger) {
+			this.model = model;
+			this.logger = logger;
+		}
+	}
+
+	/**
+	 * Replaces the equations of the perturbed nodes with the (shared) clamped ones.
+	 * Only for condition models (see {@link #MutatedBooleanModel(MutatedBooleanModel, String, Logger)}).
+	 */
+	private void perturb(CompiledTrainingData.Perturbation perturbation) {
+		for (int i = 0; i < perturbation.nodes.length; i++) {
+			booleanEquations.set(perturbation.nodes[i], perturbation.equations[i]);
+		}
+	}
+
+	private void logPerturbation(CompiledTrainingData.Perturbation perturbation) {
+		for (String definition : perturbation.definitions) {
+			logger.outputStringMessage(3, () -> "Defining condition: " + definition);
+		}
 	}
 
 	@Override
@@ -407,8 +536,19 @@ public class MutatedBooleanModel extends BooleanModel {
 	}
 
 	/**
-	 * Use this function to get the fitness value for a specified condition in the form:
-	 * <i>Drug(A+B) < min(Drug(A),Drug(B))</i> (HSA) or <i>Drug(A+B) < product(Drug(A),Drug(B))</i> (Bliss)
+	 * Use this function to set the fitness of a model whose genome (equations) has
+	 * already been evaluated, instead of calling {@link #calculateFitness(String)} again
+	 *
+	 * @param fitness
+	 */
+	void setFitness(float fitness) {
+		this.fitness = fitness;
+	}
+
+	/**
+	 * Use this function to get the fitness value for a double drug perturbation observation.
+	 * The condition is compiled like the observations of the training data (see
+	 * {@link CompiledTrainingData}) and the perturbed models are only simulated for this call.
 	 *
 	 * @param directoryOutput name of directory to pass to the function that calculates the stable states
 	 * @param condition the two drug specified condition. String format is: `Drug(A+B) < min(Drug(A),Drug(B))` or `Drug(A+B) < product(Drug(A),Drug(B))`
@@ -422,210 +562,110 @@ public class MutatedBooleanModel extends BooleanModel {
 	 */
 	public float getConditionFitnessForTwoDrugPerturbation(
 		String directoryOutput, String condition, String response) throws Exception {
-		float conditionFitness = 0;
-
-		if (condition.contains("< min(Drug")) { // HSA
-
-			Pattern twoDrugsHSAPattern = Pattern.compile("^Drug\\((.*)\\+(.*)\\) < min\\(Drug\\((.*)\\),Drug\\((.*)\\)\\)$");
-			Matcher twoDrugsHSAMatcher = twoDrugsHSAPattern.matcher(condition);
-
-			String firstDrug;
-			String secondDrug;
-			if (twoDrugsHSAMatcher.find()) {
-				firstDrug = twoDrugsHSAMatcher.group(1);
-				secondDrug = twoDrugsHSAMatcher.group(2);
-			} else {
-				logger.error("Wrong format on first condition: `" + condition + "` - "
-					+ "skipping this observation, continuing with the next");
-				throw new ConfigurationException();
-			}
-
-			ArrayList<String> firstDrugTargets = DrugPanel.getInstance().getDrugTargets(firstDrug);
-			ArrayList<String> secondDrugTargets = DrugPanel.getInstance().getDrugTargets(secondDrug);
-
-			boolean firstDrugEffect = DrugPanel.getInstance().getDrugEffect(firstDrug);
-			boolean secondDrugEffect = DrugPanel.getInstance().getDrugEffect(secondDrug);
-
-			logger.outputStringMessage(3, "Condition is a double drug perturbation: `"
-				+ condition + "`");
-			MutatedBooleanModel mutatedBooleanModelBothDrugs = new MutatedBooleanModel(this, logger);
-
-			logger.outputStringMessage(3, "Perturbing model with the first drug: `"
-				+ firstDrug + "`");
-			MutatedBooleanModel mutatedBooleanModelFirstDrug = new MutatedBooleanModel(this, logger);
-
-			for (String target : firstDrugTargets) {
-				String equation = target + " *= " + firstDrugEffect;
-				logger.outputStringMessage(3, "Defining condition: " + equation);
-				mutatedBooleanModelFirstDrug.modifyEquation(equation);
-				mutatedBooleanModelBothDrugs.modifyEquation(equation);
-			}
-
-			mutatedBooleanModelFirstDrug.calculateAttractors(directoryOutput);
-
-			logger.outputStringMessage(3, "Perturbing model with the second drug: `"
-				+ secondDrug + "`");
-
-			MutatedBooleanModel mutatedBooleanModelSecondDrug =
-				new MutatedBooleanModel(this, logger);
-
-			for (String target : secondDrugTargets) {
-				String equation = target + " *= " + secondDrugEffect;
-				logger.outputStringMessage(3, "Defining condition: " + equation);
-				mutatedBooleanModelSecondDrug.modifyEquation(equation);
-				mutatedBooleanModelBothDrugs.modifyEquation(equation);
-			}
-
-			mutatedBooleanModelSecondDrug.calculateAttractors(directoryOutput);
-
-			logger.outputStringMessage(3, "Perturbing model with both drugs");
-			mutatedBooleanModelBothDrugs.calculateAttractors(directoryOutput);
-
-			if (mutatedBooleanModelFirstDrug.hasAttractors()
-				&& mutatedBooleanModelSecondDrug.hasAttractors()
-				&& mutatedBooleanModelBothDrugs.hasAttractors()) {
-				if (response.split(":")[0].equals("globaloutput")) {
-
-					float relObsGL = Float.parseFloat(response.split(":")[1]);
-					logger.outputStringMessage(3, "Relative Observed globalOutput: " + relObsGL);
-
-					float firstDrugGL = mutatedBooleanModelFirstDrug.calculateGlobalOutput();
-					logger.outputStringMessage(3, "Predicted globalOutput for the model perturbed with drug `"
-						+ firstDrug + "`: " + firstDrugGL);
-
-					float secondDrugGL = mutatedBooleanModelSecondDrug.calculateGlobalOutput();
-					logger.outputStringMessage(3, "Predicted globalOutput for the model perturbed with drug `"
-						+ secondDrug + "`: " + secondDrugGL);
-
-					float minGL = min(firstDrugGL, secondDrugGL);
-					logger.outputStringMessage(3, "Minimum predicted globalOutput value " +
-						"of the two single-drug perturbed models: " + minGL);
-
-					float bothDrugsGL = mutatedBooleanModelBothDrugs.calculateGlobalOutput();
-					logger.outputStringMessage(3, "Predicted globalOutput for the model perturbed with both drugs `"
-						+ firstDrug + "` and `" + secondDrug + "`: " + bothDrugsGL);
-
-					float HSAexcess = bothDrugsGL - minGL; // [-1..1]
-					logger.outputStringMessage(3, "HSA excess: " + HSAexcess);
+		TrainingDataObservation trainingDataObservation = new TrainingDataObservation(
+			new ArrayList<>(Collections.singletonList(condition)),
+			new ArrayList<>(Collections.singletonList(response)), 1);
+
+		CompiledTrainingData.Observation observation = null;
+		if (trainingDataObservation.getType() == TrainingDataObservation.Type.DOUBLE_DRUG_HSA
+			|| trainingDataObservation.getType() == TrainingDataObservation.Type.DOUBLE_DRUG_BLISS) {
+			observation = CompiledTrainingData.compileObservation(0, trainingDataObservation, nodeIndex, logger);
+		} else {
+			logger.error("Wrong format on first condition: `" + condition + "` - "
+				+ "skipping this observation, continuing with the next");
+		}
 
-					float diff = abs(HSAexcess - relObsGL); // [0..2]
-					logger.outputStringMessage(3, "Absolute difference of HSA excess and " +
-						"relative observed globalOutput: " + diff);
-					conditionFitness = 1 - (diff / 2); // [0..1]
-				} else {
-					logger.error("Wrong format on first response (expected `globaloutput` but got): `"
-						+ response.split(":")[0] + "` - "
-						+ "skipping this observation, continuing with the next");
-					throw new ConfigurationException();
-				}
-			} else {
-				logger.outputStringMessage(3, "One of the single-drug perturbed models " +
-					"or the double-perturbed model didn't have stable states");
-			}
+		if (observation == null) {
+			throw new ConfigurationException();
+		}
 
-		} else if (condition.contains("< product(Drug")) { // Bliss
+		return getConditionFitnessForTwoDrugPerturbation(directoryOutput, observation, new HashMap<>());
+	}
 
-			Pattern twoDrugsBlissPattern = Pattern.compile("^Drug\\((.*)\\+(.*)\\) < product\\(Drug\\((.*)\\),Drug\\((.*)\\)\\)$");
-			Matcher twoDrugsBlissMatcher = twoDrugsBlissPattern.matcher(condition);
+	/**
+	 * Use this function to get the fitness value for a double drug perturbation observation
+	 * with a condition in the form: <i>Drug(A+B) < min(Drug(A),Drug(B))</i> (HSA) or
+	 * <i>Drug(A+B) < product(Drug(A),Drug(B))</i> (Bliss) and a relative observed response
+	 * in the form: <i>globaloutput:value</i> (<i>value</i> can be from -1 to 1)
+	 *
+	 * @param directoryOutput name of directory to pass to the function that calculates the stable states
+	 * @param observation the compiled observation
+	 * @param perturbedModels the already simulated perturbed models of this model
+	 * @return a fitness score for the given condition scaled from 0 to 1
+	 *
+	 * @throws Exception
+	 */
+	private float getConditionFitnessForTwoDrugPerturbation(
+		String directoryOutput, CompiledTrainingData.Observation observation,
+		Map<CompiledTrainingData.PerturbationKey, SimulationResult> perturbedModels) throws Exception {
+		float conditionFitness = 0;
 
-			String firstDrug;
-			String secondDrug;
-			if (twoDrugsBlissMatcher.find()) {
-				firstDrug = twoDrugsBlissMatcher.group(1);
-				secondDrug = twoDrugsBlissMatcher.group(2);
+		boolean isHSA = (observation.type == TrainingDataObservation.Type.DOUBLE_DRUG_HSA);
+		String synergyModel = isHSA ? "HSA" : "Bliss";
+		CompiledTrainingData.Perturbation firstDrugPerturbation = observation.perturbations[0];
+		CompiledTrainingData.Perturbation secondDrugPerturbation = observation.perturbations[1];
+		String firstDrug = firstDrugPerturbation.name;
+		String secondDrug = secondDrugPerturbation.name;
+
+		logger.outputStringMessage(3, () -> "Condition is a double drug perturbation: `"
+			+ observation.condition + "`");
+
+		logger.outputStringMessage(3, () -> "Perturbing model with the first drug: `"
+			+ firstDrug + "`");
+		logPerturbation(firstDrugPerturbation);
+		MutatedBooleanModel mutatedBooleanModelFirstDrug = getPerturbedModel(
+			directoryOutput, observation.simulations[0], perturbedModels);
+
+		logger.outputStringMessage(3, () -> "Perturbing model with the second drug: `"
+			+ secondDrug + "`");
+		logPerturbation(secondDrugPerturbation);
+		MutatedBooleanModel mutatedBooleanModelSecondDrug = getPerturbedModel(
+			directoryOutput, observation.simulations[1], perturbedModels);
+
+		logger.outputStringMessage(3, "Perturbing model with both drugs");
+		MutatedBooleanModel mutatedBooleanModelBothDrugs = getPerturbedModel(
+			directoryOutput, observation.simulations[2], perturbedModels);
+
+		if (mutatedBooleanModelFirstDrug.hasAttractors()
+			&& mutatedBooleanModelSecondDrug.hasAttractors()
+			&& mutatedBooleanModelBothDrugs.hasAttractors()) {
+
+			float relObsGL = observation.globalOutput;
+			logger.outputStringMessage(3, () -> "Relative Observed globalOutput: " + relObsGL);
+
+			float firstDrugGL = mutatedBooleanModelFirstDrug.calculateGlobalOutput();
+			logger.outputStringMessage(3, () -> "Predicted globalOutput for the model perturbed with drug `"
+				+ firstDrug + "`: " + firstDrugGL);
+
+			float secondDrugGL = mutatedBooleanModelSecondDrug.calculateGlobalOutput();
+			logger.outputStringMessage(3, () -> "Predicted globalOutput for the model perturbed with drug `"
+				+ secondDrug + "`: " + secondDrugGL);
+
+			float expectedGL;
+			if (isHSA) {
+				expectedGL = min(firstDrugGL, secondDrugGL);
+				logger.outputStringMessage(3, () -> "Minimum predicted globalOutput value " +
+					"of the two single-drug perturbed models: " + expectedGL);
 			} else {
-				logger.error("Wrong format on first condition: `" + condition + "` - "
-					+ "skipping this observation, continuing with the next");
-				throw new ConfigurationException();
-			}
-
-			ArrayList<String> firstDrugTargets = DrugPanel.getInstance().getDrugTargets(firstDrug);
-			ArrayList<String> secondDrugTargets = DrugPanel.getInstance().getDrugTargets(secondDrug);
-
-			boolean firstDrugEffect = DrugPanel.getInstance().getDrugEffect(firstDrug);
-			boolean secondDrugEffect = DrugPanel.getInstance().getDrugEffect(secondDrug);
-
-			logger.outputStringMessage(3, "Condition is a double drug perturbation: `"
-				+ condition + "`");
-			MutatedBooleanModel mutatedBooleanModelBothDrugs = new MutatedBooleanModel(this, logger);
-
-			logger.outputStringMessage(3, "Perturbing model with the first drug: `"
-				+ firstDrug + "`");
-			MutatedBooleanModel mutatedBooleanModelFirstDrug = new MutatedBooleanModel(this, logger);
-
-			for (String target : firstDrugTargets) {
-				String equation = target + " *= " + firstDrugEffect;
-				logger.outputStringMessage(3, "Defining condition: " + equation);
-				mutatedBooleanModelFirstDrug.modifyEquation(equation);
-				mutatedBooleanModelBothDrugs.modifyEquation(equation);
+				expectedGL = firstDrugGL * secondDrugGL;
+				logger.outputStringMessage(3, () -> "Product predicted globalOutput value " +
+					"of the two single-drug perturbed models: " + expectedGL);
 			}
 
-			mutatedBooleanModelFirstDrug.calculateAttractors(directoryOutput);
+			float bothDrugsGL = mutatedBooleanModelBothDrugs.calculateGlobalOutput();
+			logger.outputStringMessage(3, () -> "Predicted globalOutput for the model perturbed with both drugs `"
+				+ firstDrug + "` and `" + secondDrug + "`: " + bothDrugsGL);
 
-			logger.outputStringMessage(3, "Perturbing model with the second drug: `"
-				+ secondDrug + "`");
-
-			MutatedBooleanModel mutatedBooleanModelSecondDrug =
-				new MutatedBooleanModel(this, logger);
-
-			for (String target : secondDrugTargets) {
-				String equation = target + " *= " + secondDrugEffect;
-				logger.outputStringMessage(3, "Defining condition: " + equation);
-				mutatedBooleanModelSecondDrug.modifyEquation(equation);
-				mutatedBooleanModelBothDrugs.modifyEquation(equation);
-			}
-
-			mutatedBooleanModelSecondDrug.calculateAttractors(directoryOutput);
-
-			logger.outputStringMessage(3, "Perturbing model with both drugs");
-			mutatedBooleanModelBothDrugs.calculateAttractors(directoryOutput);
-
-			if (mutatedBooleanModelFirstDrug.hasAttractors()
-				&& mutatedBooleanModelSecondDrug.hasAttractors()
-				&& mutatedBooleanModelBothDrugs.hasAttractors()) {
-				if (response.split(":")[0].equals("globaloutput")) {
-
-					float relObsGL = Float.parseFloat(response.split(":")[1]);
-					logger.outputStringMessage(3, "Relative Observed globalOutput: " + relObsGL);
-
-					float firstDrugGL = mutatedBooleanModelFirstDrug.calculateGlobalOutput();
-					logger.outputStringMessage(3, "Predicted globalOutput for the model perturbed with drug `"
-						+ firstDrug + "`: " + firstDrugGL);
-
-					float secondDrugGL = mutatedBooleanModelSecondDrug.calculateGlobalOutput();
-					logger.outputStringMessage(3, "Predicted globalOutput for the model perturbed with drug `"
-						+ secondDrug + "`: " + secondDrugGL);
-
-					float productGL = firstDrugGL * secondDrugGL;
-					logger.outputStringMessage(3, "Product predicted globalOutput value " +
-						"of the two single-drug perturbed models: " + productGL);
-
-					float bothDrugsGL = mutatedBooleanModelBothDrugs.calculateGlobalOutput();
-					logger.outputStringMessage(3, "Predicted globalOutput for the model perturbed with both drugs `"
-						+ firstDrug + "` and `" + secondDrug + "`: " + bothDrugsGL);
-
-					float blissExcess = bothDrugsGL - productGL; // [-1..1]
-					logger.outputStringMessage(3, "Bliss excess: " + blissExcess);
-
-					float diff = abs(blissExcess - relObsGL); // [0..2]
-					logger.outputStringMessage(3, "Absolute difference of Bliss excess and " +
-						"relative observed globalOutput: " + diff);
-					conditionFitness = 1 - (diff / 2); // [0..1]
-				} else {
-					logger.error("Wrong format on first response (expected `globaloutput` but got): `"
-						+ response.split(":")[0] + "` - "
-						+ "skipping this observation, continuing with the next");
-					throw new ConfigurationException();
-				}
-			} else {
-				logger.outputStringMessage(3, "One of the single-drug perturbed models " +
-					"or the double-perturbed model didn't have stable states");
-			}
+			float excess = bothDrugsGL - expectedGL; // [-1..1]
+			logger.outputStringMessage(3, () -> synergyModel + " excess: " + excess);
 
+			float diff = abs(excess - relObsGL); // [0..2]
+			logger.outputStringMessage(3, () -> "Absolute difference of " + synergyModel + " excess and " +
+				"relative observed globalOutput: " + diff);
+			conditionFitness = 1 - (diff / 2); // [0..1]
 		} else {
-			logger.error("Wrong format on first condition: `" + condition + "` - "
-				+ "skipping this observation, continuing with the next");
-			throw new ConfigurationException();
+			logger.outputStringMessage(3, "One of the single-drug perturbed models " +
+				"or the double-perturbed model didn't have stable states");
 		}
 
 		return conditionFitness;
@@ -0,0 +1,45 @@
+package eu.druglogics.gitsbe.model;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable table of the node names of a {@link BooleanModel} and their indexes (the
+ * index of a node is the index of its equation). It's built once when a model is loaded
+ * and then shared by all the copies of the model (e.g. the {@link MutatedBooleanModel}
+ * objects of the evolution), since mutations never add, remove or reorder nodes.
+ */
+final class NodeIndex {
+
+	private final List<String> nodeNames;
+	private final Map<String, Integer> indexes;
+
+	NodeIndex(Collection<String> nodeNames) {
+		this.nodeNames = Collections.unmodifiableList(new ArrayList<>(nodeNames));
+		this.indexes = new HashMap<>();
+
+		for (int i = 0; i < this.nodeNames.size(); i++) {
+			// in case of duplicates the first index is kept
+			indexes.putIfAbsent(this.nodeNames.get(i), i);
+		}
+	}
+
+	/**
+	 * @return the index of the given node or -1 if it's not a node of the model
+	 */
+	int getIndex(String nodeName) {
+		Integer index = indexes.get(nodeName);
+		return (index != null) ? index : -1;
+	}
+
+	/**
+	 * @return an unmodifiable list of the node names
+	 */
+	List<String> getNodeNames() {
+		return nodeNames;
+	}
+}
@@ -0,0 +1,46 @@
+package eu.druglogics.gitsbe.model;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Interns the node names that appear in the boolean equations: every distinct name
+ * (including the constants <i>true</i> and <i>false</i>) gets a unique, never changing
+ * integer id, which is what the {@link BooleanEquation} objects store. The names
+ * are only looked up when an equation is converted to a string (I/O boundary).
+ *
+ * All methods are thread-safe.
+ */
+final class NodeRegistry {
+
+	private static final ConcurrentHashMap<String, Integer> ids = new ConcurrentHashMap<>();
+	private static volatile String[] names = new String[256];
+	private static int size = 0;
+
+	private NodeRegistry() {}
+
+	/**
+	 * @return the id of the given node name (registered if it's new)
+	 */
+	static int getId(String name) {
+		Integer id = ids.get(name);
+		return (id != null) ? id : register(name);
+	}
+
+	private static synchronized int register(String name) {
+		Integer id = ids.get(name);
+		if (id != null) return id;
+
+		if (size == names.length) {
+			names = Arrays.copyOf(names, size * 2);
+		}
+		names[size] = name;
+		ids.put(name, size);
+
+		return size++;
+	}
+
+	static String getName(int id) {
+		return names[id];
+	}
+}
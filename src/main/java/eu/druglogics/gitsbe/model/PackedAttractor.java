@@ -0,0 +1,146 @@
+package eu.druglogics.gitsbe.model;
+
+import java.util.Arrays;
+
+/**
+ * An attractor (stable state or trapspace) packed in two bitsets: one with the values of
+ * the nodes and one with the <i>free</i> nodes (the ones whose value is not fixed in a
+ * trapspace, represented with a dash in the String form). The bit of a node is at the
+ * node's index (the index of its equation in the model).
+ *
+ * The objects are immutable, so they can be shared (e.g. by the {@link AttractorCache}).
+ */
+final class PackedAttractor {
+
+	private static final long[] NO_FREE_NODES = new long[0];
+
+	private final int numberOfNodes;
+	private final long[] values;
+	private final long[] free; // empty for stable states
+
+	private PackedAttractor(int numberOfNodes, long[] values, long[] free) {
+		this.numberOfNodes = numberOfNodes;
+		this.values = values;
+		this.free = free;
+	}
+
+	/**
+	 * @param state the stable state, in the packed form of the {@link StableStateSolver}
+	 */
+	static PackedAttractor fromStableState(long[] state, int numberOfNodes) {
+		return new PackedAttractor(numberOfNodes, state, NO_FREE_NODES);
+	}
+
+	/**
+	 * @param state the state as returned by BioLQM (0 or 1 for every node, -1 for free nodes)
+	 */
+	static PackedAttractor fromByteArray(byte[] state) {
+		long[] values = new long[getNumberOfWords(state.length)];
+		long[] free = new long[values.length];
+		boolean hasFreeNodes = false;
+
+		for (int i = 0; i < state.length; i++) {
+			if (state[i] == 1) {
+				values[i >>> 6] |= 1L << i;
+			} else if (state[i] < 0) {
+				free[i >>> 6] |= 1L << i;
+				hasFreeNodes = true;
+			}
+		}
+
+		return new PackedAttractor(state.length, values, hasFreeNodes ? free : NO_FREE_NODES);
+	}
+
+	/**
+	 * @param state a String with the value of every node: <i>0</i>, <i>1</i> or <i>-</i> (free)
+	 * @throws IllegalArgumentException if the String has any other character
+	 */
+	static PackedAttractor fromString(String state) {
+		long[] values = new long[getNumberOfWords(state.length())];
+		long[] free = new long[values.length];
+		boolean hasFreeNodes = false;
+
+		for (int i = 0; i < state.length(); i++) {
+			switch (state.charAt(i)) {
+				case '0':
+					break;
+				case '1':
+					values[i >>> 6] |= 1L << i;
+					break;
+				case '-':
+					free[i >>> 6] |= 1L << i;
+					hasFreeNodes = true;
+					break;
+				default:
+					throw new IllegalArgumentException("Attractor `" + state + "` has a node state "
+						+ "that is not 0, 1 or -");
+			}
+		}
+
+		return new PackedAttractor(state.length(), values, hasFreeNodes ? free : NO_FREE_NODES);
+	}
+
+	private static int getNumberOfWords(int numberOfNodes) {
+		return (numberOfNodes + 63) >>> 6;
+	}
+
+	int getNumberOfNodes() {
+		return numberOfNodes;
+	}
+
+	boolean isFree(int nodeIndex) {
+		return free.length > 0 && (free[nodeIndex >>> 6] & (1L << nodeIndex)) != 0;
+	}
+
+	/**
+	 * @return 0 or 1 (or 0.5 if the node's value is not fixed in a trapspace)
+	 */
+	float getNodeStateValue(int nodeIndex) {
+		if (nodeIndex < 0 || nodeIndex >= numberOfNodes)
+			throw new IndexOutOfBoundsException("Node index: " + nodeIndex + ", number of nodes: " + numberOfNodes);
+
+		if (isFree(nodeIndex)) return (float) 0.5;
+		return ((values[nodeIndex >>> 6] & (1L << nodeIndex)) != 0) ? 1 : 0;
+	}
+
+	/**
+	 * @return the node state as a character: <i>0</i>, <i>1</i> or <i>-</i> (free)
+	 */
+	char getNodeState(int nodeIndex) {
+		float value = getNodeStateValue(nodeIndex);
+		return (value == 0.5) ? '-' : (value == 1) ? '1' : '0';
+	}
+
+	/**
+	 * Is this a stable state? (no free nodes)
+	 */
+	boolean isStableState() {
+		return free.length == 0;
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		if (this == o) return true;
+		if (!(o instanceof PackedAttractor)) return false;
+		PackedAttractor that = (PackedAttractor) o;
+		return numberOfNodes == that.numberOfNodes && Arrays.equals(values, that.values)
+			&& Arrays.equals(free, that.free);
+	}
+
+	@Override
+	public int hashCode() {
+		return 31 * (31 * numberOfNodes + Arrays.hashCode(values)) + Arrays.hashCode(free);
+	}
+
+	/**
+	 * @return the attractor as a String (e.g. <i>01-1</i>)
+	 */
+	@Override
+	public String toString() {
+		char[] chars = new char[numberOfNodes];
+		for (int i = 0; i < numberOfNodes; i++) {
+			chars[i] = getNodeState(i);
+		}
+		return new String(chars);
+	}
+}
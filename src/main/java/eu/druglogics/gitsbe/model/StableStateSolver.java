@@ -0,0 +1,302 @@
+package eu.druglogics.gitsbe.model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+/**
+ * A pure-Java fixpoint (stable state) solver for {@link BooleanModel boolean models}.
+ * <br/><br/>
+ * Every {@link BooleanEquation} is compiled once to an index-based {@link Function}
+ * and the stable states are enumerated with a backtracking search: a partial
+ * assignment of the nodes is kept as two bitsets (<i>known</i> and <i>value</i>
+ * words) and after every decision, the functions of the affected nodes are evaluated
+ * with three-valued logic. A function that is already determined by the partial assignment
+ * forces the value of its target node (or signals a conflict), so most of the search
+ * space is pruned without ever being visited.
+ * <br/><br/>
+ * The stable states are returned <b>packed</b>: bit <i>i</i> of a state (word <i>i / 64</i>)
+ * is the value of the <i>i</i>-th node of the model, see {@link #getNodeState(long[], int)}.
+ */
+class StableStateSolver {
+
+	static final int FALSE = 0;
+	static final int TRUE = 1;
+	static final int UNKNOWN = 2;
+
+	// literal ids for the constant regulators (node literals are the node indexes)
+	static final int LITERAL_TRUE = -1;
+	static final int LITERAL_FALSE = -2;
+
+	private final int numberOfNodes;
+	private final int numberOfWords;
+	private final Function[] functions;
+
+	// for every node, the nodes whose functions depend on it
+	private final int[][] dependents;
+
+	// the order in which undecided nodes are picked for branching
+	private final int[] branchingOrder;
+
+	StableStateSolver(BooleanModel booleanModel) throws Exception {
+		List<BooleanEquation> booleanEquations = booleanModel.booleanEquations;
+		this.numberOfNodes = booleanEquations.size();
+		this.numberOfWords = getNumberOfWords(numberOfNodes);
+
+		Map<String, Integer> nodeIndexes = new HashMap<>();
+		for (int i = 0; i < numberOfNodes; i++) {
+			nodeIndexes.put(booleanEquations.get(i).getTarget().trim(), i);
+		}
+
+		this.functions = new Function[numberOfNodes];
+		for (int i = 0; i < numberOfNodes; i++) {
+			functions[i] = booleanEquations.get(i).getSolverFunction(nodeIndexes);
+		}
+
+		// build the dependency lists (each function is listed once per regulator node)
+		List<List<Integer>> dependentsLists = new ArrayList<>();
+		for (int i = 0; i < numberOfNodes; i++) {
+			dependentsLists.add(new ArrayList<>());
+		}
+		for (int i = 0; i < numberOfNodes; i++) {
+			for (int node : functions[i].getRegulatorNodes()) {
+				List<Integer> list = dependentsLists.get(node);
+				if (!list.contains(i)) list.add(i);
+			}
+		}
+
+		this.dependents = new int[numberOfNodes][];
+		for (int i = 0; i < numberOfNodes; i++) {
+			dependents[i] = dependentsLists.get(i).stream().mapToInt(Integer::intValue).toArray();
+		}
+
+		// branch first on the nodes that regulate the most other nodes
+		this.branchingOrder = IntStream.range(0, numberOfNodes).boxed()
+			.sorted((a, b) -> Integer.compare(dependents[b].length, dependents[a].length))
+			.mapToInt(Integer::intValue).toArray();
+	}
+
+	/**
+	 * Enumerates all the stable states of the model.
+	 *
+	 * @return a list of packed stable states, sorted in ascending order (node
+	 * with index 0 being the most significant)
+	 */
+	List<long[]> getStableStates() {
+		List<long[]> stableStates = new ArrayList<>();
+		if (numberOfNodes == 0) return stableStates;
+
+		long[] known = new long[numberOfWords];
+		long[] value = new long[numberOfWords];
+
+		// the functions that are constant or have no free variables are resolved first
+		int[] queue = new int[numberOfNodes];
+		for (int i = 0; i < numberOfNodes; i++) queue[i] = i;
+
+		if (propagate(known, value, queue, numberOfNodes)) {
+			search(known, value, stableStates);
+		}
+
+		stableStates.sort(StableStateSolver::compareStates);
+		return stableStates;
+	}
+
+	private void search(long[] known, long[] value, List<long[]> stableStates) {
+		int node = getFirstUnknownNode(known);
+		if (node < 0) {
+			stableStates.add(value.clone());
+			return;
+		}
+
+		for (int nodeValue = 0; nodeValue <= 1; nodeValue++) {
+			long[] knownCopy = known.clone();
+			long[] valueCopy = value.clone();
+			setNodeState(knownCopy, valueCopy, node, nodeValue == 1);
+
+			if (propagate(knownCopy, valueCopy, dependents[node], dependents[node].length)) {
+				search(knownCopy, valueCopy, stableStates);
+			}
+		}
+	}
+
+	/**
+	 * Propagates the consequences of the partial assignment: the functions of the nodes
+	 * in the queue are evaluated and whenever one is determined, the value of its target
+	 * node is forced and the functions depending on it are re-evaluated.
+	 *
+	 * @return false if a conflict was found (no stable state extends the partial assignment)
+	 */
+	private boolean propagate(long[] known, long[] value, int[] initialQueue, int initialSize) {
+		int[] queue = new int[numberOfNodes];
+		boolean[] inQueue = new boolean[numberOfNodes];
+		int head = 0;
+		int size = 0;
+
+		for (int i = 0; i < initialSize; i++) {
+			int node = initialQueue[i];
+			if (!inQueue[node]) {
+				inQueue[node] = true;
+				queue[(head + size++) % numberOfNodes] = node;
+			}
+		}
+
+		while (size > 0) {
+			int node = queue[head];
+			head = (head + 1) % numberOfNodes;
+			size--;
+			inQueue[node] = false;
+
+			int result = functions[node].evaluate(known, value);
+			if (result == UNKNOWN) continue;
+
+			if (isKnown(known, node)) {
+				if (getNodeState(value, node) != (result == TRUE)) return false;
+			} else {
+				setNodeState(known, value, node, result == TRUE);
+				for (int dependent : dependents[node]) {
+					if (!inQueue[dependent]) {
+						inQueue[dependent] = true;
+						queue[(head + size++) % numberOfNodes] = dependent;
+					}
+				}
+			}
+		}
+
+		return true;
+	}
+
+	private int getFirstUnknownNode(long[] known) {
+		for (int node : branchingOrder) {
+			if (!isKnown(known, node)) return node;
+		}
+		return -1;
+	}
+
+	int getNumberOfNodes() {
+		return numberOfNodes;
+	}
+
+	static int getNumberOfWords(int numberOfNodes) {
+		return (numberOfNodes + 63) >>> 6;
+	}
+
+	static boolean getNodeState(long[] state, int node) {
+		return (state[node >>> 6] & (1L << node)) != 0;
+	}
+
+	private static boolean isKnown(long[] known, int node) {
+		return (known[node >>> 6] & (1L << node)) != 0;
+	}
+
+	private static void setNodeState(long[] known, long[] value, int node, boolean nodeValue) {
+		known[node >>> 6] |= (1L << node);
+		if (nodeValue) value[node >>> 6] |= (1L << node);
+	}
+
+	/**
+	 * Renders a packed state as a String of 0's and 1's (e.g. <i>"0110"</i>)
+	 */
+	static String stateToString(long[] state, int numberOfNodes) {
+		char[] chars = new char[numberOfNodes];
+		for (int i = 0; i < numberOfNodes; i++) {
+			chars[i] = getNodeState(state, i) ? '1' : '0';
+		}
+		return new String(chars);
+	}
+
+	private static int compareStates(long[] state1, long[] state2) {
+		int length = state1.length << 6;
+		for (int i = 0; i < length; i++) {
+			boolean value1 = getNodeState(state1, i);
+			boolean value2 = getNodeState(state2, i);
+			if (value1 != value2) return value1 ? 1 : -1;
+		}
+		return 0;
+	}
+
+	/**
+	 * The compiled form of a {@link BooleanEquation}: the whitelisted activating and
+	 * inhibitory regulators (as literal ids) combined from left to right with their
+	 * operators and joined with the link operator.
+	 */
+	static class Function {
+
+		private final int[] activatingLiterals;
+		private final boolean[] activatingAndOperators;
+		private final int[] inhibitoryLiterals;
+		private final boolean[] inhibitoryAndOperators;
+		private final boolean orLink;
+
+		/**
+		 * @param activatingAndOperators element <i>i</i> is the operator (true for <i>and</i>)
+		 *                               that combines literal <i>i+1</i> with the previous ones
+		 */
+		Function(int[] activatingLiterals, boolean[] activatingAndOperators,
+				 int[] inhibitoryLiterals, boolean[] inhibitoryAndOperators, boolean orLink) {
+			this.activatingLiterals = activatingLiterals;
+			this.activatingAndOperators = activatingAndOperators;
+			this.inhibitoryLiterals = inhibitoryLiterals;
+			this.inhibitoryAndOperators = inhibitoryAndOperators;
+			this.orLink = orLink;
+		}
+
+		int evaluate(long[] known, long[] value) {
+			if (inhibitoryLiterals.length == 0)
+				return evaluate(activatingLiterals, activatingAndOperators, known, value);
+
+			int inhibitory = not(evaluate(inhibitoryLiterals, inhibitoryAndOperators, known, value));
+			if (activatingLiterals.length == 0)
+				return inhibitory;
+
+			int activating = evaluate(activatingLiterals, activatingAndOperators, known, value);
+			return orLink ? or(activating, inhibitory) : and(activating, inhibitory);
+		}
+
+		int[] getRegulatorNodes() {
+			return Arrays.stream(concat(activatingLiterals, inhibitoryLiterals))
+				.filter(literal -> literal >= 0)
+				.toArray();
+		}
+
+		private static int evaluate(int[] literals, boolean[] andOperators, long[] known, long[] value) {
+			int result = evaluateLiteral(literals[0], known, value);
+			for (int i = 1; i < literals.length; i++) {
+				int literal = evaluateLiteral(literals[i], known, value);
+				result = andOperators[i - 1] ? and(result, literal) : or(result, literal);
+			}
+			return result;
+		}
+
+		private static int evaluateLiteral(int literal, long[] known, long[] value) {
+			if (literal == LITERAL_TRUE) return TRUE;
+			if (literal == LITERAL_FALSE) return FALSE;
+			if (!isKnown(known, literal)) return UNKNOWN;
+			return getNodeState(value, literal) ? TRUE : FALSE;
+		}
+
+		private static int not(int a) {
+			return (a == UNKNOWN) ? UNKNOWN : 1 - a;
+		}
+
+		private static int and(int a, int b) {
+			if (a == FALSE || b == FALSE) return FALSE;
+			if (a == TRUE && b == TRUE) return TRUE;
+			return UNKNOWN;
+		}
+
+		private static int or(int a, int b) {
+			if (a == TRUE || b == TRUE) return TRUE;
+			if (a == FALSE && b == FALSE) return FALSE;
+			return UNKNOWN;
+		}
+
+		private static int[] concat(int[] a, int[] b) {
+			int[] result = Arrays.copyOf(a, a.length + b.length);
+			System.arraycopy(b, 0, result, a.length, b.length);
+			return result;
+		}
+	}
+}
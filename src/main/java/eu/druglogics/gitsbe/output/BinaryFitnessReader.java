@@ -0,0 +1,111 @@
+package eu.druglogics.gitsbe.output;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+import static eu.druglogics.gitsbe.output.BinaryFitnessWriter.HEADER_SIZE;
+import static eu.druglogics.gitsbe.output.BinaryFitnessWriter.MAGIC;
+import static eu.druglogics.gitsbe.output.BinaryFitnessWriter.RECORD_HEADER_SIZE;
+import static eu.druglogics.gitsbe.output.BinaryFitnessWriter.VERSION;
+
+/**
+ * Reads a fitness evolution file written by {@link BinaryFitnessWriter}. The file is
+ * memory-mapped and only the record headers are read when it's opened: the fitness
+ * values are read from the mapped file on demand.
+ */
+public class BinaryFitnessReader {
+
+	private final MappedByteBuffer buffer;
+
+	// the position of every record (generation) in the file
+	private final int[] recordPositions;
+
+	public BinaryFitnessReader(String filename) throws IOException {
+		try (FileChannel channel = FileChannel.open(Paths.get(filename), StandardOpenOption.READ)) {
+			if (channel.size() > Integer.MAX_VALUE) {
+				throw new IOException("File too large to be memory-mapped: " + filename);
+			}
+			// the mapping stays valid after the channel is closed
+			this.buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+		}
+
+		if (buffer.limit() < HEADER_SIZE || buffer.getInt(0) != MAGIC) {
+			throw new IOException("Not a binary fitness file: " + filename);
+		}
+		if (buffer.getInt(4) != VERSION) {
+			throw new IOException("Unsupported binary fitness file version: " + buffer.getInt(4));
+		}
+
+		int[] positions = new int[16];
+		int records = 0;
+		int position = HEADER_SIZE;
+		while (position + RECORD_HEADER_SIZE <= buffer.limit()) {
+			// the model count is checked before the record's end is calculated, so that
+			// a corrupt count can't overflow it
+			int models = buffer.getInt(position + 8);
+			if (models < 0 || models > (buffer.limit() - position - RECORD_HEADER_SIZE) / 4) {
+				throw new IOException("Truncated record " + records + " in binary fitness file: " + filename);
+			}
+			int next = position + RECORD_HEADER_SIZE + 4 * models;
+
+			if (records == positions.length) {
+				positions = Arrays.copyOf(positions, 2 * records);
+			}
+			positions[records++] = position;
+			position = next;
+		}
+
+		this.recordPositions = Arrays.copyOf(positions, records);
+	}
+
+	/**
+	 * @return the number of records (generations of all the simulations)
+	 */
+	public int getNumberOfRecords() {
+		return recordPositions.length;
+	}
+
+	/**
+	 * @return the simulation number (starting from 1) of the given record
+	 */
+	public int getSimulation(int record) {
+		return buffer.getInt(recordPositions[record]);
+	}
+
+	/**
+	 * @return the generation (starting from 0) of the given record
+	 */
+	public int getGeneration(int record) {
+		return buffer.getInt(recordPositions[record] + 4);
+	}
+
+	/**
+	 * @return the number of models (fitness values) of the given record
+	 */
+	public int getNumberOfModels(int record) {
+		return buffer.getInt(recordPositions[record] + 8);
+	}
+
+	public float getFitness(int record, int model) {
+		if (model < 0 || model >= getNumberOfModels(record)) {
+			throw new IndexOutOfBoundsException("Model: " + model + ", Models: " + getNumberOfModels(record));
+		}
+		return buffer.getFloat(recordPositions[record] + RECORD_HEADER_SIZE + 4 * model);
+	}
+
+	/**
+	 * @return the fitness values of all the models of the given record (a new array)
+	 */
+	public float[] getFitnesses(int record) {
+		float[] fitnesses = new float[getNumberOfModels(record)];
+		int position = recordPositions[record] + RECORD_HEADER_SIZE;
+		for (int model = 0; model < fitnesses.length; model++) {
+			fitnesses[model] = buffer.getFloat(position + 4 * model);
+		}
+		return fitnesses;
+	}
+}
@@ -0,0 +1,61 @@
+package eu.druglogics.gitsbe.output;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Writes the fitness evolution of the simulations in a compact binary format, which
+ * can be memory-mapped by the analysis tools (see {@link BinaryFitnessReader}). All
+ * values are big-endian:
+ * <ul>
+ *     <li>header: the magic number <i>GFIT</i> (int) and the format version (int)</li>
+ *     <li>one record per generation of every simulation: the simulation number (int,
+ *     starting from 1), the generation (int, starting from 0), the number of models (int)
+ *     and their fitness values (packed floats, in the order of the models)</li>
+ * </ul>
+ * The records of a simulation are written together, when the simulation finishes.
+ */
+public class BinaryFitnessWriter implements Closeable {
+
+	static final int MAGIC = 0x47464954; // "GFIT"
+	static final int VERSION = 1;
+	static final int HEADER_SIZE = 8;
+	static final int RECORD_HEADER_SIZE = 12;
+
+	private final DataOutputStream out;
+
+	public BinaryFitnessWriter(String filename) throws IOException {
+		this.out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(filename)));
+
+		out.writeInt(MAGIC);
+		out.writeInt(VERSION);
+	}
+
+	/**
+	 * @param simulation the simulation number (starting from 1)
+	 * @param fitness the fitness values of the models of every generation
+	 */
+	public void writeSimulation(int simulation, List<float[]> fitness) throws IOException {
+		for (int generation = 0; generation < fitness.size(); generation++) {
+			float[] generationFitnesses = fitness.get(generation);
+
+			out.writeInt(simulation);
+			out.writeInt(generation);
+			out.writeInt(generationFitnesses.length);
+			for (float fitnessValue : generationFitnesses) {
+				out.writeFloat(fitnessValue);
+			}
+		}
+
+		out.flush();
+	}
+
+	@Override
+	public void close() throws IOException {
+		out.close();
+	}
+}
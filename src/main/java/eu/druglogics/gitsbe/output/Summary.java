@@ -4,6 +4,8 @@ import eu.druglogics.gitsbe.input.Config;
 import eu.druglogics.gitsbe.model.MutatedBooleanModel;
 import eu.druglogics.gitsbe.util.Logger;
 
+import java.io.BufferedWriter;
+import java.io.FileWriter;
 import java.io.IOException;
 import java.io.PrintWriter;
 import java.util.ArrayList;
@@ -19,57 +21,195 @@ import java.util.stream.Stream;
 
 public class Summary {
 
-	// All best models from all the simulations
-	private List<ArrayList<MutatedBooleanModel>> bestModels;
-	// All fitnesses observed in all the simulations
-	private List<ArrayList<float[]>> fitness;
+	// The filenames of the best models of all the simulations (up to `models_saved` per simulation)
+	private List<ArrayList<String>> bestModelFilenames;
+	// The line with the skipped (already evaluated) fitness evaluations of every simulation
+	private String[] skippedEvaluationsLines;
 	private String summaryFilename;
+	// The summary file stays open for the whole run: the fitness evolution of every
+	// simulation is appended to it as soon as the simulation and all the previous ones finish
+	// (opened when the first line is written, see getWriter())
+	private BufferedWriter writer;
+	// The fitness evolution of the finished simulations that wait for a previous one
+	private List<float[]>[] pendingFitnesses;
+	// The simulation whose fitness evolution is written next
+	private int nextSimulation;
+	// Optional binary copy of the fitness evolution (null: not written)
+	private BinaryFitnessWriter binaryFitnessWriter;
 	private Logger logger;
 
 	@SuppressWarnings("unchecked")
 	public Summary(String filename, Logger logger) {
 		int simulations = Config.getInstance().getSimulations();
-		this.bestModels = Arrays.asList (Stream.generate (ArrayList::new).limit
-				(simulations).toArray (ArrayList[]::new));
-		this.fitness = Arrays.asList (Stream.generate (ArrayList::new).limit
+		this.bestModelFilenames = Arrays.asList (Stream.generate (ArrayList::new).limit
 				(simulations).toArray (ArrayList[]::new));
+		this.skippedEvaluationsLines = new String[simulations];
+		this.pendingFitnesses = new List[simulations];
+		this.nextSimulation = 0;
 		this.setSummaryFilename(filename);
 		this.logger = logger;
 	}
 
-	public void generateFitnessesReport() {
+	/**
+	 * Use this function to also write the fitness evolution of the simulations to the given
+	 * binary file (see {@link BinaryFitnessWriter})
+	 *
+	 * @param filename
+	 */
+	public synchronized void setBinaryFitnessFile(String filename) throws IOException {
+		this.binaryFitnessWriter = new BinaryFitnessWriter(filename);
+	}
 
-		logger.outputHeaderToFile(summaryFilename, "Fitness evolution");
+	/**
+	 * Completes the summary file with the skipped fitness evaluations of all the simulations
+	 * and closes it (the fitness evolution of every simulation is already written, see
+	 * {@link #addSimulationFitnesses(List, int)}, unless a previous simulation never finished)
+	 */
+	public synchronized void generateFitnessesReport() {
+		try {
+			for (; nextSimulation < pendingFitnesses.length; nextSimulation++) {
+				if (pendingFitnesses[nextSimulation] != null) {
+					writeSimulationFitnesses(nextSimulation);
+				}
+			}
+			getWriter().flush();
 
-		for (int i = 0; i < fitness.size(); i++) {
+			generateSkippedEvaluationsReport();
+			writer.close();
+			if (binaryFitnessWriter != null) {
+				binaryFitnessWriter.close();
+			}
+		} catch (IOException e) {
+			e.printStackTrace();
+			logger.outputStringMessage(1, "Problem writing the summary file: " + summaryFilename);
+		}
+	}
 
-			logger.outputStringMessageToFile(summaryFilename, "\nSimulation " + (i + 1));
-			ArrayList<float[]> simulationFitnesses = fitness.get(i);
+	private void generateSkippedEvaluationsReport() throws IOException {
 
-			for (float[] generationFitnesses : simulationFitnesses) {
-				StringBuilder builder = new StringBuilder();
-				String prefix = "";
-				for (float fitnessValue : generationFitnesses) {
-					builder.append(prefix).append(fitnessValue);
-					prefix = "\t";
-				}
-				logger.outputStringMessageToFile(summaryFilename, builder.toString());
+		writeHeader("Skipped fitness evaluations (already evaluated genomes)");
+
+		for (int i = 0; i < skippedEvaluationsLines.length; i++) {
+			String line = skippedEvaluationsLines[i];
+			writeLine((line != null) ? line : "Simulation " + (i + 1) + ":\t(total: 0)");
+		}
+	}
+
+	private void writeHeader(String header) throws IOException {
+		char[] dashes = new char[header.length()];
+		Arrays.fill(dashes, '-');
+
+		writeLine("");
+		writeLine(header);
+		writeLine(new String(dashes));
+	}
+
+	/**
+	 * Writes a line to the summary file and echoes it to the console (if the logger does)
+	 */
+	private void writeLine(String line) throws IOException {
+		BufferedWriter writer = getWriter();
+		writer.write(line);
+		writer.newLine();
+		logger.outputStringMessageToConsole(line);
+	}
+
+	/**
+	 * @return the writer of the summary file, which is created (with the header of the
+	 * fitness evolution) the first time
+	 */
+	private BufferedWriter getWriter() throws IOException {
+		if (writer == null) {
+			writer = new BufferedWriter(new FileWriter(summaryFilename));
+			writeHeader("Fitness evolution");
+		}
+		return writer;
+	}
+
+	/**
+	 * Writes the fitness values of all the models of all the generations of a finished
+	 * simulation to the summary file. The simulations are written in their order: when
+	 * simulations run in parallel, a simulation that finishes before a previous one is
+	 * held back until all the previous simulations are written.
+	 *
+	 * @param fitness
+	 * @param simulation
+	 */
+	public synchronized void addSimulationFitnesses(List<float[]> fitness, int simulation) {
+		pendingFitnesses[simulation] = fitness;
+
+		try {
+			for (; nextSimulation < pendingFitnesses.length && pendingFitnesses[nextSimulation] != null;
+				 nextSimulation++) {
+				writeSimulationFitnesses(nextSimulation);
 			}
 
+			// the fitness evolution of the written simulations is visible in the file right away
+			getWriter().flush();
+		} catch (IOException e) {
+			e.printStackTrace();
+			logger.outputStringMessage(1, "Problem writing the fitness evolution of simulation "
+				+ (nextSimulation + 1) + " to the summary file: " + summaryFilename);
 		}
 	}
 
+	/**
+	 * Same as {@link #addSimulationFitnesses(List, int)}
+	 */
 	public void addSimulationFitnesses(ArrayList<float[]> fitness, int simulation) {
-		this.fitness.set(simulation, fitness);
+		addSimulationFitnesses((List<float[]>) fitness, simulation);
+	}
+
+	private void writeSimulationFitnesses(int simulation) throws IOException {
+		List<float[]> fitness = pendingFitnesses[simulation];
+		pendingFitnesses[simulation] = null;
+
+		writeLine("");
+		writeLine("Simulation " + (simulation + 1));
+
+		StringBuilder builder = new StringBuilder();
+		for (float[] generationFitnesses : fitness) {
+			builder.setLength(0);
+			String prefix = "";
+			for (float fitnessValue : generationFitnesses) {
+				builder.append(prefix).append(fitnessValue);
+				prefix = "\t";
+			}
+			writeLine(builder.toString());
+		}
+
+		if (binaryFitnessWriter != null) {
+			binaryFitnessWriter.writeSimulation(simulation + 1, fitness);
+		}
+	}
+
+	public synchronized void addSimulationSkippedEvaluations(List<Integer> skippedEvaluations, int simulation) {
+		StringBuilder builder = new StringBuilder("Simulation " + (simulation + 1) + ":");
+		int total = 0;
+		for (int skipped : skippedEvaluations) {
+			builder.append("\t").append(skipped);
+			total += skipped;
+		}
+		builder.append("\t(total: ").append(total).append(")");
+		skippedEvaluationsLines[simulation] = builder.toString();
 	}
 
-	public void addModel(int simulation, MutatedBooleanModel model) {
-		bestModels.get(simulation).add(model);
+	/**
+	 * Adds a saved best model of a simulation to the models list of the summary. Only the
+	 * filename of the model is kept (see {@link #saveBestModelsToFile(String)}).
+	 *
+	 * @param simulation
+	 * @param model
+	 */
+	public synchronized void addModel(int simulation, MutatedBooleanModel model) {
+		ArrayList<String> filenames = bestModelFilenames.get(simulation);
+		if (filenames.size() < Config.getInstance().getNumOfModelsToSave()) {
+			filenames.add(model.getFilename());
+		}
 	}
 
 	public void saveBestModelsToFile(String filename) throws IOException {
 
-		int maxNumOfModelsToSave = Config.getInstance().getNumOfModelsToSave();
 		PrintWriter writer = new PrintWriter(filename, "UTF-8");
 
 		// Write header with '#'
@@ -77,13 +217,9 @@ public class Summary {
 				"a model that will be used by Drabme");
 		
 		// Write columns with model-defined node names for Veliz-Cuba's algorithm
-		bestModels.forEach(bestModelsPerSimulation -> {
-			int count = 0;
-			for (MutatedBooleanModel bestModel : bestModelsPerSimulation)
-				if (count < maxNumOfModelsToSave) {
-					writer.println(bestModel.getFilename());
-					count++;
-				}
+		bestModelFilenames.forEach(bestModelFilenamesPerSimulation -> {
+			for (String bestModelFilename : bestModelFilenamesPerSimulation)
+				writer.println(bestModelFilename);
 		});
 
 		writer.close();
@@ -5,8 +5,8 @@ import java.io.File;
 public class FileDeleter {
 	
 	// This is the directory fileDeleter is associated with
-	private static String directory;
-	private static boolean state;
+	private static volatile String directory;
+	private static volatile boolean state;
 	
 	public FileDeleter(String directory) {
 		FileDeleter.directory = directory;
@@ -29,13 +29,28 @@ public class FileDeleter {
 		return state;
 	}
 
+	/**
+	 * Deletes the files of the associated directory whose name (without the extension(s))
+	 * is exactly the given pattern, e.g. for pattern <i>model_1</i> the files <i>model_1.bnet</i>
+	 * and <i>model_1.dat.fp</i> are deleted, but not <i>model_10.bnet</i>. This way, the files of
+	 * models that are evaluated in parallel are never deleted by mistake.
+	 *
+	 * @param logger
+	 * @param pattern the name of the files to delete (usually a model name)
+	 * @deprecated the attractor calculation files of every model are now written in a scratch
+	 * directory of the model, which is removed with {@link #deleteDirectory(Logger, File)}
+	 */
+	@Deprecated
 	public static void deleteFilesMatchingPattern(Logger logger, String pattern) {
 		if (isActive()) {
 			File dir = new File(directory);
+			File[] files = dir.listFiles();
+			if (files == null) return;
 
-			for (File file : dir.listFiles()) {
+			String prefix = pattern.toLowerCase() + ".";
+			for (File file : files) {
 				String filename = file.getName();
-				if (filename.toLowerCase().contains(pattern.toLowerCase())) {
+				if (filename.toLowerCase().startsWith(prefix)) {
 					logger.outputStringMessage(2, "Deleting file: "
 							+ file.getName());
 					if (!file.delete())
@@ -62,13 +77,33 @@ public class FileDeleter {
 		}
 	}
 
+	/**
+	 * Deletes the given directory (e.g. the scratch directory of a single model
+	 * evaluation) and all its contents only if the fileDeleter is "activated".
+	 * Different threads can safely delete different directories at the same time.
+	 *
+	 * @param logger
+	 * @param dir
+	 */
+	public static void deleteDirectory(Logger logger, File dir) {
+		if (isActive()) {
+			logger.outputStringMessage(2, "Deleting directory: " + dir.getName());
+			deleteFilesFromDirectory(dir, logger);
+			if (!dir.delete())
+				logger.error("Couldn't delete directory: " + dir);
+		}
+	}
+
 	/**
 	 * Deletes all files (and directories recursively) from the specified directory
 	 * 
 	 * @param directory
 	 */
 	private static void deleteFilesFromDirectory(File directory, Logger logger) {
-		for (File file : directory.listFiles()) {
+		File[] files = directory.listFiles();
+		if (files == null) return;
+
+		for (File file : files) {
 			if (file.isDirectory())
 				deleteFilesFromDirectory(file, logger);
 			if (!file.delete())
@@ -0,0 +1,55 @@
+package eu.druglogics.gitsbe.util;
+
+/**
+ * Collects the latencies of repeated calls (e.g. of an external tool) so that
+ * the slowest one can be spotted. All methods are thread-safe.
+ */
+public class LatencyStatistics {
+
+	private long calls;
+	private long timeouts;
+	private long totalMilliseconds;
+	private long maxMilliseconds;
+	private String slowestCall;
+
+	/**
+	 * @param name the name of the call (e.g. the model name)
+	 * @param milliseconds the duration of the call
+	 * @param timedOut true if the call was stopped because it took too long
+	 */
+	public synchronized void record(String name, long milliseconds, boolean timedOut) {
+		calls++;
+		totalMilliseconds += milliseconds;
+		if (timedOut) timeouts++;
+
+		if (milliseconds > maxMilliseconds || slowestCall == null) {
+			maxMilliseconds = milliseconds;
+			slowestCall = name;
+		}
+	}
+
+	public synchronized long getCalls() {
+		return calls;
+	}
+
+	public synchronized long getTimeouts() {
+		return timeouts;
+	}
+
+	public synchronized long getMaxMilliseconds() {
+		return maxMilliseconds;
+	}
+
+	public synchronized String getSlowestCall() {
+		return slowestCall;
+	}
+
+	public synchronized long getMeanMilliseconds() {
+		return (calls == 0) ? 0 : totalMilliseconds / calls;
+	}
+
+	public synchronized String getStatistics() {
+		return "Calls: " + calls + ", mean: " + getMeanMilliseconds() + " ms, max: "
+			+ maxMilliseconds + " ms (" + slowestCall + "), timeouts: " + timeouts;
+	}
+}
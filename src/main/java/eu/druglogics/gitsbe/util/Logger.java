@@ -5,6 +5,10 @@ import java.text.DateFormat;
 import java.text.SimpleDateFormat;
 import java.util.Arrays;
 import java.util.Calendar;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
 
 /**
  * A (very) simple logger
@@ -17,7 +21,23 @@ import java.util.Calendar;
 
 public class Logger {
 
+	private static final String LINE_SEPARATOR = System.lineSeparator();
+
+	// Asynchronous mode: the messages are queued and written (and flushed) by a separate thread
+	private static final int ASYNC_QUEUE_CAPACITY = 8192;
+	private static final int ASYNC_FLUSH_MESSAGES = 512;
+	private static final long ASYNC_FLUSH_INTERVAL_MS = 200;
+	private static final String END_OF_QUEUE = new String(""); // compared by reference
+
 	private PrintWriter writerOutput;
+	private StringWriter buffer; // only used by in-memory (buffered) loggers
+	private BlockingQueue<String> queue; // only used in asynchronous mode
+	private Thread writerThread;
+	private Thread shutdownHook;
+	private volatile boolean finished;
+	// guards the switch from the queue to direct writing: a message is either queued before
+	// the end of the queue or written directly after the writer thread has stopped
+	private final Object asyncLock = new Object();
 
 	private boolean consoleOutput;
 	private boolean debugMode;
@@ -51,7 +71,155 @@ public class Logger {
 		outputStringMessage(1, "Logger started, logging to directory: " + directory);
 	}
 
-	public void finish() {
+	/**
+	 * Initialize an in-memory (buffered) logger with the same verbosity and debug mode as
+	 * the given logger. The buffered messages are written to a logger with
+	 * {@link #flushBufferTo(Logger)}.
+	 *
+	 * @param logger
+	 */
+	private Logger(Logger logger) {
+		this.buffer = new StringWriter();
+		this.writerOutput = new PrintWriter(buffer);
+
+		this.setVerbosity(logger.verbosity);
+		this.consoleOutput = false;
+		this.debugMode = logger.debugMode;
+	}
+
+	/**
+	 * Use this function to get a new in-memory logger, e.g. for a worker thread whose
+	 * messages should be written to this logger in a deterministic order
+	 * (see {@link #flushBufferTo(Logger)})
+	 */
+	public Logger newBufferedLogger() {
+		return new Logger(this);
+	}
+
+	/**
+	 * Writes all the messages buffered in this (in-memory) logger to the given logger
+	 * and empties the buffer
+	 *
+	 * @param logger
+	 */
+	public void flushBufferTo(Logger logger) {
+		if (buffer == null) return;
+
+		writerOutput.flush();
+		String messages = buffer.toString();
+		buffer.getBuffer().setLength(0);
+
+		if (!messages.isEmpty()) {
+			logger.outputBufferedMessages(messages);
+		}
+	}
+
+	private synchronized void outputBufferedMessages(String messages) {
+		write(messages);
+	}
+
+	/**
+	 * Switch to asynchronous mode: from now on the messages are put in a bounded queue
+	 * (the caller only waits if the queue is full) and a separate thread writes them,
+	 * flushing the output file every {@value #ASYNC_FLUSH_MESSAGES} messages, or after
+	 * {@value #ASYNC_FLUSH_INTERVAL_MS} ms, or when no more messages are queued.
+	 * The remaining messages are written when the logger {@link #finish() finishes}
+	 * or when the JVM exits.
+	 */
+	public synchronized void startAsync() {
+		if (queue != null || buffer != null || finished) return;
+
+		queue = new ArrayBlockingQueue<>(ASYNC_QUEUE_CAPACITY);
+		writerThread = new Thread(this::writeQueuedMessages, "logger-writer");
+		writerThread.setDaemon(true);
+		writerThread.start();
+
+		shutdownHook = new Thread(this::finish);
+		Runtime.getRuntime().addShutdownHook(shutdownHook);
+	}
+
+	public boolean isAsync() {
+		return queue != null;
+	}
+
+	private void write(String text) {
+		if (queue != null) {
+			synchronized (asyncLock) {
+				if (!finished) {
+					try {
+						queue.put(text);
+						return;
+					} catch (InterruptedException e) {
+						Thread.currentThread().interrupt();
+					}
+				}
+			}
+		}
+
+		writerOutput.print(text);
+		writerOutput.flush();
+		if (consoleOutput)
+			System.out.print(text);
+	}
+
+	private void writeQueuedMessages() {
+		int unflushed = 0;
+		long lastFlush = System.currentTimeMillis();
+
+		try {
+			while (true) {
+				String text = queue.poll(ASYNC_FLUSH_INTERVAL_MS, TimeUnit.MILLISECONDS);
+				if (text == END_OF_QUEUE) break;
+
+				if (text != null) {
+					writerOutput.print(text);
+					if (consoleOutput)
+						System.out.print(text);
+					unflushed++;
+				}
+
+				long now = System.currentTimeMillis();
+				if (unflushed > 0 && (text == null || queue.isEmpty()
+					|| unflushed >= ASYNC_FLUSH_MESSAGES || now - lastFlush >= ASYNC_FLUSH_INTERVAL_MS)) {
+					writerOutput.flush();
+					unflushed = 0;
+					lastFlush = now;
+				}
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+
+		writerOutput.flush();
+	}
+
+	public synchronized void finish() {
+		if (finished) return;
+
+		if (queue != null) {
+			// the messages written meanwhile wait until the writer thread has stopped
+			// (the writer thread keeps emptying the queue, so a waiting put() returns)
+			synchronized (asyncLock) {
+				finished = true;
+				try {
+					queue.put(END_OF_QUEUE);
+					writerThread.join();
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+			}
+
+			if (Thread.currentThread() != shutdownHook) {
+				try {
+					Runtime.getRuntime().removeShutdownHook(shutdownHook);
+				} catch (IllegalStateException ignored) {
+					// the JVM is already shutting down
+				}
+			}
+		} else {
+			finished = true;
+		}
+
 		writerOutput.close();
 	}
 
@@ -84,10 +252,19 @@ public class Logger {
 	 */
 	public void outputStringMessage(int verbosity, String msg) {
 		if (verbosity <= this.verbosity) {
-			writerOutput.println(msg);
-			writerOutput.flush();
-			if (consoleOutput)
-				System.out.println(msg);
+			write(msg + LINE_SEPARATOR);
+		}
+	}
+
+	/**
+	 * Output message that is only built if the verbosity level is enabled
+	 *
+	 * @param verbosity
+	 * @param msg
+	 */
+	public void outputStringMessage(int verbosity, Supplier<String> msg) {
+		if (verbosity <= this.verbosity) {
+			outputStringMessage(verbosity, msg.get());
 		}
 	}
 
@@ -99,12 +276,11 @@ public class Logger {
 	 */
 	public void outputLines(int verbosity, String[] msg) {
 		if (verbosity <= this.verbosity) {
+			StringBuilder lines = new StringBuilder();
 			for (String line : msg) {
-				writerOutput.println(line);
-				if (consoleOutput)
-					System.out.println(line);
+				lines.append(line).append(LINE_SEPARATOR);
 			}
-			writerOutput.flush();
+			write(lines.toString());
 		}
 	}
 
@@ -159,6 +335,17 @@ public class Logger {
 		}
 	}
 
+	/**
+	 * Output line only to the console (if the logger writes to the console), e.g. a line
+	 * that is written to a separate file. Ignores verbosity-level
+	 *
+	 * @param msg
+	 */
+	public void outputStringMessageToConsole(String msg) {
+		if (consoleOutput)
+			System.out.println(msg);
+	}
+
 	/**
 	 * Output section header
 	 * 
@@ -167,14 +354,19 @@ public class Logger {
 	 */
 	public void outputHeader(int verbosity, String msg) {
 		if (verbosity <= this.verbosity) {
-			writerOutput.println("\n" + msg);
-			writerOutput.println(dashes(msg.length()));
-
-			if (consoleOutput) {
-				System.out.println("\n" + msg);
-				System.out.println(dashes(msg.length()));
-			}
+			write("\n" + msg + LINE_SEPARATOR + dashes(msg.length()) + LINE_SEPARATOR);
+		}
+	}
 
+	/**
+	 * Output section header that is only built if the verbosity level is enabled
+	 *
+	 * @param verbosity
+	 * @param msg
+	 */
+	public void outputHeader(int verbosity, Supplier<String> msg) {
+		if (verbosity <= this.verbosity) {
+			outputHeader(verbosity, msg.get());
 		}
 	}
 
@@ -219,6 +411,16 @@ public class Logger {
 			outputStringMessage(1, "DEBUG: " + msg);
 	}
 
+	/**
+	 * Extra output to log if debug mode is active (the message is only built then)
+	 *
+	 * @param msg
+	 */
+	public void debug(Supplier<String> msg) {
+		if (debugMode)
+			debug(msg.get());
+	}
+
 	/**
 	 * Set debug mode
 	 * 
@@ -234,11 +436,7 @@ public class Logger {
 	 * @param message
 	 */
 	public void error(String message) {
-		String errorMessage = "ERROR: " + message;
-		writerOutput.println(errorMessage);
-		writerOutput.flush();
-		if (consoleOutput)
-			System.out.println(errorMessage);
+		write("ERROR: " + message + LINE_SEPARATOR);
 	}
 
 	public void writeFirstLoggingMessage(String appName, String version) {
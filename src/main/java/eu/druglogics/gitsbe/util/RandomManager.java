@@ -23,6 +23,15 @@ public class RandomManager {
         }
     }
 	
+	/**
+	 * get the random number generator of the current thread (e.g. to save its state)
+	 */
+	public static Random getRandom() {
+		Random r = RANDOMS.get();
+		if(r == null) throw new IllegalStateException("not within withRandom(...)");
+		return r;
+	}
+
 	/**
 	 * get random integer between min and max (inclusive)
 	 * 
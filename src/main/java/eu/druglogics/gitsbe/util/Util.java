@@ -9,6 +9,7 @@ import java.io.*;
 import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.Iterator;
+import java.util.PriorityQueue;
 
 /**
  * A simple class that has static methods useful for the whole project
@@ -373,6 +374,46 @@ public class Util {
 		return result;
 	}
 
+	/**
+	 * Finds the indexes of the <i>k</i> largest values in O(n log k), using a bounded
+	 * min-heap, without modifying the given array. Equal values are ordered by their
+	 * index (the lower index comes first) and NaN values are treated as the smallest ones.
+	 *
+	 * @param values
+	 * @param k
+	 * @return the indexes of the k largest values (all of them, if there are less than k),
+	 * in descending order of value
+	 */
+	public static int[] getTopIndexes(float[] values, int k) {
+		int size = Math.min(k, values.length);
+		if (size <= 0) return new int[0];
+
+		// the head of the heap is the worst selected index: the smallest value and,
+		// among equal values, the highest index
+		Comparator<Integer> worstFirst = (i, j) -> {
+			float a = Float.isNaN(values[i]) ? Float.NEGATIVE_INFINITY : values[i];
+			float b = Float.isNaN(values[j]) ? Float.NEGATIVE_INFINITY : values[j];
+			if (a != b) return (a < b) ? -1 : 1;
+			return Integer.compare(j, i);
+		};
+
+		PriorityQueue<Integer> heap = new PriorityQueue<>(size, worstFirst);
+		for (int i = 0; i < values.length; i++) {
+			if (heap.size() < size) {
+				heap.add(i);
+			} else if (worstFirst.compare(i, heap.peek()) > 0) {
+				heap.poll();
+				heap.add(i);
+			}
+		}
+
+		int[] topIndexes = new int[size];
+		for (int i = size - 1; i >= 0; i--) {
+			topIndexes[i] = heap.poll();
+		}
+		return topIndexes;
+	}
+
 	public static void abort() {
 		System.exit(1);
 	}
@@ -0,0 +1,49 @@
+#!/usr/bin/env python
+#
+# Long-lived mpbn worker used by Gitsbe to calculate the terminal trapspaces
+# of boolean models. It reads one request per line from stdin and writes the
+# response to stdout:
+#
+#   PING                         -> PONG
+#   <eq1>TAB<eq2>TAB...<eqN>     -> one trapspace per line, then END
+#
+# Each equation is in BoolNet format (`target, factors`). The trapspaces are
+# written with the nodes in the order of the equations ('*' for free nodes).
+# If a model can't be processed, a single `ERROR <message>` line is written
+# before END and the worker stays alive for the next request.
+
+import sys
+
+import mpbn
+
+
+def trapspaces(request):
+    nodes = []
+    rules = {}
+    for equation in request.split("\t"):
+        target, factors = equation.split(",", 1)
+        nodes.append(target.strip())
+        rules[target.strip()] = factors.strip()
+
+    network = mpbn.MPBooleanNetwork(rules)
+    for attractor in network.attractors():
+        yield "".join(str(attractor[node]) for node in nodes)
+
+
+def main():
+    for line in sys.stdin:
+        request = line.rstrip("\n")
+        if request == "PING":
+            sys.stdout.write("PONG\n")
+        elif request:
+            try:
+                for trapspace in trapspaces(request):
+                    sys.stdout.write(trapspace + "\n")
+            except Exception as e:
+                sys.stdout.write("ERROR " + str(e).replace("\n", " ") + "\n")
+            sys.stdout.write("END\n")
+        sys.stdout.flush()
+
+
+if __name__ == "__main__":
+    main()
@@ -19,18 +19,20 @@ class AttractorToolsTest {
         assertTrue(AttractorTools.contains("biolqm_stable_states"));
         assertTrue(AttractorTools.contains("biolqm_trapspaces"));
         assertTrue(AttractorTools.contains("mpbn_trapspaces"));
+        assertTrue(AttractorTools.contains("native_stable_states"));
 
         assertEquals("bnet_reduction", AttractorTools.BNREDUCTION_FULL.getTool());
         assertEquals("bnet_reduction_reduced", AttractorTools.BNREDUCTION_REDUCED.getTool());
         assertEquals("biolqm_stable_states", AttractorTools.BIOLQM_STABLE_STATES.getTool());
         assertEquals("biolqm_trapspaces", AttractorTools.BIOLQM_TRAPSPACES.getTool());
         assertEquals("mpbn_trapspaces", AttractorTools.MPBN_TRAPSPACES.getTool());
+        assertEquals("native_stable_states", AttractorTools.NATIVE_STABLE_STATES.getTool());
     }
 
     @Test
     void test_get_tools() {
         ArrayList<String> expectedTools = newArrayList("bnet_reduction", "bnet_reduction_reduced",
-            "biolqm_stable_states", "biolqm_trapspaces", "mpbn_trapspaces");
+            "biolqm_stable_states", "biolqm_trapspaces", "mpbn_trapspaces", "native_stable_states");
         assertEquals(expectedTools, AttractorTools.getTools());
     }
 }
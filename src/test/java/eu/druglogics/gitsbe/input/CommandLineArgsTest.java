@@ -23,6 +23,17 @@ class CommandLineArgsTest {
         assertEquals(args.getFilenameConfig(), "config");
         assertEquals(args.getFilenameModelOutputs(), "model");
         assertEquals(args.getFilenameTrainingData(), "train");
+        assertNull(args.getDirectoryResume());
+    }
+
+    @Test
+    void test_resume_argument() {
+        CommandLineArgs args = new CommandLineArgs();
+
+        String[] argv = {"-c", "config", "-m", "model", "-t", "train", "-n", "network", "--resume=output"};
+        JCommander.newBuilder().addObject(args).build().parse(argv);
+
+        assertEquals(args.getDirectoryResume(), "output");
     }
 
     @Test
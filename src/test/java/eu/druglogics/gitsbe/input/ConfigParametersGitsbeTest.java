@@ -13,7 +13,7 @@ class ConfigParametersGitsbeTest {
     @Test
     void test_get_parameter_names() {
         ConfigParametersGitsbe parameters = new ConfigParametersGitsbe();
-        int expectedParNum = 28;
+        int expectedParNum = 37;
 
         String[] pars = parameters.getParameters();
 
@@ -47,6 +47,15 @@ class ConfigParametersGitsbeTest {
         assertEquals(pars[25], "best_models_export_to_ginml");
         assertEquals(pars[26], "best_models_export_to_sbml_qual");
         assertEquals(pars[27], "fitness_threshold");
+        assertEquals(pars[28], "export_fitnesses_to_binary");
+        assertEquals(pars[29], "use_parallel_fitness");
+        assertEquals(pars[30], "parallel_fitness_num");
+        assertEquals(pars[31], "use_parallel_conditions");
+        assertEquals(pars[32], "parallel_conditions_num");
+        assertEquals(pars[33], "checkpoint_interval");
+        assertEquals(pars[34], "migration_interval");
+        assertEquals(pars[35], "migration_size");
+        assertEquals(pars[36], "use_steady_state");
     }
 
     @Test
@@ -73,6 +82,83 @@ class ConfigParametersGitsbeTest {
         assertEquals(exception.getMessage(), "Parameter `target_fitness` should be between 0 and 1");
     }
 
+    @Test
+    void test_check_parallel_fitness_num() throws ConfigurationException {
+        ConfigParametersGitsbe parameters = new ConfigParametersGitsbe();
+
+        parameters.parallel_fitness_num = 1;
+        Exception exception = assertThrows(ConfigurationException.class, parameters::checkParallelFitnessNumber);
+        assertEquals(exception.getMessage(), "Parameter `parallel_fitness_num` can only be 2 or larger");
+
+        parameters.parallel_fitness_num = 2;
+        parameters.checkParallelFitnessNumber();
+    }
+
+    @Test
+    void test_check_parallel_conditions_num() throws ConfigurationException {
+        ConfigParametersGitsbe parameters = new ConfigParametersGitsbe();
+
+        parameters.parallel_conditions_num = 1;
+        Exception exception = assertThrows(ConfigurationException.class, parameters::checkParallelConditionsNumber);
+        assertEquals(exception.getMessage(), "Parameter `parallel_conditions_num` can only be 2 or larger");
+
+        parameters.parallel_conditions_num = 2;
+        parameters.checkParallelConditionsNumber();
+    }
+
+    @Test
+    void test_check_checkpoint_interval() throws ConfigurationException {
+        ConfigParametersGitsbe parameters = new ConfigParametersGitsbe();
+
+        parameters.checkpoint_interval = -1;
+        Exception exception = assertThrows(ConfigurationException.class, parameters::checkCheckpointInterval);
+        assertEquals(exception.getMessage(), "Parameter `checkpoint_interval` can only be 0 (no checkpoints) or larger");
+
+        parameters.checkpoint_interval = 0;
+        parameters.checkCheckpointInterval();
+    }
+
+    @Test
+    void test_check_migration_parameters() throws ConfigurationException {
+        ConfigParametersGitsbe parameters = new ConfigParametersGitsbe();
+
+        parameters.migration_interval = -1;
+        Exception exception = assertThrows(ConfigurationException.class, parameters::checkMigrationInterval);
+        assertEquals(exception.getMessage(), "Parameter `migration_interval` can only be 0 (no migration) or larger");
+
+        parameters.migration_size = 0;
+        exception = assertThrows(ConfigurationException.class, parameters::checkMigrationSize);
+        assertEquals(exception.getMessage(), "Parameter `migration_size` can only be 1 or larger");
+
+        parameters.migration_interval = 0;
+        parameters.migration_size = 1;
+        parameters.checkMigrationInterval();
+        parameters.checkMigrationSize();
+    }
+
+    @Test
+    void test_check_steady_state_vs_intervals() throws ConfigurationException {
+        ConfigParametersGitsbe parameters = new ConfigParametersGitsbe();
+
+        parameters.use_steady_state = true;
+        parameters.migration_interval = 2;
+
+        Exception exception = assertThrows(ConfigurationException.class, parameters::checkSteadyStateVsIntervals);
+        assertEquals(exception.getMessage(), "Parameters `migration_interval` and `checkpoint_interval` should be 0 when `use_steady_state` is true (the steady-state evolution doesn't migrate models or save periodic checkpoints)");
+
+        parameters.migration_interval = 0;
+        parameters.checkpoint_interval = 5;
+        assertThrows(ConfigurationException.class, parameters::checkSteadyStateVsIntervals);
+
+        parameters.checkpoint_interval = 0;
+        parameters.checkSteadyStateVsIntervals();
+
+        parameters.use_steady_state = false;
+        parameters.migration_interval = 2;
+        parameters.checkpoint_interval = 5;
+        parameters.checkSteadyStateVsIntervals();
+    }
+
     @Test
     void test_check_population_vs_selection() throws ConfigurationException {
         ConfigParametersGitsbe parameters = new ConfigParametersGitsbe();
@@ -12,7 +12,7 @@ class ConfigParametersGlobalTest {
     @Test
     void test_get_parameter_names() {
         ConfigParametersGlobal parameters = new ConfigParametersGlobal();
-        int expectedParNum = 6;
+        int expectedParNum = 11;
 
         String[] pars = parameters.getParameters();
 
@@ -24,6 +24,11 @@ class ConfigParametersGlobalTest {
         assertEquals(pars[3], "use_parallel_sim");
         assertEquals(pars[4], "parallel_sim_num");
         assertEquals(pars[5], "attractor_tool");
+        assertEquals(pars[6], "biolqm_in_memory");
+        assertEquals(pars[7], "attractor_cache_size");
+        assertEquals(pars[8], "mpbn_workers");
+        assertEquals(pars[9], "bnet_reduction_timeout");
+        assertEquals(pars[10], "async_logging");
     }
 
     @Test
@@ -37,7 +42,7 @@ class ConfigParametersGlobalTest {
         ConfigurationException exception =
             assertThrows(ConfigurationException.class, parameters::checkAttractorTool);
 
-        assertEquals(exception.getMessage(), "The attractor_tool value: `ANonValidAttractorTool` is not in the list of supported tools: [bnet_reduction, bnet_reduction_reduced, biolqm_stable_states, biolqm_trapspaces, mpbn_trapspaces]");
+        assertEquals(exception.getMessage(), "The attractor_tool value: `ANonValidAttractorTool` is not in the list of supported tools: [bnet_reduction, bnet_reduction_reduced, biolqm_stable_states, biolqm_trapspaces, mpbn_trapspaces, native_stable_states]");
     }
 
     @Test
@@ -115,4 +120,46 @@ class ConfigParametersGlobalTest {
         assertThat(parameters.parallelSimulationsNumber()).isEqualTo(10);
         assertDoesNotThrow(parameters::checkParallelSimulationsNumber);
     }
+
+    @Test
+    void test_check_attractor_cache_size() {
+        ConfigParametersGlobal parameters = new ConfigParametersGlobal();
+
+        // Default value is 0 (no caching)
+        assertThat(parameters.getAttractorCacheSize()).isEqualTo(0);
+        assertDoesNotThrow(parameters::checkAttractorCacheSize);
+
+        parameters.attractor_cache_size = 1000;
+        assertDoesNotThrow(parameters::checkAttractorCacheSize);
+
+        parameters.attractor_cache_size = -1;
+        assertThrows(ConfigurationException.class, parameters::checkAttractorCacheSize);
+    }
+
+    @Test
+    void test_check_mpbn_workers() {
+        ConfigParametersGlobal parameters = new ConfigParametersGlobal();
+
+        // Default value is 0 (no worker processes)
+        assertThat(parameters.getMPBNWorkers()).isEqualTo(0);
+        assertDoesNotThrow(parameters::checkMPBNWorkers);
+
+        parameters.mpbn_workers = 4;
+        assertDoesNotThrow(parameters::checkMPBNWorkers);
+
+        parameters.mpbn_workers = -1;
+        assertThrows(ConfigurationException.class, parameters::checkMPBNWorkers);
+    }
+
+    @Test
+    void test_check_bnet_reduction_timeout() {
+        ConfigParametersGlobal parameters = new ConfigParametersGlobal();
+
+        // Default value is 30 seconds
+        assertThat(parameters.getBNReductionTimeout()).isEqualTo(30);
+        assertDoesNotThrow(parameters::checkBNReductionTimeout);
+
+        parameters.bnet_reduction_timeout = 0;
+        assertThrows(ConfigurationException.class, parameters::checkBNReductionTimeout);
+    }
 }
@@ -129,6 +129,35 @@ class TrainingDataTest {
         assertEquals(obs.get(5).getResponse(), expectedResponse6);
     }
 
+    @Test
+    void test_observations_are_parsed_when_loaded() {
+        ArrayList<TrainingDataObservation> obs = trainingData.getObservations();
+
+        assertEquals(TrainingDataObservation.Type.UNPERTURBED, obs.get(0).getType());
+        assertFalse(obs.get(0).hasGlobalOutputResponse());
+        assertArrayEquals(new String[] {"A", "B", "C", "D", "Another", "Another2"}, obs.get(0).getResponseNodes());
+        assertArrayEquals(new float[] {0, 0, 1, 1, 1, 0}, obs.get(0).getResponseValues());
+
+        assertEquals(TrainingDataObservation.Type.UNPERTURBED, obs.get(1).getType());
+        assertTrue(obs.get(1).hasGlobalOutputResponse());
+        assertArrayEquals(new float[] {1}, obs.get(1).getResponseValues());
+
+        assertEquals(TrainingDataObservation.Type.NODE_PERTURBATION, obs.get(2).getType());
+        assertArrayEquals(new String[] {"B"}, obs.get(2).getPerturbedNodes());
+        assertArrayEquals(new String[] {"0"}, obs.get(2).getPerturbedNodeStates());
+
+        assertEquals(TrainingDataObservation.Type.SINGLE_DRUG, obs.get(3).getType());
+        assertArrayEquals(new String[] {"AA"}, obs.get(3).getDrugs());
+        assertArrayEquals(new float[] {0.3f}, obs.get(3).getResponseValues());
+
+        assertEquals(TrainingDataObservation.Type.DOUBLE_DRUG_HSA, obs.get(4).getType());
+        assertArrayEquals(new String[] {"AA", "BB"}, obs.get(4).getDrugs());
+
+        assertEquals(TrainingDataObservation.Type.DOUBLE_DRUG_BLISS, obs.get(5).getType());
+        assertArrayEquals(new String[] {"CC", "BB"}, obs.get(5).getDrugs());
+        assertArrayEquals(new float[] {-0.2f}, obs.get(5).getResponseValues());
+    }
+
     @Test
     void test_no_exception_on_correctly_formatted_training_file() {
         assertDoesNotThrow(() -> trainingData.checkTrainingDataConsistency(booleanModel));
@@ -1,6 +1,7 @@
 package eu.druglogics.gitsbe.model;
 
 import eu.druglogics.gitsbe.input.Config;
+import eu.druglogics.gitsbe.util.FileDeleter;
 import eu.druglogics.gitsbe.util.Logger;
 import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.BeforeAll;
@@ -202,4 +203,147 @@ class AttractorsTest {
 		assertEquals(attractors6.getAttractors(), newArrayList("00011110111100011100101000010001101011111101000010011010000111010000111000111"));
 		assertTrue(attractors6.hasAttractors());
 	}
+
+	@Test
+	void test_biolqm_in_memory() throws Exception {
+		Logger mockLogger = mock(Logger.class);
+		BooleanModel booleanModelCascade = new BooleanModel(boolNetCASCADE1,
+			Config.getInstance().getAttractorTool(), mockLogger);
+
+		for (String attractorTool : newArrayList("biolqm_stable_states", "biolqm_trapspaces")) {
+			for (BooleanModel model : newArrayList(booleanModel, booleanModelSelfContained,
+				booleanModelFromExampleFile, booleanModelCascade)) {
+				Attractors.setBioLQMInMemory(false);
+				Attractors attractorsFromFile = new Attractors(model, attractorTool, mockLogger);
+				attractorsFromFile.calculateAttractors(tempDir.getAbsolutePath());
+
+				Attractors.setBioLQMInMemory(true);
+				Attractors attractorsInMemory = new Attractors(model, attractorTool, mockLogger);
+				attractorsInMemory.calculateAttractors(tempDir.getAbsolutePath());
+
+				assertThat(attractorsInMemory.getAttractors())
+					.containsExactlyInAnyOrderElementsOf(attractorsFromFile.getAttractors());
+			}
+		}
+
+		Attractors.setBioLQMInMemory(false);
+	}
+
+	@Test
+	void test_fixpoints_native() throws Exception {
+		Logger mockLogger = mock(Logger.class);
+		String attractorTool = "native_stable_states";
+
+		Attractors attractors = new Attractors(booleanModel, attractorTool, mockLogger);
+		assertEquals(attractors.getAttractorTool(), "native_stable_states");
+		attractors.calculateAttractors(tempDir.getAbsolutePath());
+		assertEquals(attractors.getAttractors(),
+			newArrayList("0111000000", "0111000010", "0111000101", "0111000111"));
+		assertTrue(attractors.hasAttractors());
+		assertTrue(attractors.hasStableStates());
+		assertEquals(attractors.getNumberOfAttractors(), 4);
+
+		// packed states are accessed by index, without building any Strings
+		assertEquals(attractors.getNodeStateValue(0, 0), 0);
+		assertEquals(attractors.getNodeStateValue(0, 1), 1);
+		assertEquals(attractors.getNodeStateValue(3, 9), 1);
+		assertEquals(attractors.getNodeStateValue(3, 6), 0);
+
+		Attractors attractors1 = new Attractors(booleanModelSelfContained, attractorTool, mockLogger);
+		attractors1.calculateAttractors(tempDir.getAbsolutePath());
+		assertEquals(attractors1.getAttractors(), newArrayList("0111"));
+
+		// no stable states
+		Attractors attractors2 = new Attractors(booleanModelFromExampleFile, attractorTool, mockLogger);
+		attractors2.calculateAttractors(tempDir.getAbsolutePath());
+		assertFalse(attractors2.hasAttractors());
+		assertFalse(attractors2.hasStableStates());
+
+		// Cascade 1.0 (link operator mutated) - same stable state as BioLQM
+		BooleanModel booleanModelCascade = new BooleanModel(boolNetCASCADE1, attractorTool, mockLogger);
+		Attractors attractors3 = new Attractors(booleanModelCascade, attractorTool, mockLogger);
+		attractors3.calculateAttractors(tempDir.getAbsolutePath());
+		assertEquals(attractors3.getStableStates(), newArrayList("00011110111100011100101000010001101011111101000010011010000111010000111000111"));
+
+		// no files are written
+		assertThat(tempDir.listFiles()).isEmpty();
+	}
+
+	@Test
+	void test_scratch_directories() throws Exception {
+		Logger mockLogger = mock(Logger.class);
+		FileDeleter fileDeleter = new FileDeleter(tempDir.getAbsolutePath());
+
+		// the files are kept: every calculation of a model reuses the directory named after it
+		for (int i = 0; i < 3; i++) {
+			Attractors attractors = new Attractors(booleanModel, "biolqm_stable_states", mockLogger);
+			attractors.calculateAttractors(tempDir.getAbsolutePath());
+		}
+		assertArrayEquals(new String[] { "test_model" }, tempDir.list());
+		assertTrue(new File(tempDir, "test_model/test_model.bnet").exists());
+
+		// the files are deleted: the scratch directory is removed after the calculation
+		fileDeleter.activate();
+		try {
+			Attractors attractors = new Attractors(booleanModelSelfContained, "biolqm_stable_states", mockLogger);
+			attractors.calculateAttractors(tempDir.getAbsolutePath());
+			assertEquals(attractors.getAttractors(), newArrayList("0111"));
+			assertArrayEquals(new String[] { "test_model" }, tempDir.list());
+		} finally {
+			fileDeleter.disable();
+		}
+	}
+
+	@Test
+	void test_get_node_state_value() {
+		Logger mockLogger = mock(Logger.class);
+
+		Attractors attractors = new Attractors(booleanModelSelfContained, "biolqm_trapspaces", mockLogger);
+		attractors.setAttractors(newArrayList("01-1", "0000"));
+
+		assertEquals(attractors.getNumberOfAttractors(), 2);
+		assertEquals(attractors.getNodeStateValue(0, 0), 0);
+		assertEquals(attractors.getNodeStateValue(0, 1), 1);
+		assertEquals(attractors.getNodeStateValue(0, 2), 0.5);
+		assertEquals(attractors.getNodeStateValue(1, 3), 0);
+	}
+
+	@Test
+	void test_attractor_cache() throws Exception {
+		Logger mockLogger = mock(Logger.class);
+		AttractorCache cache = new AttractorCache(2);
+		Attractors.setAttractorCache(cache);
+
+		try {
+			for (String attractorTool : newArrayList("biolqm_stable_states", "native_stable_states")) {
+				Attractors attractors = new Attractors(booleanModel, attractorTool, mockLogger);
+				attractors.calculateAttractors(tempDir.getAbsolutePath());
+
+				// same equations: the attractors are taken from the cache
+				BooleanModel booleanModelCopy = new BooleanModel(booleanModel, mockLogger);
+				Attractors attractorsCopy = new Attractors(booleanModelCopy, attractorTool, mockLogger);
+				attractorsCopy.calculateAttractors(tempDir.getAbsolutePath());
+
+				assertEquals(attractors.getAttractors(), attractorsCopy.getAttractors());
+				assertThat(attractorsCopy.getAttractors())
+					.containsExactlyInAnyOrder("0111000000", "0111000010", "0111000101", "0111000111");
+			}
+
+			assertEquals(cache.getHits(), 2);
+			assertEquals(cache.getMisses(), 2);
+			assertEquals(cache.getEvictions(), 0);
+			assertEquals(cache.size(), 2);
+
+			// a third model evicts the least recently used one
+			Attractors attractors = new Attractors(booleanModelSelfContained, "native_stable_states", mockLogger);
+			attractors.calculateAttractors(tempDir.getAbsolutePath());
+			assertEquals(attractors.getAttractors(), newArrayList("0111"));
+
+			assertEquals(cache.getMisses(), 3);
+			assertEquals(cache.getEvictions(), 1);
+			assertEquals(cache.size(), 2);
+		} finally {
+			Attractors.setAttractorCache(null);
+		}
+	}
 }
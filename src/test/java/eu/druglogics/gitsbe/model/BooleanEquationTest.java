@@ -1,14 +1,22 @@
 package eu.druglogics.gitsbe.model;
 
+import eu.druglogics.gitsbe.util.RandomManager;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Random;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.tuple;
 import static org.assertj.core.util.Lists.newArrayList;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 class BooleanEquationTest {
@@ -212,4 +220,157 @@ class BooleanEquationTest {
         assertEquals(copyBooleanEquation.getTarget(), "MOU");
         assertEquals(copyBooleanEquation.getNumBlacklistedRegulators(), 2);
     }
+
+    @Test
+    void test_boolean_equation_string_is_rebuilt_after_changes() {
+        BooleanEquation copyBooleanEquation = new BooleanEquation(booleanEquationWithLink);
+        assertEquals(" A *=  (  (  (  B )  or C )  or D ) and not  (  (  ( E )  or F )  or G ) ",
+            copyBooleanEquation.getBooleanEquation());
+
+        copyBooleanEquation.mutateLinkOperator();
+        assertEquals(" A *=  (  (  (  B )  or C )  or D ) or not  (  (  ( E )  or F )  or G ) ",
+            copyBooleanEquation.getBooleanEquation());
+
+        copyBooleanEquation.blacklistActivatingRegulator(1);
+        copyBooleanEquation.blacklistInhibitoryRegulator(2);
+        copyBooleanEquation.setTarget("MOU");
+        assertEquals(" MOU *=  (  (  B )  or D ) or not  (  ( E )  or F ) ",
+            copyBooleanEquation.getBooleanEquation());
+        assertEquals(2, copyBooleanEquation.getNumBlacklistedRegulators());
+
+        // the original equation did not change
+        assertEquals(" A *=  (  (  (  B )  or C )  or D ) and not  (  (  ( E )  or F )  or G ) ",
+            booleanEquationWithLink.getBooleanEquation());
+    }
+
+    @Test
+    void test_write_and_read_equation() throws IOException {
+        BooleanEquation booleanEquation = new BooleanEquation(booleanEquationWithLink);
+        booleanEquation.mutateLinkOperator();
+        booleanEquation.blacklistActivatingRegulator(1);
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        booleanEquation.write(new DataOutputStream(bytes));
+        booleanEquationNoLink.write(new DataOutputStream(bytes));
+
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes.toByteArray()));
+        BooleanEquation readEquation = BooleanEquation.read(in);
+        BooleanEquation readEquationNoLink = BooleanEquation.read(in);
+
+        assertEquals(" A *=  (  (  B )  or D ) or not  (  (  ( E )  or F )  or G ) ",
+            readEquation.getBooleanEquation());
+        assertEquals(1, readEquation.getNumBlacklistedRegulators());
+        assertEquals(newArrayList("B", "C", "D"), readEquation.getActivatingRegulators());
+        assertEquals(booleanEquationNoLink.getBooleanEquation(), readEquationNoLink.getBooleanEquation());
+        assertEquals("", readEquationNoLink.getLink());
+    }
+
+    @Test
+    void test_mutate_regulator_keeps_the_whitelists_consistent() {
+        for (long seed = 0; seed < 20; seed++) {
+            BooleanEquation booleanEquation = new BooleanEquation(booleanEquationWithLink);
+
+            RandomManager.withRandom(new Random(seed), () -> {
+                for (int i = 0; i < 30; i++) {
+                    booleanEquation.mutateRegulator();
+
+                    // at least one regulator is kept and the counts match the whitelists
+                    int whitelisted = booleanEquation.getNumWhitelistedRegulators();
+                    assertTrue(whitelisted >= 1);
+                    assertEquals(6, whitelisted + booleanEquation.getNumBlacklistedRegulators());
+                    assertEquals(whitelisted, countRegulators(booleanEquation.getBooleanEquation()));
+                    assertEquals(whitelisted, countRegulators(
+                        new BooleanEquation(booleanEquation).getBooleanEquation()));
+                }
+            });
+        }
+    }
+
+    @Test
+    void test_mutations_of_a_copy_do_not_change_the_original_equation() {
+        String originalEquation = booleanEquationWithLink.getBooleanEquation();
+        BooleanEquation copyBooleanEquation = new BooleanEquation(booleanEquationWithLink);
+
+        RandomManager.withRandom(new Random(1), () -> {
+            for (int i = 0; i < 20; i++) {
+                copyBooleanEquation.mutateRandomOperator();
+                copyBooleanEquation.shuffleRandomRegulatorPriority();
+                copyBooleanEquation.mutateRegulator();
+            }
+        });
+
+        // the operators, the whitelists and the (shared) regulator arrays of the original are intact
+        assertNotEquals(originalEquation, copyBooleanEquation.getBooleanEquation());
+        assertEquals(originalEquation, booleanEquationWithLink.getBooleanEquation());
+        assertEquals(originalEquation, new BooleanEquation(booleanEquationWithLink).getBooleanEquation());
+        assertEquals(newArrayList("B", "C", "D"), booleanEquationWithLink.getActivatingRegulators());
+        assertEquals(newArrayList("E", "F", "G"), booleanEquationWithLink.getInhibitoryRegulators());
+    }
+
+    @Test
+    void test_seeded_mutations_are_the_same_as_with_the_list_representation() {
+        // the equations (up to white space) and the next random numbers after the same seeded
+        // mutations, as produced by the former (list based) representation of the equations
+        String[][] expected = {
+            {"A *= ( ( ( B ) or C ) or D ) and not ( ( ( E ) or F ) or G )",
+                "A *= ( ( ( B ) and C ) and D ) and not ( ( F ) or E )",
+                "A *= ( ( ( B ) or D ) or C ) and not ( ( F ) and G )",
+                "A *= ( D ) and not ( ( E ) or G )"},
+            {"A *= ( ( ( ( B ) and C ) or D ) and E ) or not ( ( F ) and G )",
+                "A *= ( ( ( ( C ) or B ) and E ) and D ) or not ( G )",
+                "A *= ( ( ( ( C ) or B ) and D ) and E ) or not ( G )",
+                "A *= ( ( B ) or E ) or not ( G )"},
+            {"X *= ( ( Y ) or Z )",
+                "X *= ( Z )",
+                "X *= ( Z )",
+                "X *= ( Y )"},
+            {"X *= not ( ( ( Y ) or Z ) and W )",
+                "X *= not ( ( ( Y ) or W ) and Z )",
+                "X *= not ( ( ( Z ) and Y ) and W )",
+                "X *= not ( ( W ) or Z )"}
+        };
+        int[][] expectedNextRandoms = {
+            {-252332814, -270230103, -216538235},
+            {-252332814, -270230103, -216538235},
+            {1654374947, -155886662, 979930868},
+            {-65105105, 685382526, -2061794068}
+        };
+
+        for (int i = 0; i < expected.length; i++) {
+            for (int seed = 0; seed < 3; seed++) {
+                BooleanEquation booleanEquation = new BooleanEquation(expected[i][0]);
+                Random random = new Random(seed);
+
+                RandomManager.withRandom(random, () -> {
+                    for (int step = 0; step < 12; step++) {
+                        switch (step % 4) {
+                            case 0:
+                                booleanEquation.mutateRandomOperator();
+                                break;
+                            case 1:
+                                booleanEquation.mutateRegulator();
+                                break;
+                            case 2:
+                                booleanEquation.shuffleRandomRegulatorPriority();
+                                break;
+                            default:
+                                if (step % 8 == 3) booleanEquation.mutateLinkOperator();
+                        }
+                    }
+                });
+
+                assertEquals(expected[i][seed + 1],
+                    booleanEquation.getBooleanEquation().trim().replaceAll(" +", " "));
+                assertEquals(expectedNextRandoms[i][seed], random.nextInt());
+            }
+        }
+    }
+
+    /**
+     * @return the number of regulators (single capital letters) in a Booleannet equation
+     */
+    private static int countRegulators(String equation) {
+        String regulators = equation.substring(equation.indexOf("*=") + 2);
+        return regulators.replaceAll("[^A-Z]", "").length();
+    }
 }
@@ -195,6 +195,21 @@ class BooleanModelTest {
             .contains("B", "A", "D", "C");
     }
 
+    @Test
+    void test_node_names_of_copies() {
+        Logger mockLogger = mock(Logger.class);
+        BooleanModel booleanModelCopy = new BooleanModel(booleanModelSelfContained, mockLogger);
+
+        assertEquals(booleanModelSelfContained.getNodeNames(), booleanModelCopy.getNodeNames());
+        assertEquals(2, booleanModelCopy.getIndexOfEquation("D"));
+
+        // the returned list is a copy, changing it doesn't change the nodes of the model
+        ArrayList<String> nodeNames = booleanModelCopy.getNodeNames();
+        nodeNames.add("W");
+        assertEquals(4, booleanModelCopy.getNodeNames().size());
+        assertEquals(-1, booleanModelCopy.getIndexOfEquation("W"));
+    }
+
     @Test
     void test_get_boolean_equations() {
         assertThat(booleanModel.getBooleanEquations())
@@ -506,4 +521,29 @@ class BooleanModelTest {
         assertEquals(copyModel.getBooleanEquations().get(1).getNumWhitelistedInhibitoryRegulators(), 1);
         assertEquals(copyModel.getBooleanEquations().get(1).getNumBlacklistedInhibitoryRegulators(), 0);
     }
+
+    @Test
+    void test_get_fingerprint() throws Exception {
+        Logger mockLogger = mock(Logger.class);
+
+        // a copy has the same fingerprint as the original model
+        BooleanModel booleanModelCopy = new BooleanModel(booleanModel, mockLogger);
+        assertEquals(booleanModel.getFingerprint(), booleanModelCopy.getFingerprint());
+        assertNotEquals(booleanModel.getFingerprint(), booleanModelSelfContained.getFingerprint());
+
+        // the spacing of the operators does not matter
+        booleanModelCopy.modifyEquation("B *= ( A )  and  not ( C )");
+        assertEquals(booleanModel.getFingerprint(), booleanModelCopy.getFingerprint());
+
+        // a different link operator changes the fingerprint
+        int index = booleanModelCopy.getIndexOfEquation("B");
+        booleanModelCopy.changeLinkOperator(index);
+        assertNotEquals(booleanModel.getFingerprint(), booleanModelCopy.getFingerprint());
+        booleanModelCopy.changeLinkOperator(index);
+        assertEquals(booleanModel.getFingerprint(), booleanModelCopy.getFingerprint());
+
+        // a perturbed model has a different fingerprint
+        booleanModelCopy.modifyEquation("A *= false");
+        assertNotEquals(booleanModel.getFingerprint(), booleanModelCopy.getFingerprint());
+    }
 }
@@ -0,0 +1,170 @@
+package eu.druglogics.gitsbe.model;
+
+import eu.druglogics.gitsbe.util.Logger;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+class CheckpointTest {
+
+	@TempDir
+	File tempDir;
+
+	private Logger mockLogger;
+	private BooleanModel booleanModel;
+	private ArrayList<MutatedBooleanModel> bestModels;
+	private List<float[]> fitnesses;
+	private List<Integer> skippedEvaluations;
+
+	@BeforeEach
+	void init() {
+		mockLogger = mock(Logger.class);
+
+		ArrayList<SingleInteraction> testInteractions = new ArrayList<>();
+		testInteractions.add(new SingleInteraction("A\t->\tB"));
+		testInteractions.add(new SingleInteraction("C\t-|\tB"));
+		testInteractions.add(new SingleInteraction("C\t->\tA"));
+		testInteractions.add(new SingleInteraction("D\t->\tA"));
+		testInteractions.add(new SingleInteraction("B\t-|\tD"));
+
+		GeneralModel generalModel = new GeneralModel(testInteractions, mockLogger);
+		generalModel.buildMultipleInteractions();
+		booleanModel = new BooleanModel(generalModel, "native_stable_states", mockLogger);
+
+		// the best models differ from the general model (and from each other)
+		bestModels = new ArrayList<>();
+		for (int i = 0; i < 2; i++) {
+			MutatedBooleanModel bestModel = new MutatedBooleanModel(booleanModel, mockLogger);
+			bestModel.setModelName("test_G1_M" + i);
+			bestModel.setFitness(0.5f - 0.25f * i);
+			bestModels.add(bestModel);
+		}
+		for (int i = 0; i < booleanModel.getBooleanEquations().size(); i++) {
+			if (booleanModel.getBooleanEquations().get(i).getTarget().equals("B")) {
+				bestModels.get(0).getBooleanEquations().get(i).mutateLinkOperator();
+				bestModels.get(1).getBooleanEquations().get(i).blacklistInhibitoryRegulator(0);
+			}
+		}
+
+		fitnesses = new ArrayList<>(Arrays.asList(
+			new float[] {0.1f, 0.2f, 0.3f}, new float[] {0.4f, 0.5f, 0.25f}));
+		skippedEvaluations = new ArrayList<>(Arrays.asList(0, 1));
+	}
+
+	private void assertSameModels(List<MutatedBooleanModel> expected, List<MutatedBooleanModel> actual) {
+		assertEquals(expected.size(), actual.size());
+		for (int i = 0; i < expected.size(); i++) {
+			assertEquals(expected.get(i).getModelName(), actual.get(i).getModelName());
+			assertEquals(expected.get(i).getFitness(), actual.get(i).getFitness());
+			for (int j = 0; j < expected.get(i).getBooleanEquations().size(); j++) {
+				assertEquals(expected.get(i).getBooleanEquations().get(j).getBooleanEquation(),
+					actual.get(i).getBooleanEquations().get(j).getBooleanEquation());
+			}
+		}
+	}
+
+	private void assertSameGenerations(List<float[]> expectedFitnesses, List<Integer> expectedSkippedEvaluations,
+									   Checkpoint checkpoint) {
+		assertEquals(expectedFitnesses.size(), checkpoint.getGenerations());
+		assertEquals(expectedFitnesses.size(), checkpoint.getFitnesses().size());
+		for (int generation = 0; generation < expectedFitnesses.size(); generation++) {
+			assertArrayEquals(expectedFitnesses.get(generation), checkpoint.getFitnesses().get(generation));
+		}
+		assertEquals(expectedSkippedEvaluations, checkpoint.getSkippedEvaluations());
+	}
+
+	@Test
+	void test_save_and_load() throws Exception {
+		Random random = new Random(1);
+		random.nextInt();
+
+		Checkpoint checkpoint = new Checkpoint(tempDir.getPath(), 1);
+		assertFalse(checkpoint.exists());
+		checkpoint.save(2, false, true, random, bestModels, fitnesses, skippedEvaluations);
+		assertTrue(checkpoint.exists());
+		assertFalse(checkpoint.isLoaded());
+
+		Checkpoint loaded = new Checkpoint(tempDir.getPath(), 1);
+		loaded.load(booleanModel, mockLogger);
+
+		assertTrue(loaded.isLoaded());
+		assertFalse(loaded.isCompleted());
+		assertTrue(loaded.isInitialPhase());
+		assertSameGenerations(fitnesses, skippedEvaluations, loaded);
+		assertSameModels(bestModels, loaded.getBestModels());
+
+		// the random number generator continues from its saved state
+		assertEquals(random.nextInt(), loaded.getRandom().nextInt());
+
+		// another simulation has its own checkpoint
+		assertFalse(new Checkpoint(tempDir.getPath(), 2).exists());
+	}
+
+	@Test
+	void test_generations_after_the_last_checkpoint_are_discarded() throws Exception {
+		Checkpoint checkpoint = new Checkpoint(tempDir.getPath(), 1);
+		checkpoint.save(2, false, true, new Random(1), bestModels, fitnesses, skippedEvaluations);
+
+		// the run is interrupted after the next generations were appended to the
+		// generations file, but before the checkpoint file was replaced
+		File checkpointFile = new File(tempDir, "simulation_1.checkpoint");
+		File savedCheckpointFile = new File(tempDir, "saved.checkpoint");
+		Files.copy(checkpointFile.toPath(), savedCheckpointFile.toPath());
+
+		List<float[]> moreFitnesses = new ArrayList<>(fitnesses);
+		moreFitnesses.add(new float[] {0.6f, 0.6f, 0.6f});
+		moreFitnesses.add(new float[] {0.7f, 0.7f, 0.7f});
+		List<Integer> moreSkippedEvaluations = new ArrayList<>(Arrays.asList(0, 1, 2, 3));
+		checkpoint.save(4, false, false, new Random(2), bestModels, moreFitnesses, moreSkippedEvaluations);
+
+		Files.move(savedCheckpointFile.toPath(), checkpointFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+
+		// only the generations of the checkpoint are loaded (and kept in the file)
+		Checkpoint resumed = new Checkpoint(tempDir.getPath(), 1);
+		resumed.load(booleanModel, mockLogger);
+		assertSameGenerations(fitnesses, skippedEvaluations, resumed);
+		assertTrue(resumed.isInitialPhase());
+
+		// the resumed simulation appends its own next generation after them
+		List<float[]> resumedFitnesses = new ArrayList<>(fitnesses);
+		resumedFitnesses.add(new float[] {0.8f, 0.9f, 1.0f});
+		List<Integer> resumedSkippedEvaluations = new ArrayList<>(Arrays.asList(0, 1, 1));
+		resumed.save(3, true, false, new Random(3), bestModels, resumedFitnesses, resumedSkippedEvaluations);
+
+		Checkpoint loaded = new Checkpoint(tempDir.getPath(), 1);
+		loaded.load(booleanModel, mockLogger);
+		assertSameGenerations(resumedFitnesses, resumedSkippedEvaluations, loaded);
+		assertTrue(loaded.isCompleted());
+		assertFalse(loaded.isInitialPhase());
+		assertSameModels(bestModels, loaded.getBestModels());
+	}
+
+	@Test
+	void test_load_checkpoint_of_another_network() throws Exception {
+		Checkpoint checkpoint = new Checkpoint(tempDir.getPath(), 1);
+		checkpoint.save(2, false, true, new Random(1), bestModels, fitnesses, skippedEvaluations);
+
+		ArrayList<SingleInteraction> otherInteractions = new ArrayList<>();
+		otherInteractions.add(new SingleInteraction("A\t->\tB"));
+		otherInteractions.add(new SingleInteraction("B\t-|\tA"));
+		GeneralModel otherModel = new GeneralModel(otherInteractions, mockLogger);
+		otherModel.buildMultipleInteractions();
+		BooleanModel otherBooleanModel = new BooleanModel(otherModel, "native_stable_states", mockLogger);
+
+		Checkpoint loaded = new Checkpoint(tempDir.getPath(), 1);
+		assertThrows(IOException.class, () -> loaded.load(otherBooleanModel, mockLogger));
+		assertFalse(loaded.isLoaded());
+	}
+}
@@ -0,0 +1,35 @@
+package eu.druglogics.gitsbe.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EquationOverlayTest {
+
+    @Test
+    void test_overridden_equations_are_not_shared() {
+        List<BooleanEquation> base = new ArrayList<>();
+        base.add(new BooleanEquation("A *= ( B ) and not ( C )"));
+        base.add(new BooleanEquation("B *= ( A )"));
+        base.add(new BooleanEquation("C *= not ( A )"));
+
+        EquationOverlay overlay = new EquationOverlay(base);
+        BooleanEquation perturbedEquation = new BooleanEquation("B *= false");
+        BooleanEquation previous = overlay.set(1, perturbedEquation);
+
+        assertSame(base.get(1), previous);
+        assertEquals(3, overlay.size());
+        assertEquals(1, overlay.getNumberOfOverrides());
+
+        // the equations that were not replaced are shared with the base list
+        assertSame(base.get(0), overlay.get(0));
+        assertSame(perturbedEquation, overlay.get(1));
+        assertSame(base.get(2), overlay.get(2));
+
+        // the base list did not change
+        assertEquals(" B *=  (  A ) ", base.get(1).getBooleanEquation());
+    }
+}
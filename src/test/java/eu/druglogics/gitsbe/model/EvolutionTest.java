@@ -0,0 +1,382 @@
+package eu.druglogics.gitsbe.model;
+
+import eu.druglogics.gitsbe.drug.DrugPanel;
+import eu.druglogics.gitsbe.input.Config;
+import eu.druglogics.gitsbe.input.ModelOutputs;
+import eu.druglogics.gitsbe.input.TrainingData;
+import eu.druglogics.gitsbe.output.Summary;
+import eu.druglogics.gitsbe.util.Logger;
+import eu.druglogics.gitsbe.util.RandomManager;
+import org.assertj.core.util.Lists;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.lang.reflect.Field;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+class EvolutionTest {
+
+	@TempDir
+	File tempDir;
+
+	private Logger mockLogger;
+	private BooleanModel booleanModel;
+
+	@BeforeEach
+	void init() throws Exception {
+		mockLogger = mock(Logger.class);
+
+		ClassLoader classLoader = getClass().getClassLoader();
+		DrugPanel.init(new File(classLoader.getResource("test_drugpanel_evolution").getFile()).getPath(), mockLogger);
+		TrainingData.init(new File(classLoader.getResource("test_training_evolution").getFile()).getPath(), mockLogger);
+		ModelOutputs.init(new File(classLoader.getResource("test_modeloutputs_evolution").getFile()).getPath(), mockLogger);
+	}
+
+	@AfterEach
+	void reset_singletons() throws Exception {
+		for (Field instance : new Field[] {
+			Config.class.getDeclaredField("config"),
+			DrugPanel.class.getDeclaredField("drugPanel"),
+			TrainingData.class.getDeclaredField("trainingData")
+		}) {
+			instance.setAccessible(true);
+			instance.set(null, null);
+		}
+		ModelOutputs.reset();
+		Attractors.setAttractorCache(null);
+	}
+
+	/**
+	 * Initializes the configuration of a small evolution: the given parameters are
+	 * added after the default ones (so they override them)
+	 */
+	private void initConfig(String... parameters) throws Exception {
+		List<String> lines = new ArrayList<>(Arrays.asList(
+			"attractor_tool:\tnative_stable_states",
+			"population:\t6",
+			"generations:\t4",
+			"selection:\t2",
+			"crossovers:\t1",
+			"balance_mutations:\t1",
+			"random_mutations:\t1",
+			"shuffle_mutations:\t1",
+			"topology_mutations:\t1",
+			"target_fitness:\t1",
+			"bootstrap_mutations_factor:\t2",
+			"mutations_factor:\t1",
+			"bootstrap_shuffle_factor:\t1",
+			"shuffle_factor:\t1",
+			"bootstrap_topology_mutations_factor:\t1",
+			"topology_mutations_factor:\t1",
+			"simulations:\t1"
+		));
+		lines.addAll(Arrays.asList(parameters));
+
+		File configFile = new File(tempDir, "config.tab");
+		Files.write(configFile.toPath(), lines);
+		Config.init(configFile.getPath(), mockLogger);
+
+		ArrayList<SingleInteraction> testInteractions = new ArrayList<>();
+		testInteractions.add(new SingleInteraction("A\t->\tB"));
+		testInteractions.add(new SingleInteraction("C\t-|\tB"));
+		testInteractions.add(new SingleInteraction("C\t->\tA"));
+		testInteractions.add(new SingleInteraction("D\t->\tA"));
+		testInteractions.add(new SingleInteraction("B\t-|\tD"));
+		testInteractions.add(new SingleInteraction("D\t->\tC"));
+		testInteractions.add(new SingleInteraction("B\t-|\tC"));
+
+		GeneralModel generalModel = new GeneralModel(testInteractions, mockLogger);
+		generalModel.buildMultipleInteractions();
+		booleanModel = new BooleanModel(generalModel, Config.getInstance().getAttractorTool(), mockLogger);
+	}
+
+	private Evolution newEvolution(Logger logger) throws Exception {
+		Summary summary = new Summary(new File(tempDir, "summary.txt").getPath(), logger);
+		return new Evolution(summary, booleanModel, "test", tempDir.getPath(), tempDir.getPath(), logger);
+	}
+
+	/**
+	 * Runs a simulation that logs everything to the given file (with the given pools, null
+	 * for the serial evaluation) and returns it when the log file is complete
+	 */
+	private Evolution evolve(String logFilename, ForkJoinPool evaluationPool, ForkJoinPool conditionPool)
+		throws Exception {
+		Logger logger = new Logger(logFilename, tempDir.getPath(), 3, false);
+		Evolution evolution = newEvolution(logger);
+		evolution.setEvaluationPool(evaluationPool);
+		evolution.setConditionPool(conditionPool);
+
+		RandomManager.withRandom(new Random(1), () -> evolution.evolve(0));
+		logger.finish();
+
+		return evolution;
+	}
+
+	private void assertSameFitnesses(Evolution expected, Evolution actual) {
+		assertEquals(expected.getFitnesses().size(), actual.getFitnesses().size());
+		for (int generation = 0; generation < expected.getFitnesses().size(); generation++) {
+			assertArrayEquals(expected.getFitnesses().get(generation), actual.getFitnesses().get(generation));
+		}
+		assertEquals(expected.getSkippedEvaluations(), actual.getSkippedEvaluations());
+	}
+
+	private void assertSameLog(String expectedLogFilename, String actualLogFilename) throws Exception {
+		assertEquals(Files.readAllLines(new File(tempDir, expectedLogFilename).toPath()),
+			Files.readAllLines(new File(tempDir, actualLogFilename).toPath()));
+	}
+
+	@Test
+	void test_parallel_fitness_evaluation_is_the_same_as_the_serial_one() throws Exception {
+		initConfig();
+
+		Evolution serial = evolve("serial.log", null, null);
+
+		ForkJoinPool evaluationPool = new ForkJoinPool(3);
+		Evolution parallel;
+		try {
+			parallel = evolve("parallel.log", evaluationPool, null);
+		} finally {
+			evaluationPool.shutdown();
+		}
+
+		assertSameFitnesses(serial, parallel);
+		assertSameLog("serial.log", "parallel.log");
+	}
+
+	@Test
+	void test_parallel_condition_simulation_is_the_same_as_the_serial_one() throws Exception {
+		initConfig();
+
+		Evolution serial = evolve("serial.log", null, null);
+
+		ForkJoinPool conditionPool = new ForkJoinPool(3);
+		Evolution parallel;
+		try {
+			parallel = evolve("parallel.log", null, conditionPool);
+		} finally {
+			conditionPool.shutdown();
+		}
+
+		assertSameFitnesses(serial, parallel);
+		assertSameLog("serial.log", "parallel.log");
+	}
+
+	@Test
+	void test_duplicate_genomes_inherit_their_fitness() throws Exception {
+		// without mutations, all the models have the genome of the initial model
+		initConfig("generations:\t1", "balance_mutations:\t0", "random_mutations:\t0",
+			"shuffle_mutations:\t0", "topology_mutations:\t0");
+
+		AttractorCache cache = new AttractorCache(100);
+		Attractors.setAttractorCache(cache);
+
+		Evolution evolution = newEvolution(mockLogger);
+		RandomManager.withRandom(new Random(1), () -> evolution.evolve(0));
+
+		// the first model is evaluated and the other 5 get its fitness from the fitness table
+		assertEquals(Arrays.asList(5), evolution.getSkippedEvaluations());
+
+		float[] fitnesses = evolution.getFitnesses().get(0);
+		assertEquals(6, fitnesses.length);
+		for (float fitness : fitnesses) {
+			assertEquals(fitnesses[0], fitness);
+		}
+
+		// only the attractors of the first model's 6 distinct perturbed models were calculated
+		assertEquals(6, cache.getHits() + cache.getMisses());
+		assertEquals(6, cache.getMisses());
+	}
+
+	@Test
+	void test_perturbed_models_are_simulated_once_per_model() throws Exception {
+		initConfig();
+
+		AttractorCache cache = new AttractorCache(100);
+		Attractors.setAttractorCache(cache);
+
+		// 8 perturbed models are defined by the training data: unperturbed, B:0, AA, BB, AA+BB,
+		// AA, CC and AA+CC. The drug AA is in both combinations and the drug BB clamps B like
+		// the B:0 condition, so only 6 of them are distinct
+		MutatedBooleanModel model = new MutatedBooleanModel(booleanModel, mockLogger);
+		model.calculateFitness(tempDir.getPath(), null);
+		assertEquals(6, cache.getHits() + cache.getMisses());
+		assertEquals(6, cache.getMisses());
+
+		// the same with the conditions simulated in parallel (all found in the cache this time)
+		ForkJoinPool conditionPool = new ForkJoinPool(3);
+		try {
+			MutatedBooleanModel parallelModel = new MutatedBooleanModel(booleanModel, mockLogger);
+			parallelModel.calculateFitness(tempDir.getPath(), conditionPool);
+			assertEquals(model.getFitness(), parallelModel.getFitness());
+		} finally {
+			conditionPool.shutdown();
+		}
+		assertEquals(12, cache.getHits() + cache.getMisses());
+		assertEquals(6, cache.getMisses());
+	}
+
+	@Test
+	void test_accepted_immigrants_are_scored_and_end_the_initial_phase() throws Exception {
+		initConfig("generations:\t1", "selection:\t1", "balance_mutations:\t0", "random_mutations:\t0",
+			"shuffle_mutations:\t0", "topology_mutations:\t0", "migration_interval:\t1", "migration_size:\t1");
+
+		// a negative feedback loop without stable states, so the models have no fitness
+		// (only the unperturbed condition is trained)
+		Field trainingData = TrainingData.class.getDeclaredField("trainingData");
+		trainingData.setAccessible(true);
+		trainingData.set(null, null);
+		TrainingData.init(new File(getClass().getClassLoader()
+			.getResource("test_training_evolution_unperturbed").getFile()).getPath(), mockLogger);
+
+		ArrayList<SingleInteraction> loopInteractions = new ArrayList<>();
+		loopInteractions.add(new SingleInteraction("A\t->\tB"));
+		loopInteractions.add(new SingleInteraction("B\t->\tC"));
+		loopInteractions.add(new SingleInteraction("C\t->\tD"));
+		loopInteractions.add(new SingleInteraction("D\t-|\tA"));
+		loopInteractions.add(new SingleInteraction("B\t-|\tA"));
+		GeneralModel loopModel = new GeneralModel(loopInteractions, mockLogger);
+		loopModel.buildMultipleInteractions();
+		booleanModel = new BooleanModel(loopModel, Config.getInstance().getAttractorTool(), mockLogger);
+
+		// the previous island sent a fitter model with another genome than the initial model
+		MutatedBooleanModel immigrant = new MutatedBooleanModel(booleanModel, mockLogger);
+		for (BooleanEquation equation : immigrant.getBooleanEquations()) {
+			if (equation.getTarget().equals("A")) {
+				// one of the two regulators of A is removed
+				RandomManager.withRandom(new Random(1), () -> {
+					while (!equation.mutateRegulator());
+				});
+			}
+		}
+		immigrant.setFitness(0.9f);
+		MigrationRing migrationRing = new MigrationRing(2);
+		migrationRing.send(1, Lists.newArrayList(immigrant));
+
+		Evolution evolution = newEvolution(mockLogger);
+		evolution.setMigration(migrationRing, 0);
+		RandomManager.withRandom(new Random(1), () -> evolution.evolve(0));
+
+		// no model of the generation had a positive fitness, but the immigrant has
+		assertEquals(0, evolution.getFitnesses().get(0)[0]);
+		assertFalse(evolution.isInitialPhase());
+		assertEquals(Float.valueOf(0.9f), evolution.getKnownFitness(immigrant));
+
+		// the best model of this simulation was sent to the next island
+		assertEquals(1, migrationRing.receive(1).size());
+	}
+
+	@Test
+	void test_resumed_evolution_is_the_same_as_an_uninterrupted_one() throws Exception {
+		initConfig("checkpoint_interval:\t1");
+		Evolution uninterrupted = newEvolution(mockLogger);
+		RandomManager.withRandom(new Random(1), () -> uninterrupted.evolve(0));
+
+		// the run is interrupted after 2 generations (and their checkpoints)
+		File checkpointDirectory = new File(tempDir, "checkpoints");
+		assertTrue(checkpointDirectory.mkdir());
+		Field config = Config.class.getDeclaredField("config");
+		config.setAccessible(true);
+		config.set(null, null);
+		initConfig("checkpoint_interval:\t1", "generations:\t2");
+
+		Evolution interrupted = newEvolution(mockLogger);
+		interrupted.setCheckpoint(new Checkpoint(checkpointDirectory.getPath(), 1));
+		RandomManager.withRandom(new Random(1), () -> interrupted.evolve(0));
+
+		// the resumed run continues from the checkpoint
+		config.set(null, null);
+		initConfig("checkpoint_interval:\t1");
+
+		Checkpoint checkpoint = new Checkpoint(checkpointDirectory.getPath(), 1);
+		checkpoint.load(booleanModel, mockLogger);
+		assertEquals(2, checkpoint.getGenerations());
+		assertFalse(checkpoint.isCompleted());
+
+		Evolution resumed = newEvolution(mockLogger);
+		resumed.setCheckpoint(checkpoint);
+		RandomManager.withRandom(checkpoint.getRandom(), () -> resumed.evolve(0));
+
+		assertEquals(4, resumed.getFitnesses().size());
+		for (int generation = 0; generation < 4; generation++) {
+			assertArrayEquals(uninterrupted.getFitnesses().get(generation), resumed.getFitnesses().get(generation));
+		}
+		assertEquals(bestFitnesses(uninterrupted), bestFitnesses(resumed));
+		for (int i = 0; i < uninterrupted.bestModels.size(); i++) {
+			assertEquals(uninterrupted.bestModels.get(i).getModelName(), resumed.bestModels.get(i).getModelName());
+		}
+	}
+
+	/**
+	 * @return the fitnesses of all the models of the simulation, in descending order
+	 */
+	private List<Float> sortedFitnesses(Evolution evolution) {
+		List<Float> fitnesses = new ArrayList<>();
+		for (float[] generationFitness : evolution.getFitnesses()) {
+			for (float fitness : generationFitness) {
+				fitnesses.add(fitness);
+			}
+		}
+		fitnesses.sort(Collections.reverseOrder());
+		return fitnesses;
+	}
+
+	private List<Float> bestFitnesses(Evolution evolution) {
+		List<Float> fitnesses = new ArrayList<>();
+		for (MutatedBooleanModel bestModel : evolution.bestModels) {
+			fitnesses.add(bestModel.getFitness());
+		}
+		return fitnesses;
+	}
+
+	@Test
+	void test_steady_state_evolution() throws Exception {
+		initConfig("use_steady_state:\ttrue");
+
+		Evolution evolution = newEvolution(mockLogger);
+		RandomManager.withRandom(new Random(1), () -> evolution.evolve(0));
+
+		// as many models as in 4 generations of 6 models were bred
+		assertEquals(4, evolution.getFitnesses().size());
+		for (float[] generationFitness : evolution.getFitnesses()) {
+			assertEquals(6, generationFitness.length);
+		}
+		assertEquals(4, evolution.getSkippedEvaluations().size());
+
+		// the best models are the fittest models of the simulation, in descending order
+		List<Float> fitnesses = sortedFitnesses(evolution);
+		assertEquals(fitnesses.subList(0, 2), bestFitnesses(evolution));
+		assertTrue(evolution.bestModels.get(0).getFitness() > 0);
+		assertFalse(evolution.isInitialPhase());
+	}
+
+	@Test
+	void test_steady_state_evolution_stops_at_the_target_fitness() throws Exception {
+		initConfig("use_steady_state:\ttrue", "target_fitness:\t0.8");
+
+		Evolution evolution = newEvolution(mockLogger);
+		RandomManager.withRandom(new Random(1), () -> evolution.evolve(0));
+
+		// the evolution stops in the first generation, which is truncated after the last bred model
+		assertEquals(1, evolution.getFitnesses().size());
+		float[] generationFitness = evolution.getFitnesses().get(0);
+		assertTrue(generationFitness.length < 6);
+
+		// the last bred model made all the best models reach the target fitness
+		List<Float> bestFitnesses = bestFitnesses(evolution);
+		assertEquals(sortedFitnesses(evolution).subList(0, 2), bestFitnesses);
+		assertTrue(bestFitnesses.get(1) > 0.8);
+		assertTrue(bestFitnesses.contains(generationFitness[generationFitness.length - 1]));
+	}
+}
@@ -0,0 +1,130 @@
+package eu.druglogics.gitsbe.model;
+
+import eu.druglogics.gitsbe.util.Logger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.platform.commons.util.ClassLoaderUtils;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.TimeoutException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.util.Lists.newArrayList;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+class MPBNWorkerPoolTest {
+
+	@TempDir
+	File tempDir;
+
+	private MPBNWorkerPool workerPool;
+	private String scriptFile;
+
+	@BeforeEach
+	void start_workers() throws IOException {
+		// The stub script answers like mpbn-worker.py, without using mpbn
+		ClassLoader classLoader = ClassLoaderUtils.getDefaultClassLoader();
+		scriptFile = new File(classLoader.getResource("mpbn-worker-stub.py").getFile()).getPath();
+
+		workerPool = new MPBNWorkerPool(2, scriptFile, tempDir.getAbsolutePath(), 30, mock(Logger.class));
+	}
+
+	@AfterEach
+	void stop_workers() {
+		workerPool.shutdown();
+	}
+
+	@Test
+	void test_calculate_trapspaces() throws Exception {
+		assertEquals(2, workerPool.getSize());
+
+		assertThat(workerPool.calculateTrapSpaces(newArrayList("A, true", "B, A", "C, false")))
+			.containsExactly("1*0");
+
+		// workers are reused
+		for (int i = 0; i < 5; i++) {
+			assertThat(workerPool.calculateTrapSpaces(newArrayList("A, false", "B, !A")))
+				.containsExactly("0*");
+		}
+		assertEquals(0, workerPool.getRestarts());
+	}
+
+	@Test
+	void test_model_error() throws Exception {
+		Exception exception = assertThrows(Exception.class, () ->
+			workerPool.calculateTrapSpaces(newArrayList("error, true")));
+		assertEquals("mpbn failed: cannot process the model", exception.getMessage());
+
+		// the worker is still usable
+		assertThat(workerPool.calculateTrapSpaces(newArrayList("A, true"))).containsExactly("1");
+		assertEquals(0, workerPool.getRestarts());
+	}
+
+	@Test
+	void test_restart_on_crash() throws Exception {
+		// the request crashes the worker and its retry on a restarted worker
+		assertThrows(IOException.class, () ->
+			workerPool.calculateTrapSpaces(newArrayList("crash, true")));
+		assertEquals(1, workerPool.getRestarts());
+
+		// the crashed worker is restarted after its health check fails
+		for (int i = 0; i < 4; i++) {
+			assertThat(workerPool.calculateTrapSpaces(newArrayList("A, true", "B, false")))
+				.containsExactly("10");
+		}
+		assertEquals(2, workerPool.getRestarts());
+	}
+
+	@Test
+	void test_restart_on_timeout() throws Exception {
+		MPBNWorkerPool singleWorkerPool = new MPBNWorkerPool(1, scriptFile, tempDir.getAbsolutePath(),
+			2, mock(Logger.class));
+
+		try {
+			// the worker never answers: it's killed and restarted after the timeout
+			long start = System.currentTimeMillis();
+			assertThrows(TimeoutException.class, () ->
+				singleWorkerPool.calculateTrapSpaces(newArrayList("hang, true")));
+			assertTrue(System.currentTimeMillis() - start < 10000);
+			assertEquals(1, singleWorkerPool.getRestarts());
+
+			assertThat(singleWorkerPool.calculateTrapSpaces(newArrayList("A, true")))
+				.containsExactly("1");
+			assertEquals(1, singleWorkerPool.getRestarts());
+		} finally {
+			singleWorkerPool.shutdown();
+		}
+	}
+
+	@Test
+	void test_restart_on_unanswered_health_check() throws Exception {
+		MPBNWorkerPool singleWorkerPool = new MPBNWorkerPool(1, scriptFile, tempDir.getAbsolutePath(),
+			2, mock(Logger.class));
+
+		try {
+			// the worker answers and then stops answering (it's alive, but hung)
+			assertThat(singleWorkerPool.calculateTrapSpaces(newArrayList("mute, false")))
+				.containsExactly("0");
+			assertEquals(0, singleWorkerPool.getRestarts());
+
+			// the unanswered health check restarts the worker before the request
+			assertThat(singleWorkerPool.calculateTrapSpaces(newArrayList("A, true", "B, false")))
+				.containsExactly("10");
+			assertEquals(1, singleWorkerPool.getRestarts());
+		} finally {
+			singleWorkerPool.shutdown();
+		}
+	}
+
+	@Test
+	void test_extract_worker_script() throws IOException {
+		String scriptFile = MPBNWorkerPool.extractWorkerScript(tempDir.getAbsolutePath());
+
+		assertTrue(new File(scriptFile).exists());
+		assertEquals(new File(tempDir, "mpbn-worker.py").getAbsolutePath(), scriptFile);
+	}
+}
@@ -0,0 +1,47 @@
+package eu.druglogics.gitsbe.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MigrationRingTest {
+
+    @Test
+    void test_migrants_are_received_by_the_next_island_once() {
+        MigrationRing ring = new MigrationRing(3);
+        List<MutatedBooleanModel> migrants0 = new ArrayList<>();
+        List<MutatedBooleanModel> migrants2 = new ArrayList<>();
+
+        ring.send(0, migrants0);
+        ring.send(2, migrants2);
+
+        assertEquals(3, ring.size());
+        assertSame(migrants0, ring.receive(1));
+        assertSame(migrants2, ring.receive(0));
+
+        // nothing was sent to island 2 and the migrants are collected only once
+        assertNull(ring.receive(2));
+        assertNull(ring.receive(1));
+    }
+
+    @Test
+    void test_islands_are_taken_over_by_the_next_simulations() {
+        MigrationRing ring = new MigrationRing(2);
+
+        assertEquals(0, ring.join());
+        assertEquals(1, ring.join());
+        // all islands are occupied by running simulations
+        assertEquals(-1, ring.join());
+
+        List<MutatedBooleanModel> migrants = new ArrayList<>();
+        ring.send(1, migrants);
+        ring.leave(0);
+
+        // the next simulation takes over the free island and the migrants sent to it
+        assertEquals(0, ring.join());
+        assertSame(migrants, ring.receive(0));
+    }
+}
@@ -0,0 +1,75 @@
+package eu.druglogics.gitsbe.model;
+
+import eu.druglogics.gitsbe.drug.DrugPanel;
+import eu.druglogics.gitsbe.input.ModelOutputs;
+import eu.druglogics.gitsbe.util.Logger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.naming.ConfigurationException;
+import java.io.File;
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+class MutatedBooleanModelTest {
+
+	@TempDir
+	File tempDir;
+
+	private MutatedBooleanModel model;
+
+	@BeforeEach
+	void init() throws Exception {
+		Logger mockLogger = mock(Logger.class);
+
+		ClassLoader classLoader = getClass().getClassLoader();
+		DrugPanel.init(new File(classLoader.getResource("test_drugpanel_evolution").getFile()).getPath(), mockLogger);
+		ModelOutputs.init(new File(classLoader.getResource("test_modeloutputs_evolution").getFile()).getPath(), mockLogger);
+
+		ArrayList<SingleInteraction> testInteractions = new ArrayList<>();
+		testInteractions.add(new SingleInteraction("A\t->\tB"));
+		testInteractions.add(new SingleInteraction("C\t-|\tB"));
+		testInteractions.add(new SingleInteraction("C\t->\tA"));
+		testInteractions.add(new SingleInteraction("D\t->\tA"));
+		testInteractions.add(new SingleInteraction("B\t-|\tD"));
+		testInteractions.add(new SingleInteraction("D\t->\tC"));
+		testInteractions.add(new SingleInteraction("B\t-|\tC"));
+
+		GeneralModel generalModel = new GeneralModel(testInteractions, mockLogger);
+		generalModel.buildMultipleInteractions();
+		BooleanModel booleanModel = new BooleanModel(generalModel, "native_stable_states", mockLogger);
+		model = new MutatedBooleanModel(booleanModel, mockLogger);
+	}
+
+	@AfterEach
+	void reset_singletons() throws Exception {
+		Field drugPanel = DrugPanel.class.getDeclaredField("drugPanel");
+		drugPanel.setAccessible(true);
+		drugPanel.set(null, null);
+		ModelOutputs.reset();
+	}
+
+	@Test
+	void test_condition_fitness_for_two_drug_perturbation() throws Exception {
+		// the same values as before the observations were compiled
+		assertEquals(0.95f, model.getConditionFitnessForTwoDrugPerturbation(tempDir.getPath(),
+			"Drug(AA+BB) < min(Drug(AA),Drug(BB))", "globaloutput:0.1"));
+
+		// the model perturbed with drug CC has no stable states
+		assertEquals(0f, model.getConditionFitnessForTwoDrugPerturbation(tempDir.getPath(),
+			"Drug(AA+CC) < product(Drug(AA),Drug(CC))", "globaloutput:0.1"));
+	}
+
+	@Test
+	void test_condition_fitness_for_two_drug_perturbation_with_wrong_format() {
+		assertThrows(ConfigurationException.class, () -> model.getConditionFitnessForTwoDrugPerturbation(
+			tempDir.getPath(), "Drug(AA)", "globaloutput:0.1"));
+		assertThrows(ConfigurationException.class, () -> model.getConditionFitnessForTwoDrugPerturbation(
+			tempDir.getPath(), "Drug(AA+BB) < min(Drug(AA),Drug(BB))", "A:1"));
+	}
+}
@@ -0,0 +1,71 @@
+package eu.druglogics.gitsbe.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class NodeRegistryTest {
+
+    @Test
+    void test_ids_are_unique_and_stable() {
+        int id1 = NodeRegistry.getId("NodeRegistryTest_A");
+        int id2 = NodeRegistry.getId("NodeRegistryTest_B");
+
+        assertNotEquals(id1, id2);
+        assertEquals(id1, NodeRegistry.getId("NodeRegistryTest_A"));
+        assertEquals("NodeRegistryTest_A", NodeRegistry.getName(id1));
+        assertEquals("NodeRegistryTest_B", NodeRegistry.getName(id2));
+
+        // the constants are interned like the node names
+        assertEquals("false", NodeRegistry.getName(NodeRegistry.getId("false")));
+    }
+
+    @Test
+    void test_names_are_kept_when_the_registry_grows() {
+        List<Integer> ids = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            ids.add(NodeRegistry.getId("NodeRegistryTest_node_" + i));
+        }
+
+        for (int i = 0; i < 1000; i++) {
+            assertEquals("NodeRegistryTest_node_" + i, NodeRegistry.getName(ids.get(i)));
+            assertEquals(ids.get(i).intValue(), NodeRegistry.getId("NodeRegistryTest_node_" + i));
+        }
+    }
+
+    @Test
+    void test_concurrent_registration() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        List<Callable<int[]>> tasks = new ArrayList<>();
+        for (int task = 0; task < 4; task++) {
+            tasks.add(() -> {
+                int[] ids = new int[500];
+                for (int i = 0; i < ids.length; i++) {
+                    ids[i] = NodeRegistry.getId("NodeRegistryTest_concurrent_" + i);
+                }
+                return ids;
+            });
+        }
+
+        try {
+            List<Future<int[]>> results = executor.invokeAll(tasks);
+            int[] expectedIds = results.get(0).get();
+            for (Future<int[]> result : results) {
+                assertArrayEquals(expectedIds, result.get());
+            }
+
+            for (int i = 0; i < expectedIds.length; i++) {
+                assertEquals("NodeRegistryTest_concurrent_" + i, NodeRegistry.getName(expectedIds[i]));
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package eu.druglogics.gitsbe.model;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PackedAttractorTest {
+
+    @Test
+    void test_trapspace_from_string() {
+        PackedAttractor attractor = PackedAttractor.fromString("01-1");
+
+        assertEquals(4, attractor.getNumberOfNodes());
+        assertEquals(0, attractor.getNodeStateValue(0));
+        assertEquals(1, attractor.getNodeStateValue(1));
+        assertEquals(0.5, attractor.getNodeStateValue(2));
+        assertEquals(1, attractor.getNodeStateValue(3));
+        assertFalse(attractor.isStableState());
+        assertEquals("01-1", attractor.toString());
+
+        assertThrows(IndexOutOfBoundsException.class, () -> attractor.getNodeStateValue(4));
+        assertThrows(IllegalArgumentException.class, () -> PackedAttractor.fromString("01*1"));
+    }
+
+    @Test
+    void test_stable_states() {
+        // more than 64 nodes
+        StringBuilder state = new StringBuilder();
+        byte[] bytes = new byte[70];
+        for (int i = 0; i < 70; i++) {
+            bytes[i] = (byte) (i % 3 == 0 ? 1 : 0);
+            state.append(bytes[i]);
+        }
+
+        PackedAttractor fromString = PackedAttractor.fromString(state.toString());
+        PackedAttractor fromByteArray = PackedAttractor.fromByteArray(bytes);
+
+        assertTrue(fromString.isStableState());
+        assertEquals(fromString, fromByteArray);
+        assertEquals(fromString.hashCode(), fromByteArray.hashCode());
+        assertEquals(state.toString(), fromByteArray.toString());
+        assertEquals(1, fromByteArray.getNodeStateValue(69));
+        assertEquals(0, fromByteArray.getNodeStateValue(68));
+    }
+}
@@ -0,0 +1,86 @@
+package eu.druglogics.gitsbe.output;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BinaryFitnessReaderTest {
+
+	@TempDir
+	File tempDir;
+
+	@Test
+	void test_read_written_fitnesses() throws IOException {
+		String filename = new File(tempDir, "fitnesses.bin").getAbsolutePath();
+
+		try (BinaryFitnessWriter writer = new BinaryFitnessWriter(filename)) {
+			writer.writeSimulation(2, Arrays.asList(new float[] {0.5f, 0.25f, 0f}, new float[] {0.75f, 0.5f, 0.5f}));
+			writer.writeSimulation(1, Arrays.asList(new float[] {0.1f, 0.2f}));
+		}
+
+		BinaryFitnessReader reader = new BinaryFitnessReader(filename);
+
+		assertEquals(3, reader.getNumberOfRecords());
+
+		assertEquals(2, reader.getSimulation(1));
+		assertEquals(1, reader.getGeneration(1));
+		assertEquals(3, reader.getNumberOfModels(1));
+		assertArrayEquals(new float[] {0.75f, 0.5f, 0.5f}, reader.getFitnesses(1));
+
+		assertEquals(1, reader.getSimulation(2));
+		assertEquals(0, reader.getGeneration(2));
+		assertEquals(0.2f, reader.getFitness(2, 1));
+		assertThrows(IndexOutOfBoundsException.class, () -> reader.getFitness(2, 2));
+	}
+
+	@Test
+	void test_not_a_fitness_file() throws IOException {
+		File file = new File(tempDir, "fitnesses.txt");
+		Files.write(file.toPath(), "0.5\t0.25".getBytes());
+
+		Exception exception = assertThrows(IOException.class, () -> new BinaryFitnessReader(file.getAbsolutePath()));
+		assertEquals("Not a binary fitness file: " + file.getAbsolutePath(), exception.getMessage());
+	}
+
+	@Test
+	void test_corrupt_number_of_models() throws IOException {
+		String filename = new File(tempDir, "fitnesses.bin").getAbsolutePath();
+
+		try (BinaryFitnessWriter writer = new BinaryFitnessWriter(filename)) {
+			writer.writeSimulation(1, Arrays.asList(new float[] {0.5f, 0.25f}, new float[] {0.75f, 0.5f}));
+		}
+
+		// 4 times this count overflows to -12, i.e. the record would end where it starts
+		try (RandomAccessFile file = new RandomAccessFile(filename, "rw")) {
+			file.seek(BinaryFitnessWriter.HEADER_SIZE + 8);
+			file.writeInt(0x3FFFFFFD);
+		}
+
+		Exception exception = assertThrows(IOException.class, () -> new BinaryFitnessReader(filename));
+		assertEquals("Truncated record 0 in binary fitness file: " + filename, exception.getMessage());
+	}
+
+	@Test
+	void test_truncated_file() throws IOException {
+		String filename = new File(tempDir, "fitnesses.bin").getAbsolutePath();
+
+		try (BinaryFitnessWriter writer = new BinaryFitnessWriter(filename)) {
+			writer.writeSimulation(1, Arrays.asList(new float[] {0.5f, 0.25f}, new float[] {0.75f, 0.5f}));
+		}
+
+		// the last fitness value of the second record is missing
+		try (RandomAccessFile file = new RandomAccessFile(filename, "rw")) {
+			file.setLength(file.length() - 4);
+		}
+
+		Exception exception = assertThrows(IOException.class, () -> new BinaryFitnessReader(filename));
+		assertEquals("Truncated record 1 in binary fitness file: " + filename, exception.getMessage());
+	}
+}
@@ -0,0 +1,115 @@
+package eu.druglogics.gitsbe.output;
+
+import eu.druglogics.gitsbe.input.Config;
+import eu.druglogics.gitsbe.util.Logger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+class SummaryTest {
+
+	@TempDir
+	File tempDir;
+
+	private File summaryFile;
+	private File binaryFile;
+	private Summary summary;
+
+	@BeforeEach
+	void init() throws Exception {
+		File configFile = new File(tempDir, "config.tab");
+		Files.write(configFile.toPath(), Collections.singletonList("simulations:\t3"));
+		Logger mockLogger = mock(Logger.class);
+		Config.init(configFile.getPath(), mockLogger);
+
+		summaryFile = new File(tempDir, "summary.txt");
+		binaryFile = new File(tempDir, "fitnesses.bin");
+		summary = new Summary(summaryFile.getPath(), mockLogger);
+		summary.setBinaryFitnessFile(binaryFile.getPath());
+	}
+
+	@AfterEach
+	void reset_config() throws Exception {
+		Field config = Config.class.getDeclaredField("config");
+		config.setAccessible(true);
+		config.set(null, null);
+	}
+
+	private List<String> readSummary() throws IOException {
+		return Files.readAllLines(summaryFile.toPath());
+	}
+
+	@Test
+	void test_simulations_are_written_in_order() throws IOException {
+		summary.addSimulationFitnesses(Arrays.asList(new float[] {0.3f, 0.4f}, new float[] {0.5f, 0.6f}), 2);
+		// simulation 3 waits for simulations 1 and 2
+		assertFalse(readSummary().contains("Simulation 3"));
+
+		summary.addSimulationFitnesses(Collections.singletonList(new float[] {0.1f, 0.2f}), 0);
+		// simulation 1 is written right away, simulation 3 still waits for simulation 2
+		assertTrue(readSummary().contains("Simulation 1"));
+		assertFalse(readSummary().contains("Simulation 3"));
+
+		summary.addSimulationFitnesses(Collections.singletonList(new float[] {0.7f, 0.8f}), 1);
+		summary.addSimulationSkippedEvaluations(Arrays.asList(0, 1), 2);
+		summary.generateFitnessesReport();
+
+		assertEquals(Arrays.asList(
+			"",
+			"Fitness evolution",
+			"-----------------",
+			"",
+			"Simulation 1",
+			"0.1\t0.2",
+			"",
+			"Simulation 2",
+			"0.7\t0.8",
+			"",
+			"Simulation 3",
+			"0.3\t0.4",
+			"0.5\t0.6",
+			"",
+			"Skipped fitness evaluations (already evaluated genomes)",
+			"-------------------------------------------------------",
+			"Simulation 1:\t(total: 0)",
+			"Simulation 2:\t(total: 0)",
+			"Simulation 3:\t0\t1\t(total: 1)"
+		), readSummary());
+
+		BinaryFitnessReader reader = new BinaryFitnessReader(binaryFile.getPath());
+		assertEquals(4, reader.getNumberOfRecords());
+		assertEquals(1, reader.getSimulation(0));
+		assertEquals(2, reader.getSimulation(1));
+		assertEquals(3, reader.getSimulation(2));
+		assertEquals(1, reader.getGeneration(3));
+		assertArrayEquals(new float[] {0.5f, 0.6f}, reader.getFitnesses(3));
+	}
+
+	@Test
+	void test_simulations_after_an_unfinished_one_are_written_in_the_report() throws IOException {
+		summary.addSimulationFitnesses(Collections.singletonList(new float[] {0.3f}), 2);
+		summary.addSimulationFitnesses(Collections.singletonList(new float[] {0.2f}), 1);
+		assertFalse(readSummary().contains("Simulation 2"));
+
+		// simulation 1 never finished
+		summary.generateFitnessesReport();
+
+		List<String> lines = readSummary();
+		assertFalse(lines.contains("Simulation 1"));
+		assertTrue(lines.indexOf("Simulation 2") < lines.indexOf("Simulation 3"));
+		assertEquals("0.2", lines.get(lines.indexOf("Simulation 2") + 1));
+		assertEquals("0.3", lines.get(lines.indexOf("Simulation 3") + 1));
+	}
+}
@@ -4,9 +4,11 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.io.TempDir;
 
 import java.io.File;
+import java.io.IOException;
 
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
 
 public class FileDeleterTest {
 
@@ -24,4 +26,46 @@ public class FileDeleterTest {
 		fileDeleter.disable();
 		assertFalse(FileDeleter.isActive());
 	}
+
+	@Test
+	void test_delete_files_matching_model_name() throws IOException {
+		FileDeleter fileDeleter = new FileDeleter(tempDir.getAbsolutePath());
+		fileDeleter.activate();
+
+		File modelFile = new File(tempDir, "model_1.bnet");
+		File fixpointsFile = new File(tempDir, "model_1.dat.fp");
+		File otherModelFile = new File(tempDir, "model_10.bnet");
+		assertTrue(modelFile.createNewFile());
+		assertTrue(fixpointsFile.createNewFile());
+		assertTrue(otherModelFile.createNewFile());
+
+		FileDeleter.deleteFilesMatchingPattern(mock(Logger.class), "model_1");
+
+		assertFalse(modelFile.exists());
+		assertFalse(fixpointsFile.exists());
+		assertTrue(otherModelFile.exists());
+
+		fileDeleter.disable();
+	}
+
+	@Test
+	void test_delete_directory() throws IOException {
+		FileDeleter fileDeleter = new FileDeleter(tempDir.getAbsolutePath());
+
+		File scratchDir = new File(tempDir, "model_1_scratch");
+		assertTrue(scratchDir.mkdir());
+		assertTrue(new File(scratchDir, "model_1.bnet").createNewFile());
+		assertTrue(new File(scratchDir, "model_1.dat.fp").createNewFile());
+
+		// nothing is deleted while the fileDeleter is disabled
+		FileDeleter.deleteDirectory(mock(Logger.class), scratchDir);
+		assertTrue(scratchDir.exists());
+
+		fileDeleter.activate();
+		FileDeleter.deleteDirectory(mock(Logger.class), scratchDir);
+		assertFalse(scratchDir.exists());
+		assertTrue(tempDir.exists());
+
+		fileDeleter.disable();
+	}
 }
@@ -0,0 +1,29 @@
+package eu.druglogics.gitsbe.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class LatencyStatisticsTest {
+
+	@Test
+	void test_record() {
+		LatencyStatistics statistics = new LatencyStatistics();
+		assertEquals(0, statistics.getCalls());
+		assertEquals(0, statistics.getMeanMilliseconds());
+		assertNull(statistics.getSlowestCall());
+
+		statistics.record("model_1", 100, false);
+		statistics.record("model_2", 400, true);
+		statistics.record("model_3", 100, false);
+
+		assertEquals(3, statistics.getCalls());
+		assertEquals(1, statistics.getTimeouts());
+		assertEquals(200, statistics.getMeanMilliseconds());
+		assertEquals(400, statistics.getMaxMilliseconds());
+		assertEquals("model_2", statistics.getSlowestCall());
+		assertEquals("Calls: 3, mean: 200 ms, max: 400 ms (model_2), timeouts: 1",
+			statistics.getStatistics());
+	}
+}
@@ -0,0 +1,95 @@
+package eu.druglogics.gitsbe.util;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LoggerTest {
+
+	@TempDir
+	File tempDir;
+
+	@Test
+	void test_async_logging() throws IOException {
+		Logger logger = new Logger("test.log", tempDir.getAbsolutePath(), 2, false);
+		logger.startAsync();
+		assertTrue(logger.isAsync());
+
+		for (int i = 0; i < 10000; i++) {
+			int number = i;
+			logger.outputStringMessage(2, () -> "Message " + number);
+		}
+		logger.outputStringMessage(3, () -> {
+			throw new AssertionError("Message of disabled verbosity level was built");
+		});
+		logger.error("Last message");
+		logger.finish();
+
+		List<String> lines = Files.readAllLines(new File(tempDir, "test.log").toPath());
+		assertEquals(10002, lines.size());
+		assertEquals("Message 0", lines.get(1));
+		assertEquals("Message 9999", lines.get(10000));
+		assertEquals("ERROR: Last message", lines.get(10001));
+	}
+
+	@Test
+	void test_async_logging_while_finishing() throws Exception {
+		Logger logger = new Logger("test.log", tempDir.getAbsolutePath(), 1, false);
+		logger.startAsync();
+
+		// the threads keep logging while (and after) the logger finishes
+		int threadsNumber = 4;
+		List<Thread> threads = new ArrayList<>();
+		for (int thread = 0; thread < threadsNumber; thread++) {
+			String name = "Thread " + thread;
+			threads.add(new Thread(() -> {
+				for (int i = 0; i < 50000; i++) {
+					logger.outputStringMessage(1, name + ": " + i);
+				}
+			}));
+		}
+		threads.forEach(Thread::start);
+
+		Thread.sleep(20);
+		logger.finish();
+
+		// no thread is left blocked on the (no longer emptied) queue
+		for (Thread thread : threads) {
+			thread.join(10000);
+			assertFalse(thread.isAlive());
+		}
+
+		// every thread's messages up to the end of the log are written, none is lost in between
+		int[] nextMessage = new int[threadsNumber];
+		List<String> lines = Files.readAllLines(new File(tempDir, "test.log").toPath());
+		for (String line : lines.subList(1, lines.size())) {
+			String[] message = line.split("Thread |: ");
+			int thread = Integer.parseInt(message[1]);
+			assertEquals(nextMessage[thread], Integer.parseInt(message[2]), line);
+			nextMessage[thread]++;
+		}
+	}
+
+	@Test
+	void test_buffered_logger() throws IOException {
+		Logger logger = new Logger("test.log", tempDir.getAbsolutePath(), 3, false);
+		Logger bufferedLogger = logger.newBufferedLogger();
+
+		bufferedLogger.outputStringMessage(3, "Buffered message");
+		logger.outputStringMessage(1, "First message");
+		bufferedLogger.flushBufferTo(logger);
+		logger.finish();
+
+		List<String> lines = Files.readAllLines(new File(tempDir, "test.log").toPath());
+		assertEquals(3, lines.size());
+		assertEquals("First message", lines.get(1));
+		assertEquals("Buffered message", lines.get(2));
+	}
+}
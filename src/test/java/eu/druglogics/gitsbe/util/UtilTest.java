@@ -177,4 +177,23 @@ class UtilTest {
         assertEquals(Double.valueOf(df.format(floatArray[1])), -3.4);
         assertEquals(Double.valueOf(df.format(floatArray[2])), 1000.2);
     }
+
+    @Test
+    void test_get_top_indexes() {
+        float[] values = {0.2f, 0.9f, 0.5f, 0.9f, 0.1f, 0.5f};
+
+        assertArrayEquals(new int[] {1, 3, 2}, Util.getTopIndexes(values, 3));
+        assertArrayEquals(new int[] {1, 3, 2, 5, 0, 4}, Util.getTopIndexes(values, 6));
+        assertArrayEquals(new int[] {1, 3, 2, 5, 0, 4}, Util.getTopIndexes(values, 10));
+        assertArrayEquals(new int[] {}, Util.getTopIndexes(values, 0));
+
+        // ties are broken by the index and the array is not modified
+        float[] equalValues = {0, 0, 0, 0};
+        assertArrayEquals(new int[] {0, 1}, Util.getTopIndexes(equalValues, 2));
+        assertArrayEquals(new float[] {0, 0, 0, 0}, equalValues);
+
+        // NaN values are the smallest ones
+        float[] nanValues = {Float.NaN, 0, 1};
+        assertArrayEquals(new int[] {2, 1, 0}, Util.getTopIndexes(nanValues, 3));
+    }
 }
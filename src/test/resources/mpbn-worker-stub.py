@@ -0,0 +1,39 @@
+#!/usr/bin/env python
+#
+# Stand-in for mpbn-worker.py (same line protocol, no mpbn needed). For every
+# model it returns a single trapspace: nodes with a `true`/`false` equation
+# are fixed to 1/0, all other nodes are free ('*'). A model with an `error`
+# target gets an ERROR response and one with a `crash` target exits the worker.
+# A model with a `hang` target is never answered and after a model with a `mute`
+# target (which is answered) the worker doesn't answer anything, not even a PING.
+
+import sys
+import time
+
+for line in sys.stdin:
+    request = line.rstrip("\n")
+    if request == "PING":
+        sys.stdout.write("PONG\n")
+    elif request:
+        trapspace = ""
+        targets = []
+        for equation in request.split("\t"):
+            target, factors = [part.strip() for part in equation.split(",", 1)]
+            targets.append(target)
+            trapspace += {"true": "1", "false": "0"}.get(factors, "*")
+
+        if "crash" in targets:
+            sys.exit(1)
+        elif "hang" in targets:
+            while True:
+                time.sleep(1)
+        elif "error" in targets:
+            sys.stdout.write("ERROR cannot process the model\n")
+        else:
+            sys.stdout.write(trapspace + "\n")
+        sys.stdout.write("END\n")
+        if "mute" in targets:
+            sys.stdout.flush()
+            while True:
+                time.sleep(1)
+    sys.stdout.flush()